@@ -0,0 +1,75 @@
+package com.jlobatonm.socialclub_app.database;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Clase base de los DAO. Centraliza cómo se ejecutan las consultas
+ * (en el {@link DatabaseExecutor} compartido, con la prioridad del DAO) y cómo se
+ * entregan los resultados en el hilo principal respetando el {@link CancellationToken}.
+ */
+public abstract class BaseDao {
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    protected final CancellationToken cancellationToken;
+    protected final DatabaseExecutor.Priority priority;
+
+    /**
+     * Crea un DAO de prioridad {@link DatabaseExecutor.Priority#USER} sin ciclo de vida asociado.
+     */
+    protected BaseDao() {
+        this(new CancellationToken(), DatabaseExecutor.Priority.USER);
+    }
+
+    /**
+     * Crea un DAO de prioridad {@link DatabaseExecutor.Priority#USER} cuyas operaciones
+     * se cancelan con el token indicado.
+     *
+     * @param cancellationToken Token de cancelación de las operaciones.
+     */
+    protected BaseDao(CancellationToken cancellationToken) {
+        this(cancellationToken, DatabaseExecutor.Priority.USER);
+    }
+
+    /**
+     * Crea un DAO con el token y la prioridad indicados.
+     *
+     * @param cancellationToken Token de cancelación de las operaciones.
+     * @param priority          Carril del despachador en el que se encolan las consultas.
+     */
+    protected BaseDao(CancellationToken cancellationToken, DatabaseExecutor.Priority priority) {
+        this.cancellationToken = cancellationToken;
+        this.priority = priority;
+    }
+
+    /**
+     * Encola una consulta en el despachador de base de datos. Si la cola está llena,
+     * se notifica el error en el hilo principal.
+     *
+     * @param onError Destino del error en caso de rechazo.
+     * @param task    Consulta a ejecutar.
+     */
+    protected void execute(Consumer<Exception> onError, Runnable task) {
+        if (!DatabaseExecutor.getInstance().submit(priority, cancellationToken, task)) {
+            postToMain(() -> onError.accept(
+                    new RejectedExecutionException("Demasiadas operaciones pendientes con la base de datos")));
+        }
+    }
+
+    /**
+     * Entrega un resultado en el hilo principal, salvo que el token se haya cancelado.
+     *
+     * @param delivery Código que invoca al callback.
+     */
+    protected void postToMain(Runnable delivery) {
+        mainHandler.post(() -> {
+            if (!cancellationToken.isCancelled()) {
+                delivery.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.jlobatonm.socialclub_app.database;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+/**
+ * Señal de cancelación compartida entre quien lanza una operación de base de datos
+ * y el {@link DatabaseExecutor} que la ejecuta.
+ * <p>
+ * Una vez cancelado, las tareas asociadas que aún estén en cola se descartan sin llegar
+ * a ejecutarse y los resultados de las que ya estén en curso no se entregan al callback.
+ * Normalmente se enlaza al ciclo de vida de un Fragment/Activity con
+ * {@link #forLifecycle(LifecycleOwner)}, o se cancela en {@code ViewModel.onCleared()}.
+ * </p>
+ */
+public class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    /**
+     * Crea un token que se cancela automáticamente cuando el ciclo de vida indicado
+     * llega a {@code ON_DESTROY}. Para Fragments debe usarse el
+     * {@code getViewLifecycleOwner()}, ya que los callbacks suelen tocar la vista.
+     *
+     * @param owner Propietario del ciclo de vida al que se enlaza el token.
+     * @return Token enlazado al ciclo de vida.
+     */
+    @MainThread
+    public static CancellationToken forLifecycle(@NonNull LifecycleOwner owner) {
+        CancellationToken token = new CancellationToken();
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            token.cancel();
+            return token;
+        }
+        lifecycle.addObserver(new LifecycleEventObserver() {
+            @Override
+            public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    token.cancel();
+                    source.getLifecycle().removeObserver(this);
+                }
+            }
+        });
+        return token;
+    }
+
+    /**
+     * Cancela el token. Llamadas sucesivas no tienen efecto.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Indica si el token se ha cancelado.
+     *
+     * @return true si se ha llamado a {@link #cancel()}.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
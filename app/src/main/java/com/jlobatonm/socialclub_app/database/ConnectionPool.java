@@ -0,0 +1,531 @@
+package com.jlobatonm.socialclub_app.database;
+
+import android.util.Log;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool acotado de conexiones JDBC reutilizables.
+ * <p>
+ * Mantiene entre {@code minSize} y {@code maxSize} conexiones físicas abiertas contra MySQL.
+ * Las conexiones se prestan con {@link #borrow()} y se devuelven al pool llamando a
+ * {@link Connection#close()} sobre la conexión recibida, por lo que pueden usarse con
+ * try-with-resources. Antes de entregar una conexión que lleva tiempo inactiva se valida
+ * con {@link Connection#isValid(int)}, y una tarea de mantenimiento cierra las conexiones
+ * inactivas sobrantes y avisa de las conexiones que no se han devuelto a tiempo.
+ * </p>
+ */
+public class ConnectionPool {
+
+    private static final String TAG = "ConnectionPool";
+
+    private static final long BORROW_TIMEOUT_MS = 10_000;
+    private static final long IDLE_TIMEOUT_MS = 5 * 60_000;
+    private static final long VALIDATION_WINDOW_MS = 2_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long LEAK_THRESHOLD_MS = 30_000;
+    private static final long MAINTENANCE_INTERVAL_MS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition disponible = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> active = new HashSet<>();
+    private final ScheduledExecutorService maintenance;
+
+    private int totalConnections;
+    private int waiters;
+    private long borrowCount;
+    private long borrowNanosTotal;
+    private long borrowNanosMax;
+    private long connectionsCreated;
+    private long validationFailures;
+    private long leaksDetected;
+    private boolean closed;
+
+    /**
+     * Crea un pool de conexiones para la base de datos indicada.
+     * Las conexiones se abren de forma perezosa; la tarea de mantenimiento
+     * se encarga de completar el tamaño mínimo en segundo plano.
+     *
+     * @param url      URL JDBC de la base de datos.
+     * @param user     Usuario de la base de datos.
+     * @param password Contraseña del usuario.
+     * @param minSize  Número mínimo de conexiones que se mantienen abiertas.
+     * @param maxSize  Número máximo de conexiones abiertas simultáneamente.
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize) {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Tamaños de pool no válidos: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ConnectionPool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(this::mantenimiento,
+                MAINTENANCE_INTERVAL_MS, MAINTENANCE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Presta una conexión del pool, bloqueando el hilo actual si todas están en uso.
+     * La conexión devuelta debe cerrarse para retornarla al pool.
+     *
+     * @return Conexión lista para usarse.
+     * @throws SQLException Si no se puede abrir una conexión o se agota el tiempo de espera.
+     */
+    public Connection borrow() throws SQLException {
+        long inicio = System.nanoTime();
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(BORROW_TIMEOUT_MS);
+
+        while (true) {
+            PooledConnection candidata;
+            lock.lock();
+            try {
+                while (!closed && idle.isEmpty() && totalConnections >= maxSize) {
+                    long restante = limite - System.nanoTime();
+                    if (restante <= 0) {
+                        throw new SQLTimeoutException("Tiempo de espera agotado obteniendo una conexión del pool");
+                    }
+                    waiters++;
+                    try {
+                        disponible.awaitNanos(restante);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrumpido mientras se esperaba una conexión", e);
+                    } finally {
+                        waiters--;
+                    }
+                }
+                if (closed) {
+                    throw new SQLException("El pool de conexiones está cerrado");
+                }
+                candidata = idle.pollFirst();
+                if (candidata == null) {
+                    totalConnections++;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (candidata == null) {
+                candidata = abrirConexion();
+            } else if (!validar(candidata)) {
+                descartar(candidata);
+                continue;
+            }
+            return entregar(candidata, inicio);
+        }
+    }
+
+    /**
+     * Obtiene una instantánea de las métricas actuales del pool.
+     *
+     * @return Métricas del pool en el momento de la llamada.
+     */
+    public Stats getStats() {
+        lock.lock();
+        try {
+            return new Stats(active.size(), idle.size(), waiters, totalConnections, borrowCount,
+                    borrowNanosTotal, borrowNanosMax, connectionsCreated, validationFailures, leaksDetected);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones inactivas y detiene el mantenimiento.
+     * Las conexiones prestadas se cierran cuando se devuelven.
+     */
+    public void shutdown() {
+        List<PooledConnection> cerrar;
+        lock.lock();
+        try {
+            closed = true;
+            cerrar = new ArrayList<>(idle);
+            totalConnections -= idle.size();
+            idle.clear();
+            disponible.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        maintenance.shutdownNow();
+        for (PooledConnection conexion : cerrar) {
+            cerrarFisica(conexion);
+        }
+    }
+
+    /**
+     * Abre una nueva conexión física. El hueco en {@code totalConnections}
+     * ya debe estar reservado por el llamador.
+     */
+    private PooledConnection abrirConexion() throws SQLException {
+        try {
+            Log.d(TAG, "Abriendo nueva conexión física");
+            PooledConnection conexion = new PooledConnection(DriverManager.getConnection(url, user, password));
+            lock.lock();
+            try {
+                connectionsCreated++;
+            } finally {
+                lock.unlock();
+            }
+            return conexion;
+        } catch (SQLException e) {
+            lock.lock();
+            try {
+                totalConnections--;
+                disponible.signal();
+            } finally {
+                lock.unlock();
+            }
+            Log.e(TAG, "Error abriendo conexión: " + e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private boolean validar(PooledConnection conexion) {
+        if (System.currentTimeMillis() - conexion.lastUsed < VALIDATION_WINDOW_MS) {
+            return true;
+        }
+        try {
+            if (conexion.raw.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return true;
+            }
+        } catch (SQLException e) {
+            Log.w(TAG, "Error validando conexión: " + e.getMessage());
+        }
+        lock.lock();
+        try {
+            validationFailures++;
+        } finally {
+            lock.unlock();
+        }
+        return false;
+    }
+
+    private Connection entregar(PooledConnection conexion, long inicioNanos) {
+        long espera = System.nanoTime() - inicioNanos;
+        lock.lock();
+        try {
+            conexion.borrowedAt = System.currentTimeMillis();
+            conexion.borrowSite = new Throwable("Conexión prestada desde aquí");
+            conexion.leakReported = false;
+            active.add(conexion);
+            borrowCount++;
+            borrowNanosTotal += espera;
+            borrowNanosMax = Math.max(borrowNanosMax, espera);
+        } finally {
+            lock.unlock();
+        }
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Lease(conexion));
+    }
+
+    /**
+     * Devuelve una conexión al pool, restaurando su estado si el usuario lo modificó.
+     */
+    private void devolver(PooledConnection conexion) {
+        boolean reutilizable;
+        try {
+            if (!conexion.raw.getAutoCommit()) {
+                conexion.raw.rollback();
+                conexion.raw.setAutoCommit(true);
+            }
+            reutilizable = !conexion.raw.isClosed();
+        } catch (SQLException e) {
+            Log.w(TAG, "Conexión descartada al devolverla: " + e.getMessage());
+            reutilizable = false;
+        }
+
+        lock.lock();
+        try {
+            active.remove(conexion);
+            conexion.borrowSite = null;
+            if (reutilizable && !closed) {
+                conexion.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(conexion);
+            } else {
+                totalConnections--;
+            }
+            disponible.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        if (!reutilizable || closed) {
+            cerrarFisica(conexion);
+        }
+    }
+
+    private void descartar(PooledConnection conexion) {
+        lock.lock();
+        try {
+            totalConnections--;
+            disponible.signal();
+        } finally {
+            lock.unlock();
+        }
+        cerrarFisica(conexion);
+    }
+
+    private void cerrarFisica(PooledConnection conexion) {
+        try {
+            conexion.raw.close();
+        } catch (SQLException e) {
+            Log.w(TAG, "Error cerrando conexión física: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Tarea periódica: expulsa conexiones inactivas por encima del mínimo,
+     * informa de posibles fugas y rellena el pool hasta el tamaño mínimo.
+     */
+    private void mantenimiento() {
+        List<PooledConnection> expulsadas = new ArrayList<>();
+        int aCrear;
+        long ahora = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && totalConnections > minSize) {
+                PooledConnection conexion = it.next();
+                if (ahora - conexion.lastUsed > IDLE_TIMEOUT_MS) {
+                    it.remove();
+                    totalConnections--;
+                    expulsadas.add(conexion);
+                }
+            }
+
+            for (PooledConnection conexion : active) {
+                if (!conexion.leakReported && ahora - conexion.borrowedAt > LEAK_THRESHOLD_MS) {
+                    conexion.leakReported = true;
+                    leaksDetected++;
+                    Log.w(TAG, "Posible fuga: conexión prestada hace " + (ahora - conexion.borrowedAt)
+                            + " ms sin devolver", conexion.borrowSite);
+                }
+            }
+
+            aCrear = closed ? 0 : Math.max(0, minSize - totalConnections);
+            totalConnections += aCrear;
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection conexion : expulsadas) {
+            cerrarFisica(conexion);
+        }
+
+        for (int i = 0; i < aCrear; i++) {
+            try {
+                PooledConnection conexion = abrirConexion();
+                lock.lock();
+                try {
+                    conexion.lastUsed = System.currentTimeMillis();
+                    idle.offerLast(conexion);
+                    disponible.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                // abrirConexion ya ha liberado el hueco reservado; se reintentará en el próximo ciclo
+                lock.lock();
+                try {
+                    int pendientes = aCrear - i - 1;
+                    totalConnections -= pendientes;
+                } finally {
+                    lock.unlock();
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Conexión física gestionada por el pool junto a su estado de préstamo.
+     */
+    private static final class PooledConnection {
+        final Connection raw;
+        long lastUsed = System.currentTimeMillis();
+        long borrowedAt;
+        Throwable borrowSite;
+        boolean leakReported;
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+        }
+    }
+
+    /**
+     * Envoltorio entregado al usuario en cada préstamo. Intercepta {@code close()}
+     * para devolver la conexión física al pool en lugar de cerrarla.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection conexion;
+        private boolean devuelta;
+
+        Lease(PooledConnection conexion) {
+            this.conexion = conexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (devuelta) {
+                            return null;
+                        }
+                        devuelta = true;
+                    }
+                    devolver(conexion);
+                    return null;
+                case "isClosed":
+                    synchronized (this) {
+                        if (devuelta) {
+                            return true;
+                        }
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + conexion.raw + "]";
+                default:
+                    synchronized (this) {
+                        if (devuelta) {
+                            throw new SQLException("La conexión ya se ha devuelto al pool");
+                        }
+                    }
+            }
+            try {
+                return method.invoke(conexion.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Instantánea inmutable de las métricas del pool.
+     */
+    public static final class Stats {
+        private final int active;
+        private final int idle;
+        private final int waiters;
+        private final int total;
+        private final long borrowCount;
+        private final long borrowNanosTotal;
+        private final long borrowNanosMax;
+        private final long connectionsCreated;
+        private final long validationFailures;
+        private final long leaksDetected;
+
+        Stats(int active, int idle, int waiters, int total, long borrowCount, long borrowNanosTotal,
+              long borrowNanosMax, long connectionsCreated, long validationFailures, long leaksDetected) {
+            this.active = active;
+            this.idle = idle;
+            this.waiters = waiters;
+            this.total = total;
+            this.borrowCount = borrowCount;
+            this.borrowNanosTotal = borrowNanosTotal;
+            this.borrowNanosMax = borrowNanosMax;
+            this.connectionsCreated = connectionsCreated;
+            this.validationFailures = validationFailures;
+            this.leaksDetected = leaksDetected;
+        }
+
+        /** @return Conexiones prestadas en este momento. */
+        public int getActive() {
+            return active;
+        }
+
+        /** @return Conexiones abiertas disponibles en el pool. */
+        public int getIdle() {
+            return idle;
+        }
+
+        /** @return Hilos esperando a que se libere una conexión. */
+        public int getWaiters() {
+            return waiters;
+        }
+
+        /** @return Conexiones físicas abiertas o en proceso de apertura. */
+        public int getTotal() {
+            return total;
+        }
+
+        /** @return Número total de préstamos realizados. */
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        /** @return Latencia media de préstamo en milisegundos. */
+        public double getAverageBorrowMillis() {
+            return borrowCount == 0 ? 0 : borrowNanosTotal / (double) borrowCount / 1_000_000.0;
+        }
+
+        /** @return Latencia máxima de préstamo en milisegundos. */
+        public double getMaxBorrowMillis() {
+            return borrowNanosMax / 1_000_000.0;
+        }
+
+        /** @return Conexiones físicas abiertas desde la creación del pool. */
+        public long getConnectionsCreated() {
+            return connectionsCreated;
+        }
+
+        /** @return Conexiones descartadas por fallar la validación. */
+        public long getValidationFailures() {
+            return validationFailures;
+        }
+
+        /** @return Préstamos que han superado el umbral de fuga. */
+        public long getLeaksDetected() {
+            return leaksDetected;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "activas=%d, inactivas=%d, esperando=%d, total=%d, prestamos=%d, espera media=%.2f ms, espera max=%.2f ms, creadas=%d, invalidas=%d, fugas=%d",
+                    active, idle, waiters, total, borrowCount, getAverageBorrowMillis(), getMaxBorrowMillis(),
+                    connectionsCreated, validationFailures, leaksDetected);
+        }
+    }
+}
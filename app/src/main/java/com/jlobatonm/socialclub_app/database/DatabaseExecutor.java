@@ -0,0 +1,270 @@
+package com.jlobatonm.socialclub_app.database;
+
+import android.util.Log;
+
+import java.util.Locale;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Despachador compartido para todo el trabajo de base de datos de la aplicación.
+ * <p>
+ * Sustituye al {@code new Thread(...)} por consulta: un número fijo de hilos (igual al
+ * tamaño máximo del {@link ConnectionPool}, ya que más hilos sólo esperarían una conexión)
+ * atiende una cola con dos carriles de prioridad. Las tareas {@link Priority#USER}, que
+ * el usuario está esperando en pantalla, se atienden siempre antes que las
+ * {@link Priority#BACKGROUND} (sondeos, recordatorios). Cada carril tiene una capacidad
+ * máxima; si se supera, la tarea se rechaza en lugar de acumularse sin límite.
+ * </p>
+ * <p>
+ * Las tareas pueden llevar un {@link CancellationToken}; si se cancela antes de que la
+ * tarea empiece, se descarta sin ocupar un hilo ni una conexión.
+ * </p>
+ */
+public class DatabaseExecutor {
+
+    private static final String TAG = "DatabaseExecutor";
+
+    private static final int THREADS = MySQLConnection.MAX_POOL_SIZE;
+    private static final int MAX_USER_QUEUED = 64;
+    private static final int MAX_BACKGROUND_QUEUED = 16;
+
+    /**
+     * Carriles de prioridad del despachador, de mayor a menor prioridad.
+     */
+    public enum Priority {
+        /** Lecturas y escrituras que el usuario está esperando en pantalla. */
+        USER,
+        /** Trabajo en segundo plano: sondeos, notificaciones, precargas. */
+        BACKGROUND
+    }
+
+    private static DatabaseExecutor instance;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger queuedUser = new AtomicInteger();
+    private final AtomicInteger queuedBackground = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong waitNanosTotal = new AtomicLong();
+    private final AtomicLong waitNanosMax = new AtomicLong();
+    private final AtomicLong runNanosTotal = new AtomicLong();
+    private final AtomicLong runNanosMax = new AtomicLong();
+
+    private DatabaseExecutor() {
+        ThreadFactory factory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "db-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        executor = new ThreadPoolExecutor(THREADS, THREADS, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), factory);
+    }
+
+    /**
+     * Obtiene la instancia única del despachador.
+     *
+     * @return La instancia compartida de DatabaseExecutor.
+     */
+    public static synchronized DatabaseExecutor getInstance() {
+        if (instance == null) {
+            instance = new DatabaseExecutor();
+        }
+        return instance;
+    }
+
+    /**
+     * Encola una tarea de base de datos.
+     *
+     * @param priority Carril en el que se encola la tarea.
+     * @param token    Token de cancelación de la tarea; puede ser null.
+     * @param task     Trabajo a ejecutar en un hilo del despachador.
+     * @return true si la tarea se ha encolado, false si se ha rechazado por cola llena.
+     */
+    public boolean submit(Priority priority, CancellationToken token, Runnable task) {
+        AtomicInteger queued = priority == Priority.USER ? queuedUser : queuedBackground;
+        int limit = priority == Priority.USER ? MAX_USER_QUEUED : MAX_BACKGROUND_QUEUED;
+        if (queued.incrementAndGet() > limit) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            Log.w(TAG, "Cola " + priority + " llena, tarea rechazada (" + getStats() + ")");
+            return false;
+        }
+        executor.execute(new Task(priority, token, task, sequence.getAndIncrement()));
+        return true;
+    }
+
+    /**
+     * Obtiene una instantánea de las métricas actuales del despachador.
+     *
+     * @return Métricas del despachador en el momento de la llamada.
+     */
+    public Stats getStats() {
+        return new Stats(queuedUser.get(), queuedBackground.get(), running.get(), completed.get(),
+                rejected.get(), cancelled.get(), waitNanosTotal.get(), waitNanosMax.get(),
+                runNanosTotal.get(), runNanosMax.get());
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // reintentar hasta publicar el nuevo máximo
+        }
+    }
+
+    /**
+     * Tarea encolada. Se ordena por prioridad y, dentro del mismo carril, por orden de llegada.
+     */
+    private final class Task implements Runnable, Comparable<Task> {
+        private final Priority priority;
+        private final CancellationToken token;
+        private final Runnable delegate;
+        private final long seq;
+        private final long enqueuedAt = System.nanoTime();
+
+        Task(Priority priority, CancellationToken token, Runnable delegate, long seq) {
+            this.priority = priority;
+            this.token = token;
+            this.delegate = delegate;
+            this.seq = seq;
+        }
+
+        @Override
+        public void run() {
+            (priority == Priority.USER ? queuedUser : queuedBackground).decrementAndGet();
+            if (token != null && token.isCancelled()) {
+                cancelled.incrementAndGet();
+                return;
+            }
+
+            long start = System.nanoTime();
+            long wait = start - enqueuedAt;
+            waitNanosTotal.addAndGet(wait);
+            updateMax(waitNanosMax, wait);
+
+            running.incrementAndGet();
+            try {
+                delegate.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error no controlado en tarea de base de datos: " + e.getMessage(), e);
+            } finally {
+                running.decrementAndGet();
+                long duration = System.nanoTime() - start;
+                runNanosTotal.addAndGet(duration);
+                updateMax(runNanosMax, duration);
+                completed.incrementAndGet();
+            }
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(seq, other.seq);
+        }
+    }
+
+    /**
+     * Instantánea inmutable de las métricas del despachador.
+     */
+    public static final class Stats {
+        private final int queuedUser;
+        private final int queuedBackground;
+        private final int running;
+        private final long completed;
+        private final long rejected;
+        private final long cancelled;
+        private final long waitNanosTotal;
+        private final long waitNanosMax;
+        private final long runNanosTotal;
+        private final long runNanosMax;
+
+        Stats(int queuedUser, int queuedBackground, int running, long completed, long rejected,
+              long cancelled, long waitNanosTotal, long waitNanosMax, long runNanosTotal, long runNanosMax) {
+            this.queuedUser = queuedUser;
+            this.queuedBackground = queuedBackground;
+            this.running = running;
+            this.completed = completed;
+            this.rejected = rejected;
+            this.cancelled = cancelled;
+            this.waitNanosTotal = waitNanosTotal;
+            this.waitNanosMax = waitNanosMax;
+            this.runNanosTotal = runNanosTotal;
+            this.runNanosMax = runNanosMax;
+        }
+
+        /** @return Tareas de usuario en cola. */
+        public int getQueuedUser() {
+            return queuedUser;
+        }
+
+        /** @return Tareas en segundo plano en cola. */
+        public int getQueuedBackground() {
+            return queuedBackground;
+        }
+
+        /** @return Profundidad total de la cola. */
+        public int getQueueDepth() {
+            return queuedUser + queuedBackground;
+        }
+
+        /** @return Tareas ejecutándose en este momento. */
+        public int getRunning() {
+            return running;
+        }
+
+        /** @return Tareas ejecutadas desde el arranque. */
+        public long getCompleted() {
+            return completed;
+        }
+
+        /** @return Tareas rechazadas por cola llena. */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /** @return Tareas descartadas por cancelación antes de empezar. */
+        public long getCancelled() {
+            return cancelled;
+        }
+
+        /** @return Tiempo medio en cola en milisegundos. */
+        public double getAverageWaitMillis() {
+            return completed == 0 ? 0 : waitNanosTotal / (double) completed / 1_000_000.0;
+        }
+
+        /** @return Tiempo máximo en cola en milisegundos. */
+        public double getMaxWaitMillis() {
+            return waitNanosMax / 1_000_000.0;
+        }
+
+        /** @return Tiempo medio de ejecución en milisegundos. */
+        public double getAverageRunMillis() {
+            return completed == 0 ? 0 : runNanosTotal / (double) completed / 1_000_000.0;
+        }
+
+        /** @return Tiempo máximo de ejecución en milisegundos. */
+        public double getMaxRunMillis() {
+            return runNanosMax / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "cola usuario=%d, cola fondo=%d, ejecutando=%d, completadas=%d, rechazadas=%d, canceladas=%d, espera media=%.2f ms, espera max=%.2f ms, ejecucion media=%.2f ms, ejecucion max=%.2f ms",
+                    queuedUser, queuedBackground, running, completed, rejected, cancelled,
+                    getAverageWaitMillis(), getMaxWaitMillis(), getAverageRunMillis(), getMaxRunMillis());
+        }
+    }
+}
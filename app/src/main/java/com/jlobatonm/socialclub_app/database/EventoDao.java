@@ -2,6 +2,9 @@ package com.jlobatonm.socialclub_app.database;
 
                     import android.util.Log;
                     import com.jlobatonm.socialclub_app.model.Evento;
+                    import java.io.ByteArrayOutputStream;
+                    import java.io.IOException;
+                    import java.io.InputStream;
                     import java.sql.Connection;
                     import java.sql.PreparedStatement;
                     import java.sql.ResultSet;
@@ -12,11 +15,43 @@ package com.jlobatonm.socialclub_app.database;
                     /**
                      * Clase DAO (Data Access Object) para gestionar las operaciones de base de datos
                      * relacionadas con eventos del club social.
+                     * Los listados devuelven sólo metadatos (incluido el tamaño y el hash de la imagen);
+                     * las imágenes se descargan por separado con {@link #getImagenEvento}.
                      */
-                    public class EventoDao {
+                    public class EventoDao extends BaseDao {
 
                         private static final String TAG = "EventoDao";
 
+                        private static final String COLUMNAS_METADATOS =
+                                "idevento, nombre, fecha, LENGTH(imagen) AS imagen_tamanio, MD5(imagen) AS imagen_hash";
+                        private static final int BUFFER_SIZE = 16 * 1024;
+
+                        /**
+                         * Crea un DAO cuyas consultas se encolan con prioridad de usuario.
+                         */
+                        public EventoDao() {
+                            super();
+                        }
+
+                        /**
+                         * Crea un DAO cuyas consultas se cancelan con el token indicado.
+                         *
+                         * @param cancellationToken Token de cancelación, normalmente ligado a un ciclo de vida.
+                         */
+                        public EventoDao(CancellationToken cancellationToken) {
+                            super(cancellationToken);
+                        }
+
+                        /**
+                         * Crea un DAO con el token de cancelación y la prioridad indicados.
+                         *
+                         * @param cancellationToken Token de cancelación, normalmente ligado a un ciclo de vida.
+                         * @param priority          Carril del despachador en el que se encolan las consultas.
+                         */
+                        public EventoDao(CancellationToken cancellationToken, DatabaseExecutor.Priority priority) {
+                            super(cancellationToken, priority);
+                        }
+
                         /**
                          * Interfaz de callback para obtener la lista de eventos.
                          */
@@ -35,17 +70,74 @@ package com.jlobatonm.socialclub_app.database;
                         }
 
                         /**
-                         * Obtiene todos los eventos almacenados en la base de datos.
-                         * La consulta se ejecuta en un hilo separado y los resultados se devuelven a través del callback.
+                         * Obtiene los metadatos de los eventos de hoy en adelante, ordenados por fecha, sin sus imágenes.
                          *
-                         * @param connection Conexión a la base de datos.
                          * @param callback Interfaz de callback para manejar los resultados o errores.
                          */
-                        public void getAllEventos(Connection connection, GetAllEventosCallback callback) {
-                            new Thread(() -> {
-                                try {
-                                    String query = "SELECT idevento, nombre, imagen, fecha FROM evento";
-                                    PreparedStatement statement = connection.prepareStatement(query);
+                        public void getEventosProximos(GetAllEventosCallback callback) {
+                            consultarEventos("SELECT " + COLUMNAS_METADATOS + " FROM evento WHERE fecha >= CURDATE() ORDER BY fecha", callback);
+                        }
+
+                        /**
+                         * Obtiene los metadatos de los eventos con identificador mayor que el indicado,
+                         * ordenados por identificador. Permite sincronizar de forma incremental sin volver
+                         * a descargar los eventos ya conocidos.
+                         *
+                         * @param ultimoIdEvento Último identificador de evento ya procesado.
+                         * @param callback       Interfaz de callback para manejar los resultados o errores.
+                         */
+                        public void getEventosNuevos(int ultimoIdEvento, GetAllEventosCallback callback) {
+                            consultarEventos("SELECT " + COLUMNAS_METADATOS + " FROM evento WHERE idevento > ? ORDER BY idevento",
+                                    callback, ultimoIdEvento);
+                        }
+
+                        /**
+                         * Interfaz de callback para obtener el identificador de evento más alto.
+                         */
+                        public interface GetUltimoIdEventoCallback {
+                            /**
+                             * Método llamado cuando la consulta es exitosa.
+                             * @param ultimoIdEvento Identificador más alto, o 0 si no hay eventos.
+                             */
+                            void onResult(int ultimoIdEvento);
+
+                            /**
+                             * Método llamado cuando ocurre un error durante la consulta.
+                             * @param exception Excepción que contiene los detalles del error.
+                             */
+                            void onError(Exception exception);
+                        }
+
+                        /**
+                         * Obtiene el identificador de evento más alto existente, sin descargar ningún evento.
+                         *
+                         * @param callback Interfaz de callback para manejar el resultado o error.
+                         */
+                        public void getUltimoIdEvento(GetUltimoIdEventoCallback callback) {
+                            execute(callback::onError, () -> {
+                                String query = "SELECT COALESCE(MAX(idevento), 0) FROM evento";
+                                try (Connection connection = MySQLConnection.getConnection();
+                                     PreparedStatement statement = connection.prepareStatement(query);
+                                     ResultSet resultSet = statement.executeQuery()) {
+
+                                    int ultimoId = resultSet.next() ? resultSet.getInt(1) : 0;
+                                    postToMain(() -> callback.onResult(ultimoId));
+
+                                } catch (SQLException e) {
+                                    Log.e(TAG, "Error getting ultimo id evento: " + e.getMessage(), e);
+                                    postToMain(() -> callback.onError(e));
+                                }
+                            });
+                        }
+
+
+                        private void consultarEventos(String query, GetAllEventosCallback callback, int... parametros) {
+                            execute(callback::onError, () -> {
+                                try (Connection connection = MySQLConnection.getConnection();
+                                     PreparedStatement statement = connection.prepareStatement(query)) {
+                                    for (int i = 0; i < parametros.length; i++) {
+                                        statement.setInt(i + 1, parametros[i]);
+                                    }
                                     ResultSet resultSet = statement.executeQuery();
 
                                     List<Evento> eventos = new ArrayList<>();
@@ -53,22 +145,93 @@ package com.jlobatonm.socialclub_app.database;
                                         Evento evento = new Evento();
                                         evento.setIdEvento(resultSet.getInt("idevento"));
                                         evento.setNombre(resultSet.getString("nombre"));
-                                        evento.setImagen(resultSet.getBytes("imagen"));
                                         evento.setFecha(resultSet.getDate("fecha"));
+                                        evento.setImagenTamanio(resultSet.getLong("imagen_tamanio"));
+                                        evento.setImagenHash(resultSet.getString("imagen_hash"));
                                         eventos.add(evento);
                                     }
-
                                     resultSet.close();
-                                    statement.close();
 
-                                    android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                                    mainHandler.post(() -> callback.onResult(eventos));
+                                    postToMain(() -> callback.onResult(eventos));
 
                                 } catch (SQLException e) {
                                     Log.e(TAG, "Error getting eventos: " + e.getMessage(), e);
-                                    android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                                    mainHandler.post(() -> callback.onError(e));
+                                    postToMain(() -> callback.onError(e));
+                                }
+                            });
+                        }
+
+                        /**
+                         * Interfaz de callback para obtener la imagen de un evento.
+                         */
+                        public interface GetImagenEventoCallback {
+                            /**
+                             * Método llamado cuando la imagen se ha obtenido.
+                             * @param imagen Bytes de la imagen, o null si el evento no tiene imagen.
+                             */
+                            void onResult(byte[] imagen);
+
+                            /**
+                             * Método llamado cuando ocurre un error durante la descarga.
+                             * @param exception Excepción que contiene los detalles del error.
+                             */
+                            void onError(Exception exception);
+                        }
+
+                        /**
+                         * Obtiene la imagen de un evento, leída en streaming con {@link ResultSet#getBinaryStream}.
+                         * No se guarda en memoria: las pantallas la piden a través de
+                         * {@link com.jlobatonm.socialclub_app.utils.ImageLoader}, que ya la guarda en su caché.
+                         * El tamaño de lectura {@code Integer.MIN_VALUE}
+                         * hace que Connector/J no cargue antes la fila completa en memoria, de modo que la imagen
+                         * sólo se copia una vez, en el array que se entrega.
+                         *
+                         * @param evento   Evento, con sus metadatos de imagen, cuya imagen se quiere obtener.
+                         * @param callback Interfaz de callback para manejar el resultado o error.
+                         */
+                        public void getImagenEvento(Evento evento, GetImagenEventoCallback callback) {
+                            if (!evento.tieneImagen()) {
+                                postToMain(() -> callback.onResult(null));
+                                return;
+                            }
+
+                            execute(callback::onError, () -> {
+                                String query = "SELECT imagen FROM evento WHERE idevento = ?";
+                                try (Connection connection = MySQLConnection.getConnection();
+                                     PreparedStatement statement = connection.prepareStatement(query)) {
+                                    statement.setInt(1, evento.getIdEvento());
+                                    statement.setFetchSize(Integer.MIN_VALUE);
+
+                                    byte[] imagen = null;
+                                    try (ResultSet resultSet = statement.executeQuery()) {
+                                        if (resultSet.next()) {
+                                            imagen = leerStream(resultSet.getBinaryStream("imagen"), evento.getImagenTamanio());
+                                        }
+                                    }
+
+                                    final byte[] finalImagen = imagen;
+                                    postToMain(() -> callback.onResult(finalImagen));
+
+                                } catch (SQLException | IOException e) {
+                                    Log.e(TAG, "Error getting imagen evento: " + e.getMessage(), e);
+                                    postToMain(() -> callback.onError(e));
+                                }
+                            });
+                        }
+
+                        private static byte[] leerStream(InputStream inputStream, long tamanioEsperado) throws IOException {
+                            if (inputStream == null) {
+                                return null;
+                            }
+                            int capacidad = (int) Math.min(Math.max(tamanioEsperado, BUFFER_SIZE), Integer.MAX_VALUE - 8);
+                            try (InputStream in = inputStream;
+                                 ByteArrayOutputStream out = new ByteArrayOutputStream(capacidad)) {
+                                byte[] buffer = new byte[BUFFER_SIZE];
+                                int leidos;
+                                while ((leidos = in.read(buffer)) != -1) {
+                                    out.write(buffer, 0, leidos);
                                 }
-                            }).start();
+                                return out.toByteArray();
+                            }
                         }
                     }
\ No newline at end of file
@@ -2,7 +2,7 @@ package com.jlobatonm.socialclub_app.database;
 
 import android.util.Log;
 
-import com.jlobatonm.socialclub_app.model.Instalacion;
+import com.jlobatonm.socialclub_app.model.InstalacionResumen;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -14,20 +14,53 @@ import java.util.List;
 /**
  * Clase DAO (Data Access Object) para gestionar las operaciones de base de datos
  * relacionadas con las instalaciones del club social.
+ * <p>
+ * Ninguna consulta transfiere la columna {@code imagen}, que ninguna pantalla muestra: las
+ * listas y horarios sólo leen las columnas de {@link InstalacionResumen}.
+ * </p>
  */
-public class InstalacionDao {
+public class InstalacionDao extends BaseDao {
     private static final String TAG = "InstalacionDao";
 
+    private static final String COLUMNAS_RESUMEN =
+            "id, tipo, nombre, duracion, hora_ini, hora_fin, disponibilidad";
+
+    /**
+     * Crea un DAO cuyas consultas se encolan con prioridad de usuario.
+     */
+    public InstalacionDao() {
+        super();
+    }
+
+    /**
+     * Crea un DAO cuyas consultas se cancelan con el token indicado.
+     *
+     * @param cancellationToken Token de cancelación, normalmente ligado a un ciclo de vida.
+     */
+    public InstalacionDao(CancellationToken cancellationToken) {
+        super(cancellationToken);
+    }
+
+    /**
+     * Crea un DAO con el token de cancelación y la prioridad indicados.
+     *
+     * @param cancellationToken Token de cancelación, normalmente ligado a un ciclo de vida.
+     * @param priority          Carril del despachador en el que se encolan las consultas.
+     */
+    public InstalacionDao(CancellationToken cancellationToken, DatabaseExecutor.Priority priority) {
+        super(cancellationToken, priority);
+    }
+
     /**
-     * Interfaz de callback para obtener la lista completa de instalaciones.
+     * Interfaz de callback para obtener la lista resumida de instalaciones.
      */
-    public interface GetAllInstalacionesCallback {
+    public interface GetResumenInstalacionesCallback {
         /**
          * Método llamado cuando la consulta es exitosa.
          *
-         * @param instalaciones Lista de instalaciones obtenidas de la base de datos.
+         * @param instalaciones Lista de instalaciones resumidas.
          */
-        void onResult(List<Instalacion> instalaciones);
+        void onResult(List<InstalacionResumen> instalaciones);
 
         /**
          * Método llamado cuando ocurre un error durante la consulta.
@@ -38,61 +71,42 @@ public class InstalacionDao {
     }
 
     /**
-     * Obtiene todas las instalaciones almacenadas en la base de datos.
-     * La consulta se ejecuta en un hilo separado y los resultados se devuelven a través del callback.
+     * Obtiene el resumen (nombre, tipo y horario) de todas las instalaciones.
+     * Pensado para listas y selectores, donde no se necesitan precios ni imágenes.
      *
-     * @param connection Conexión a la base de datos.
-     * @param callback   Interfaz de callback para manejar los resultados o errores.
+     * @param callback Interfaz de callback para manejar los resultados o errores.
      */
-    public void getAllInstalaciones(Connection connection, GetAllInstalacionesCallback callback) {
-        new Thread(() -> {
-            try {
-                String query = "SELECT * FROM instalacion";
-                PreparedStatement statement = connection.prepareStatement(query);
-                ResultSet resultSet = statement.executeQuery();
-
-                List<Instalacion> instalaciones = new ArrayList<>();
+    public void getResumenInstalaciones(GetResumenInstalacionesCallback callback) {
+        execute(callback::onError, () -> {
+            String query = "SELECT " + COLUMNAS_RESUMEN + " FROM instalacion";
+            try (Connection connection = MySQLConnection.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query);
+                 ResultSet resultSet = statement.executeQuery()) {
+
+                List<InstalacionResumen> instalaciones = new ArrayList<>();
                 while (resultSet.next()) {
-                    Instalacion instalacion = new Instalacion();
-                    instalacion.setId(resultSet.getInt("id"));
-                    instalacion.setTipo(resultSet.getString("tipo"));
-                    instalacion.setNombre(resultSet.getString("nombre"));
-                    instalacion.setCapacidad(resultSet.getInt("capacidad"));
-                    instalacion.setPrecioAlquiler(resultSet.getDouble("precio_alquiler"));
-                    instalacion.setDuracion(resultSet.getInt("duracion"));
-                    instalacion.setHoraIni(resultSet.getString("hora_ini"));
-                    instalacion.setHoraFin(resultSet.getString("hora_fin"));
-                    instalacion.setDisponibilidad(resultSet.getBoolean("disponibilidad"));
-                    instalacion.setIdEmpleado(resultSet.getInt("id_empleado"));
-                    instalacion.setImagen(resultSet.getBytes("imagen"));
-                    instalaciones.add(instalacion);
+                    instalaciones.add(leerResumen(resultSet));
                 }
 
-                resultSet.close();
-                statement.close();
-
-                final List<Instalacion> finalInstalaciones = instalaciones;
-                android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                mainHandler.post(() -> callback.onResult(finalInstalaciones));
+                postToMain(() -> callback.onResult(instalaciones));
 
             } catch (SQLException e) {
-                Log.e(TAG, "Error getting instalaciones: " + e.getMessage(), e);
-                android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                mainHandler.post(() -> callback.onError(e));
+                Log.e(TAG, "Error getting resumen instalaciones: " + e.getMessage(), e);
+                postToMain(() -> callback.onError(e));
             }
-        }).start();
+        });
     }
 
     /**
-     * Interfaz de callback para obtener una instalación específica por su ID.
+     * Interfaz de callback para obtener el resumen de una instalación.
      */
-    public interface GetInstalacionCallback {
+    public interface GetResumenInstalacionCallback {
         /**
          * Método llamado cuando la consulta es exitosa.
          *
-         * @param instalacion Instalación encontrada en la base de datos.
+         * @param instalacion Resumen de la instalación, o null si no existe.
          */
-        void onResult(Instalacion instalacion);
+        void onResult(InstalacionResumen instalacion);
 
         /**
          * Método llamado cuando ocurre un error durante la consulta.
@@ -103,49 +117,47 @@ public class InstalacionDao {
     }
 
     /**
-     * Busca y recupera una instalación específica por su ID.
-     * La consulta se ejecuta en un hilo separado y el resultado se devuelve a través del callback.
+     * Obtiene el resumen de una instalación por su ID.
      *
-     * @param connection    Conexión a la base de datos.
      * @param instalacionId ID de la instalación que se desea buscar.
      * @param callback      Interfaz de callback para manejar el resultado o error.
      */
-    public void getInstalacionById(Connection connection, int instalacionId, GetInstalacionCallback callback) {
-        new Thread(() -> {
-            try {
-                String query = "SELECT * FROM instalacion WHERE id = ?";
-                PreparedStatement statement = connection.prepareStatement(query);
+    public void getResumenInstalacionById(int instalacionId, GetResumenInstalacionCallback callback) {
+        execute(callback::onError, () -> {
+            String query = "SELECT " + COLUMNAS_RESUMEN + " FROM instalacion WHERE id = ?";
+            try (Connection connection = MySQLConnection.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
                 statement.setInt(1, instalacionId);
-                ResultSet resultSet = statement.executeQuery();
-
-                Instalacion instalacion = null;
-                if (resultSet.next()) {
-                    instalacion = new Instalacion();
-                    instalacion.setId(resultSet.getInt("id"));
-                    instalacion.setTipo(resultSet.getString("tipo"));
-                    instalacion.setNombre(resultSet.getString("nombre"));
-                    instalacion.setCapacidad(resultSet.getInt("capacidad"));
-                    instalacion.setPrecioAlquiler(resultSet.getDouble("precio_alquiler"));
-                    instalacion.setDuracion(resultSet.getInt("duracion"));
-                    instalacion.setHoraIni(resultSet.getString("hora_ini"));
-                    instalacion.setHoraFin(resultSet.getString("hora_fin"));
-                    instalacion.setDisponibilidad(resultSet.getBoolean("disponibilidad"));
-                    instalacion.setIdEmpleado(resultSet.getInt("id_empleado"));
-                    instalacion.setImagen(resultSet.getBytes("imagen"));
-                }
 
-                resultSet.close();
-                statement.close();
+                InstalacionResumen instalacion = null;
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        instalacion = leerResumen(resultSet);
+                    }
+                }
 
-                final Instalacion finalInstalacion = instalacion;
-                android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                mainHandler.post(() -> callback.onResult(finalInstalacion));
+                final InstalacionResumen finalInstalacion = instalacion;
+                postToMain(() -> callback.onResult(finalInstalacion));
 
             } catch (SQLException e) {
-                Log.e(TAG, "Error getting instalacion: " + e.getMessage(), e);
-                android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                mainHandler.post(() -> callback.onError(e));
+                Log.e(TAG, "Error getting resumen instalacion: " + e.getMessage(), e);
+                postToMain(() -> callback.onError(e));
             }
-        }).start();
+        });
+    }
+
+    /**
+     * Construye un resumen de instalación a partir de una fila con {@link #COLUMNAS_RESUMEN}.
+     */
+    private static InstalacionResumen leerResumen(ResultSet resultSet) throws SQLException {
+        InstalacionResumen instalacion = new InstalacionResumen();
+        instalacion.setId(resultSet.getInt("id"));
+        instalacion.setTipo(resultSet.getString("tipo"));
+        instalacion.setNombre(resultSet.getString("nombre"));
+        instalacion.setDuracion(resultSet.getInt("duracion"));
+        instalacion.setHoraIni(resultSet.getString("hora_ini"));
+        instalacion.setHoraFin(resultSet.getString("hora_fin"));
+        instalacion.setDisponibilidad(resultSet.getBoolean("disponibilidad"));
+        return instalacion;
     }
-}
\ No newline at end of file
+}
@@ -1,70 +1,62 @@
 package com.jlobatonm.socialclub_app.database;
 
-        import android.os.Handler;
-        import android.os.Looper;
-        import android.util.Log;
+        import androidx.annotation.VisibleForTesting;
 
         import java.sql.Connection;
-        import java.sql.DriverManager;
         import java.sql.SQLException;
-        import java.util.concurrent.Executor;
-        import java.util.concurrent.Executors;
 
         /**
          * Clase encargada de gestionar las conexiones a la base de datos MySQL.
-         * Implementa un patrón asíncrono utilizando Executor y Handler para evitar
-         * bloquear el hilo principal durante las operaciones de conexión a la base de datos.
+         * Todas las conexiones se obtienen de un {@link ConnectionPool} compartido, de modo que
+         * los DAO reutilizan las conexiones físicas en lugar de abrir una nueva por cada consulta.
+         * Las conexiones obtenidas deben cerrarse (por ejemplo con try-with-resources) para
+         * devolverlas al pool, y nunca deben pedirse desde el hilo principal.
+         * Los lotes de sentencias ({@code addBatch}/{@code executeBatch}) se envían al servidor
+         * como una sola sentencia gracias a {@code rewriteBatchedStatements}.
          */
         public class MySQLConnection {
 
-            private static final String TAG = "MySQLConnection";
-            private static final String URL = "jdbc:mysql://192.168.1.25:3306/clubsocial?useSSL=false&allowPublicKeyRetrieval=true&connectTimeout=5000";
+            private static final String URL = "jdbc:mysql://192.168.1.25:3306/clubsocial?useSSL=false&allowPublicKeyRetrieval=true&connectTimeout=5000&rewriteBatchedStatements=true";
             private static final String USER = "root";
             private static final String PASSWORD = "root";
 
-            private static final Executor executor = Executors.newSingleThreadExecutor();
-            private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+            private static final int MIN_POOL_SIZE = 1;
+            static final int MAX_POOL_SIZE = 4;
+
+            private static volatile ConnectionPool pool =
+                    new ConnectionPool(URL, USER, PASSWORD, MIN_POOL_SIZE, MAX_POOL_SIZE);
 
             /**
-             * Establece una conexión asíncrona con la base de datos MySQL.
-             * La operación se ejecuta en un hilo secundario y notifica el resultado
-             * en el hilo principal a través del callback.
+             * Obtiene una conexión del pool, bloqueando el hilo actual hasta que haya una disponible.
+             * La conexión se devuelve al pool al cerrarla.
              *
-             * @param callback Interfaz que maneja los resultados de la conexión, ya sea
-             *                 exitosa o fallida.
+             * @return Conexión a la base de datos lista para usarse.
+             * @throws SQLException Si no se puede establecer la conexión o se agota el tiempo de espera.
              */
-            public static void getConnectionAsync(ConnectionCallback callback) {
-                executor.execute(() -> {
-                    try {
-                        Log.d(TAG, "Attempting to connect to the database...");
-                        Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
-                        Log.d(TAG, "Connection successful!");
-
-                        mainHandler.post(() -> callback.onSuccess(connection));
-                    } catch (SQLException e) {
-                        Log.e(TAG, "Connection failed: " + e.getMessage(), e);
-                        mainHandler.post(() -> callback.onFailure(e));
-                    }
-                });
+            public static Connection getConnection() throws SQLException {
+                return pool.borrow();
             }
 
             /**
-             * Interfaz de callback para manejar los resultados de las operaciones
-             * de conexión a la base de datos.
+             * Obtiene las métricas actuales del pool de conexiones
+             * (conexiones activas, inactivas, hilos en espera y latencia de préstamo).
+             *
+             * @return Instantánea de las métricas del pool.
              */
-            public interface ConnectionCallback {
-                /**
-                 * Se invoca cuando la conexión a la base de datos se ha establecido correctamente.
-                 *
-                 * @param connection Objeto Connection que representa la conexión exitosa a la base de datos.
-                 */
-                void onSuccess(Connection connection);
+            public static ConnectionPool.Stats getPoolStats() {
+                return pool.getStats();
+            }
 
-                /**
-                 * Se invoca cuando ha ocurrido un error al intentar establecer la conexión.
-                 *
-                 * @param exception Excepción SQLException que contiene los detalles del error.
-                 */
-                void onFailure(SQLException exception);
+            /**
+             * Sustituye el pool compartido, por ejemplo por uno contra una base de datos en memoria
+             * en las pruebas. El pool anterior se cierra.
+             *
+             * @param nuevo Pool que usarán a partir de ahora todos los DAO.
+             */
+            @VisibleForTesting
+            static void setPool(ConnectionPool nuevo) {
+                ConnectionPool anterior = pool;
+                pool = nuevo;
+                anterior.shutdown();
             }
-        }
\ No newline at end of file
+        }
@@ -2,22 +2,72 @@ package com.jlobatonm.socialclub_app.database;
 
             import android.util.Log;
 
+            import com.jlobatonm.socialclub_app.model.DisponibilidadDia;
             import com.jlobatonm.socialclub_app.model.Reserva;
 
             import java.sql.Connection;
             import java.sql.PreparedStatement;
             import java.sql.ResultSet;
             import java.sql.SQLException;
+            import java.time.LocalDate;
             import java.util.ArrayList;
+            import java.util.Arrays;
+            import java.util.Collections;
             import java.util.Date;
+            import java.util.HashMap;
             import java.util.List;
+            import java.util.Map;
 
             /**
              * Clase de acceso a datos para las operaciones relacionadas con las reservas en la base de datos.
              * Proporciona métodos para crear, consultar y eliminar reservas de manera asíncrona.
              */
-            public class ReservaDao {
+            public class ReservaDao extends BaseDao {
                 private static final String TAG = "ReservaDao";
+                private static final int ER_DUP_ENTRY = 1062;
+                private static final String SQLSTATE_CLAVE_DUPLICADA = "23505";
+
+                /**
+                 * Segundos que una franja permanece bloqueada para un socio mientras confirma la reserva.
+                 */
+                public static final int DURACION_BLOQUEO_SEG = 120;
+                private static final int MAX_INTENTOS_LOTE = 2;
+
+                private static final String SELECT_RESERVAS_CON_INSTALACION =
+                        "SELECT r.id_reserva, r.fecha, r.hora, r.id_instalacion, r.numero_socio, " +
+                        "r.id_empleado, i.nombre AS nombre_instalacion " +
+                        "FROM reserva r LEFT JOIN instalacion i ON i.id = r.id_instalacion ";
+
+                /**
+                 * Número de reservas por página del historial.
+                 */
+                public static final int TAMANIO_PAGINA_HISTORIAL = 20;
+
+                /**
+                 * Crea un DAO cuyas consultas se encolan con prioridad de usuario.
+                 */
+                public ReservaDao() {
+                    super();
+                }
+
+                /**
+                 * Crea un DAO cuyas consultas se cancelan con el token indicado.
+                 *
+                 * @param cancellationToken Token de cancelación, normalmente ligado a un ciclo de vida.
+                 */
+                public ReservaDao(CancellationToken cancellationToken) {
+                    super(cancellationToken);
+                }
+
+                /**
+                 * Crea un DAO con el token de cancelación y la prioridad indicados.
+                 *
+                 * @param cancellationToken Token de cancelación, normalmente ligado a un ciclo de vida.
+                 * @param priority          Carril del despachador en el que se encolan las consultas.
+                 */
+                public ReservaDao(CancellationToken cancellationToken, DatabaseExecutor.Priority priority) {
+                    super(cancellationToken, priority);
+                }
 
                 /**
                  * Interfaz de callback para manejar el resultado de guardar una reserva.
@@ -28,6 +78,11 @@ package com.jlobatonm.socialclub_app.database;
                      */
                     void onSuccess();
 
+                    /**
+                     * Se invoca cuando la franja ya estaba reservada por otro socio y la reserva no se ha guardado.
+                     */
+                    void onHoraOcupada();
+
                     /**
                      * Se invoca cuando ocurre un error al guardar la reserva.
                      *
@@ -38,56 +93,326 @@ package com.jlobatonm.socialclub_app.database;
 
                 /**
                  * Guarda una nueva reserva en la base de datos.
+                 * <p>
+                 * No se comprueba antes la disponibilidad: la clave única {@code (id_instalacion, fecha, hora)}
+                 * de la tabla {@code reserva} garantiza que sólo una de dos reservas simultáneas de la misma
+                 * franja se inserte, y la otra se notifica con {@link SaveReservaCallback#onHoraOcupada()}.
+                 * Tampoco se inserta si la franja está bloqueada por otro socio con un bloqueo vigente
+                 * (ver {@link #bloquearFranja}); el bloqueo propio se libera al guardar la reserva.
+                 * </p>
                  *
-                 * @param connection    Conexión a la base de datos.
                  * @param numeroSocio   Número identificador del socio que realiza la reserva.
                  * @param idInstalacion Identificador de la instalación a reservar.
                  * @param fecha         Fecha de la reserva.
                  * @param hora          Hora de la reserva.
                  * @param callback      Interfaz de callback para notificar el resultado.
                  */
-                public void guardarReserva(Connection connection, String numeroSocio, int idInstalacion,
+                public void guardarReserva(String numeroSocio, int idInstalacion,
                                            Date fecha, String hora, SaveReservaCallback callback) {
-                    new Thread(() -> {
-                        try {
-                            String query = "INSERT INTO reserva (fecha, hora, id_instalacion, numero_socio) VALUES (?, ?, ?, ?)";
-                            PreparedStatement statement = connection.prepareStatement(query);
-                            statement.setDate(1, new java.sql.Date(fecha.getTime()));
+                    execute(callback::onError, () -> {
+                        String query = "INSERT INTO reserva (fecha, hora, id_instalacion, numero_socio) " +
+                                "SELECT ?, ?, ?, ? FROM DUAL WHERE NOT EXISTS (" +
+                                "SELECT 1 FROM reserva_bloqueo b WHERE b.id_instalacion = ? AND b.fecha = ? AND b.hora = ? " +
+                                "AND b.numero_socio <> ? AND b.expira > NOW())";
+                        java.sql.Date fechaSql = new java.sql.Date(fecha.getTime());
+                        try (Connection connection = MySQLConnection.getConnection()) {
+                            int rowsInserted;
+                            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                                statement.setDate(1, fechaSql);
+                                statement.setString(2, hora);
+                                statement.setInt(3, idInstalacion);
+                                statement.setString(4, numeroSocio);
+                                statement.setInt(5, idInstalacion);
+                                statement.setDate(6, fechaSql);
+                                statement.setString(7, hora);
+                                statement.setString(8, numeroSocio);
+
+                                rowsInserted = statement.executeUpdate();
+                            }
+
+                            if (rowsInserted > 0) {
+                                borrarBloqueo(connection, numeroSocio, idInstalacion, fechaSql, hora);
+                                postToMain(callback::onSuccess);
+                            } else {
+                                Log.d(TAG, "Franja bloqueada por otro socio: " + idInstalacion + " " + fecha + " " + hora);
+                                postToMain(callback::onHoraOcupada);
+                            }
+
+                        } catch (SQLException e) {
+                            if (esClaveDuplicada(e)) {
+                                Log.d(TAG, "Franja ya reservada: " + idInstalacion + " " + fecha + " " + hora);
+                                postToMain(callback::onHoraOcupada);
+                                return;
+                            }
+                            Log.e(TAG, "Error guardando reserva: " + e.getMessage(), e);
+                            postToMain(() -> callback.onError(e));
+                        }
+                    });
+                }
+
+                /**
+                 * Interfaz de callback para manejar el resultado de guardar reservas recurrentes.
+                 */
+                public interface GuardarReservasRecurrentesCallback {
+                    /**
+                     * Se invoca cuando la operación ha terminado.
+                     *
+                     * @param reservadas Fechas que se han reservado, en orden.
+                     * @param ocupadas   Fechas que no se han reservado porque la franja ya estaba reservada o bloqueada.
+                     */
+                    void onResult(List<LocalDate> reservadas, List<LocalDate> ocupadas);
+
+                    /**
+                     * Se invoca cuando ocurre un error; en ese caso no se ha guardado ninguna reserva.
+                     *
+                     * @param exception Excepción que contiene los detalles del error.
+                     */
+                    void onError(Exception exception);
+                }
+
+                /**
+                 * Guarda la misma franja de una instalación en varias fechas (por ejemplo, cada martes durante N semanas).
+                 * <p>
+                 * Todas las fechas se comprueban con una única consulta, que devuelve las ya reservadas o bloqueadas
+                 * por otro socio, y las libres se insertan en un solo lote dentro de una transacción: o se guardan
+                 * todas las fechas libres o ninguna. Si otro socio reserva alguna fecha entre la consulta y la
+                 * inserción, la clave única hace fallar el lote, se deshace la transacción y se vuelve a intentar
+                 * con la disponibilidad actualizada. El bloqueo del socio sobre la primera fecha se libera al terminar.
+                 * </p>
+                 *
+                 * @param numeroSocio   Número identificador del socio que realiza las reservas.
+                 * @param idInstalacion Identificador de la instalación a reservar.
+                 * @param fechas        Fechas a reservar.
+                 * @param hora          Hora de las reservas.
+                 * @param callback      Interfaz de callback para notificar el resultado.
+                 */
+                public void guardarReservasRecurrentes(String numeroSocio, int idInstalacion, List<LocalDate> fechas,
+                                                      String hora, GuardarReservasRecurrentesCallback callback) {
+                    execute(callback::onError, () -> {
+                        try (Connection connection = MySQLConnection.getConnection()) {
+                            for (int intento = 1; ; intento++) {
+                                try {
+                                    List<LocalDate> ocupadas = consultarFechasOcupadas(connection, numeroSocio, idInstalacion, fechas, hora);
+                                    List<LocalDate> reservadas = new ArrayList<>(fechas.size());
+                                    for (LocalDate fecha : fechas) {
+                                        if (!ocupadas.contains(fecha)) {
+                                            reservadas.add(fecha);
+                                        }
+                                    }
+                                    insertarReservas(connection, numeroSocio, idInstalacion, reservadas, hora);
+                                    if (!fechas.isEmpty()) {
+                                        borrarBloqueo(connection, numeroSocio, idInstalacion, java.sql.Date.valueOf(fechas.get(0)), hora);
+                                    }
+                                    postToMain(() -> callback.onResult(reservadas, ocupadas));
+                                    return;
+                                } catch (SQLException e) {
+                                    if (!connection.getAutoCommit()) {
+                                        connection.rollback();
+                                        connection.setAutoCommit(true);
+                                    }
+                                    if (!esClaveDuplicada(e) || intento >= MAX_INTENTOS_LOTE) {
+                                        throw e;
+                                    }
+                                    Log.d(TAG, "Conflicto al guardar reservas recurrentes, reintentando");
+                                }
+                            }
+                        } catch (SQLException e) {
+                            Log.e(TAG, "Error guardando reservas recurrentes: " + e.getMessage(), e);
+                            postToMain(() -> callback.onError(e));
+                        }
+                    });
+                }
+
+                private static List<LocalDate> consultarFechasOcupadas(Connection connection, String numeroSocio, int idInstalacion,
+                                                                     List<LocalDate> fechas, String hora) throws SQLException {
+                    List<LocalDate> ocupadas = new ArrayList<>();
+                    if (fechas.isEmpty()) {
+                        return ocupadas;
+                    }
+                    String marcadores = String.join(", ", Collections.nCopies(fechas.size(), "?"));
+                    String query = "SELECT fecha FROM reserva WHERE id_instalacion = ? AND hora = ? AND fecha IN (" + marcadores + ") " +
+                            "UNION SELECT fecha FROM reserva_bloqueo WHERE id_instalacion = ? AND hora = ? AND fecha IN (" + marcadores + ") " +
+                            "AND numero_socio <> ? AND expira > NOW()";
+                    try (PreparedStatement statement = connection.prepareStatement(query)) {
+                        int indice = 1;
+                        for (int parte = 0; parte < 2; parte++) {
+                            statement.setInt(indice++, idInstalacion);
+                            statement.setString(indice++, hora);
+                            for (LocalDate fecha : fechas) {
+                                statement.setDate(indice++, java.sql.Date.valueOf(fecha));
+                            }
+                        }
+                        statement.setString(indice, numeroSocio);
+
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            while (resultSet.next()) {
+                                ocupadas.add(resultSet.getDate("fecha").toLocalDate());
+                            }
+                        }
+                    }
+                    return ocupadas;
+                }
+
+                private static void insertarReservas(Connection connection, String numeroSocio, int idInstalacion,
+                                                     List<LocalDate> fechas, String hora) throws SQLException {
+                    if (fechas.isEmpty()) {
+                        return;
+                    }
+                    String query = "INSERT INTO reserva (fecha, hora, id_instalacion, numero_socio) VALUES (?, ?, ?, ?)";
+                    connection.setAutoCommit(false);
+                    try (PreparedStatement statement = connection.prepareStatement(query)) {
+                        for (LocalDate fecha : fechas) {
+                            statement.setDate(1, java.sql.Date.valueOf(fecha));
                             statement.setString(2, hora);
                             statement.setInt(3, idInstalacion);
                             statement.setString(4, numeroSocio);
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+                    }
+                    connection.commit();
+                    connection.setAutoCommit(true);
+                }
+
+                /**
+                 * Interfaz de callback para manejar el resultado de bloquear una franja.
+                 */
+                public interface BloquearFranjaCallback {
+                    /**
+                     * Se invoca cuando la franja queda bloqueada para el socio durante {@link #DURACION_BLOQUEO_SEG} segundos.
+                     */
+                    void onBloqueada();
+
+                    /**
+                     * Se invoca cuando la franja ya está reservada o bloqueada por otro socio.
+                     */
+                    void onHoraOcupada();
+
+                    /**
+                     * Se invoca cuando ocurre un error al bloquear la franja.
+                     *
+                     * @param exception Excepción que contiene los detalles del error.
+                     */
+                    void onError(Exception exception);
+                }
+
+                /**
+                 * Bloquea temporalmente una franja para un socio mientras confirma la reserva.
+                 * <p>
+                 * Se descartan los bloqueos caducados de la franja (o uno anterior del mismo socio) y se inserta
+                 * uno nuevo que caduca a los {@link #DURACION_BLOQUEO_SEG} segundos, sólo si la franja no está
+                 * ya reservada. La clave única de {@code reserva_bloqueo} decide qué socio se queda la franja
+                 * cuando varios la piden a la vez, sin tener que volver a consultar la disponibilidad.
+                 * El bloqueo se libera con {@link #liberarFranja}, al guardar la reserva o al caducar.
+                 * </p>
+                 *
+                 * @param numeroSocio   Número identificador del socio que bloquea la franja.
+                 * @param idInstalacion Identificador de la instalación.
+                 * @param fecha         Fecha de la franja.
+                 * @param hora          Hora de la franja.
+                 * @param callback      Interfaz de callback para notificar el resultado.
+                 */
+                public void bloquearFranja(String numeroSocio, int idInstalacion,
+                                           Date fecha, String hora, BloquearFranjaCallback callback) {
+                    execute(callback::onError, () -> {
+                        String borrarCaducados = "DELETE FROM reserva_bloqueo WHERE id_instalacion = ? AND fecha = ? AND hora = ? " +
+                                "AND (expira <= NOW() OR numero_socio = ?)";
+                        String insertar = "INSERT INTO reserva_bloqueo (id_instalacion, fecha, hora, numero_socio, expira) " +
+                                "SELECT ?, ?, ?, ?, NOW() + INTERVAL ? SECOND FROM DUAL WHERE NOT EXISTS (" +
+                                "SELECT 1 FROM reserva r WHERE r.id_instalacion = ? AND r.fecha = ? AND r.hora = ?)";
+                        java.sql.Date fechaSql = new java.sql.Date(fecha.getTime());
+                        try (Connection connection = MySQLConnection.getConnection()) {
+                            try (PreparedStatement statement = connection.prepareStatement(borrarCaducados)) {
+                                statement.setInt(1, idInstalacion);
+                                statement.setDate(2, fechaSql);
+                                statement.setString(3, hora);
+                                statement.setString(4, numeroSocio);
+                                statement.executeUpdate();
+                            }
 
-                            int rowsInserted = statement.executeUpdate();
-                            statement.close();
+                            int rowsInserted;
+                            try (PreparedStatement statement = connection.prepareStatement(insertar)) {
+                                statement.setInt(1, idInstalacion);
+                                statement.setDate(2, fechaSql);
+                                statement.setString(3, hora);
+                                statement.setString(4, numeroSocio);
+                                statement.setInt(5, DURACION_BLOQUEO_SEG);
+                                statement.setInt(6, idInstalacion);
+                                statement.setDate(7, fechaSql);
+                                statement.setString(8, hora);
+                                rowsInserted = statement.executeUpdate();
+                            }
 
-                            android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
                             if (rowsInserted > 0) {
-                                mainHandler.post(callback::onSuccess);
+                                postToMain(callback::onBloqueada);
                             } else {
-                                mainHandler.post(() -> callback.onError(new Exception("No se pudo guardar la reserva")));
+                                postToMain(callback::onHoraOcupada);
                             }
 
                         } catch (SQLException e) {
-                            Log.e(TAG, "Error guardando reserva: " + e.getMessage(), e);
-                            android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                            mainHandler.post(() -> callback.onError(e));
+                            if (esClaveDuplicada(e)) {
+                                Log.d(TAG, "Franja bloqueada por otro socio: " + idInstalacion + " " + fecha + " " + hora);
+                                postToMain(callback::onHoraOcupada);
+                                return;
+                            }
+                            Log.e(TAG, "Error bloqueando franja: " + e.getMessage(), e);
+                            postToMain(() -> callback.onError(e));
                         }
-                    }).start();
+                    });
                 }
 
                 /**
-                 * Interfaz de callback para manejar el resultado de obtener las horas reservadas.
+                 * Libera el bloqueo que un socio tiene sobre una franja, por ejemplo al cancelar la confirmación.
+                 * Los errores sólo se registran: si el bloqueo no se libera, caduca por sí solo.
+                 *
+                 * @param numeroSocio   Número identificador del socio que tiene el bloqueo.
+                 * @param idInstalacion Identificador de la instalación.
+                 * @param fecha         Fecha de la franja.
+                 * @param hora          Hora de la franja.
                  */
-                public interface GetHorasReservadasCallback {
+                public void liberarFranja(String numeroSocio, int idInstalacion, Date fecha, String hora) {
+                    execute(e -> Log.w(TAG, "No se pudo liberar la franja: " + e.getMessage()), () -> {
+                        try (Connection connection = MySQLConnection.getConnection()) {
+                            borrarBloqueo(connection, numeroSocio, idInstalacion, new java.sql.Date(fecha.getTime()), hora);
+                        } catch (SQLException e) {
+                            Log.w(TAG, "Error liberando franja: " + e.getMessage(), e);
+                        }
+                    });
+                }
+
+                /**
+                 * Indica si el error se debe a una clave única repetida: el código 1062 de MySQL o el
+                 * estado SQL estándar 23505 de otros motores, como la base de datos en memoria de las pruebas.
+                 */
+                private static boolean esClaveDuplicada(SQLException e) {
+                    return e.getErrorCode() == ER_DUP_ENTRY || SQLSTATE_CLAVE_DUPLICADA.equals(e.getSQLState());
+                }
+
+                private static void borrarBloqueo(Connection connection, String numeroSocio, int idInstalacion,
+                                                  java.sql.Date fecha, String hora) throws SQLException {
+                    String query = "DELETE FROM reserva_bloqueo WHERE id_instalacion = ? AND fecha = ? AND hora = ? AND numero_socio = ?";
+                    try (PreparedStatement statement = connection.prepareStatement(query)) {
+                        statement.setInt(1, idInstalacion);
+                        statement.setDate(2, fecha);
+                        statement.setString(3, hora);
+                        statement.setString(4, numeroSocio);
+                        statement.executeUpdate();
+                    }
+                }
+
+                /**
+                 * Interfaz de callback para manejar el resultado de obtener la disponibilidad de un día.
+                 */
+                public interface GetDisponibilidadCallback {
                     /**
-                     * Se invoca cuando la consulta de horas reservadas es exitosa.
+                     * Se invoca cuando la consulta de disponibilidad es exitosa.
                      *
-                     * @param horasReservadas Lista de horas que ya están reservadas.
+                     * @param disponibilidad Franjas del día y su ocupación; sin franjas si la instalación no existe.
                      */
-                    void onResult(List<String> horasReservadas);
+                    void onResult(DisponibilidadDia disponibilidad);
 
                     /**
-                     * Se invoca cuando ocurre un error al obtener las horas reservadas.
+                     * Se invoca cuando ocurre un error al obtener la disponibilidad.
                      *
                      * @param exception Excepción que contiene los detalles del error.
                      */
@@ -95,47 +420,167 @@ package com.jlobatonm.socialclub_app.database;
                 }
 
                 /**
-                 * Obtiene las horas ya reservadas para una instalación en una fecha específica.
+                 * Obtiene la disponibilidad de una instalación en una fecha: su horario y las franjas
+                 * ya reservadas o bloqueadas por otro socio, en una sola consulta. Las horas se convierten
+                 * a minutos en el servidor con {@code TIME_TO_SEC}, por lo que no se interpretan cadenas en el cliente.
+                 * Los bloqueos vigentes de otros socios (ver {@link #bloquearFranja}) se muestran como ocupados,
+                 * porque la reserva de esas franjas se rechazaría; los del propio socio no.
                  *
-                 * @param connection    Conexión a la base de datos.
                  * @param idInstalacion Identificador de la instalación.
-                 * @param fecha         Fecha para la que se consultan las reservas.
+                 * @param fecha         Fecha para la que se consulta la disponibilidad.
+                 * @param numeroSocio   Número del socio que consulta, cuyos bloqueos no ocupan la franja.
                  * @param callback      Interfaz de callback para notificar el resultado.
                  */
-                public void obtenerHorasReservadas(Connection connection, int idInstalacion, Date fecha, GetHorasReservadasCallback callback) {
-                    new Thread(() -> {
-                        try {
-                            String query = "SELECT hora FROM reserva WHERE id_instalacion = ? AND fecha = ?";
-                            PreparedStatement statement = connection.prepareStatement(query);
+                public void getDisponibilidadDia(int idInstalacion, Date fecha, String numeroSocio,
+                                                 GetDisponibilidadCallback callback) {
+                    execute(callback::onError, () -> {
+                        String query = "SELECT TIME_TO_SEC(i.hora_ini) DIV 60 AS inicio, " +
+                                "TIME_TO_SEC(i.hora_fin) DIV 60 AS fin, i.duracion, " +
+                                "TIME_TO_SEC(o.hora) DIV 60 AS minuto " +
+                                "FROM instalacion i " +
+                                "LEFT JOIN (SELECT id_instalacion, hora FROM reserva WHERE id_instalacion = ? AND fecha = ? " +
+                                "UNION SELECT id_instalacion, hora FROM reserva_bloqueo WHERE id_instalacion = ? AND fecha = ? " +
+                                "AND numero_socio <> ? AND expira > NOW()) o ON o.id_instalacion = i.id " +
+                                "WHERE i.id = ?";
+                        java.sql.Date fechaSql = new java.sql.Date(fecha.getTime());
+                        try (Connection connection = MySQLConnection.getConnection();
+                             PreparedStatement statement = connection.prepareStatement(query)) {
                             statement.setInt(1, idInstalacion);
-                            statement.setDate(2, new java.sql.Date(fecha.getTime()));
+                            statement.setDate(2, fechaSql);
+                            statement.setInt(3, idInstalacion);
+                            statement.setDate(4, fechaSql);
+                            statement.setString(5, numeroSocio);
+                            statement.setInt(6, idInstalacion);
+
+                            int inicio = 0;
+                            int fin = 0;
+                            int duracion = 0;
+                            int[] minutos = new int[8];
+                            int numMinutos = 0;
+                            try (ResultSet resultSet = statement.executeQuery()) {
+                                while (resultSet.next()) {
+                                    inicio = resultSet.getInt("inicio");
+                                    fin = resultSet.getInt("fin");
+                                    duracion = resultSet.getInt("duracion");
+                                    int minuto = resultSet.getInt("minuto");
+                                    if (!resultSet.wasNull()) {
+                                        if (numMinutos == minutos.length) {
+                                            minutos = Arrays.copyOf(minutos, numMinutos * 2);
+                                        }
+                                        minutos[numMinutos++] = minuto;
+                                    }
+                                }
+                            }
 
-                            ResultSet resultSet = statement.executeQuery();
+                            DisponibilidadDia disponibilidad = new DisponibilidadDia(idInstalacion, fecha,
+                                    inicio, fin, duracion, Arrays.copyOf(minutos, numMinutos));
+                            postToMain(() -> callback.onResult(disponibilidad));
 
-                            List<String> horasReservadas = new ArrayList<>();
-                            while (resultSet.next()) {
-                                String horaCompleta = resultSet.getString("hora").trim();
-                                String horaSinSegundos = horaCompleta;
-                                if (horaCompleta.length() > 5) {
-                                    horaSinSegundos = horaCompleta.substring(0, 5);
+                        } catch (SQLException e) {
+                            Log.e(TAG, "Error obteniendo disponibilidad: " + e.getMessage(), e);
+                            postToMain(() -> callback.onError(e));
+                        }
+                    });
+                }
+
+                /**
+                 * Interfaz de callback para manejar el resultado de obtener la disponibilidad de varios días.
+                 */
+                public interface GetDisponibilidadRangoCallback {
+                    /**
+                     * Se invoca cuando la consulta de disponibilidad es exitosa.
+                     *
+                     * @param disponibilidades Disponibilidad de cada día del rango, indexada por fecha.
+                     */
+                    void onResult(Map<LocalDate, DisponibilidadDia> disponibilidades);
+
+                    /**
+                     * Se invoca cuando ocurre un error al obtener la disponibilidad.
+                     *
+                     * @param exception Excepción que contiene los detalles del error.
+                     */
+                    void onError(Exception exception);
+                }
+
+                /**
+                 * Obtiene la disponibilidad de una instalación para varios días consecutivos en una sola
+                 * consulta ({@code fecha BETWEEN ? AND ?}). Todos los días del rango aparecen en el
+                 * resultado, también los que no tienen reservas. Como en {@link #getDisponibilidadDia},
+                 * las franjas con un bloqueo vigente de otro socio se consideran ocupadas.
+                 *
+                 * @param idInstalacion Identificador de la instalación.
+                 * @param desde         Primer día del rango.
+                 * @param dias          Número de días del rango.
+                 * @param numeroSocio   Número del socio que consulta, cuyos bloqueos no ocupan la franja.
+                 * @param callback      Interfaz de callback para notificar el resultado.
+                 */
+                public void getDisponibilidadRango(int idInstalacion, LocalDate desde, int dias, String numeroSocio,
+                                                   GetDisponibilidadRangoCallback callback) {
+                    execute(callback::onError, () -> {
+                        String query = "SELECT TIME_TO_SEC(i.hora_ini) DIV 60 AS inicio, " +
+                                "TIME_TO_SEC(i.hora_fin) DIV 60 AS fin, i.duracion, o.fecha, " +
+                                "TIME_TO_SEC(o.hora) DIV 60 AS minuto " +
+                                "FROM instalacion i " +
+                                "LEFT JOIN (SELECT id_instalacion, fecha, hora FROM reserva " +
+                                "WHERE id_instalacion = ? AND fecha BETWEEN ? AND ? " +
+                                "UNION SELECT id_instalacion, fecha, hora FROM reserva_bloqueo " +
+                                "WHERE id_instalacion = ? AND fecha BETWEEN ? AND ? AND numero_socio <> ? AND expira > NOW()) o " +
+                                "ON o.id_instalacion = i.id " +
+                                "WHERE i.id = ?";
+                        java.sql.Date desdeSql = java.sql.Date.valueOf(desde);
+                        java.sql.Date hastaSql = java.sql.Date.valueOf(desde.plusDays(dias - 1));
+                        try (Connection connection = MySQLConnection.getConnection();
+                             PreparedStatement statement = connection.prepareStatement(query)) {
+                            statement.setInt(1, idInstalacion);
+                            statement.setDate(2, desdeSql);
+                            statement.setDate(3, hastaSql);
+                            statement.setInt(4, idInstalacion);
+                            statement.setDate(5, desdeSql);
+                            statement.setDate(6, hastaSql);
+                            statement.setString(7, numeroSocio);
+                            statement.setInt(8, idInstalacion);
+
+                            int inicio = 0;
+                            int fin = 0;
+                            int duracion = 0;
+                            int[][] minutosPorDia = new int[dias][];
+                            int[] numMinutos = new int[dias];
+                            try (ResultSet resultSet = statement.executeQuery()) {
+                                while (resultSet.next()) {
+                                    inicio = resultSet.getInt("inicio");
+                                    fin = resultSet.getInt("fin");
+                                    duracion = resultSet.getInt("duracion");
+                                    java.sql.Date fecha = resultSet.getDate("fecha");
+                                    int minuto = resultSet.getInt("minuto");
+                                    if (fecha == null || resultSet.wasNull()) {
+                                        continue;
+                                    }
+                                    int dia = (int) (fecha.toLocalDate().toEpochDay() - desde.toEpochDay());
+                                    if (minutosPorDia[dia] == null) {
+                                        minutosPorDia[dia] = new int[4];
+                                    } else if (numMinutos[dia] == minutosPorDia[dia].length) {
+                                        minutosPorDia[dia] = Arrays.copyOf(minutosPorDia[dia], numMinutos[dia] * 2);
+                                    }
+                                    minutosPorDia[dia][numMinutos[dia]++] = minuto;
                                 }
-                                horasReservadas.add(horaSinSegundos);
-                                Log.d(TAG, "Hora reservada encontrada: '" + horaSinSegundos + "' (original: '" + horaCompleta + "')");
                             }
 
-                            resultSet.close();
-                            statement.close();
-
-                            final List<String> finalHorasReservadas = horasReservadas;
-                            android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                            mainHandler.post(() -> callback.onResult(finalHorasReservadas));
+                            Map<LocalDate, DisponibilidadDia> disponibilidades = new HashMap<>(dias * 2);
+                            for (int dia = 0; dia < dias; dia++) {
+                                LocalDate fecha = desde.plusDays(dia);
+                                int[] minutos = minutosPorDia[dia] != null
+                                        ? Arrays.copyOf(minutosPorDia[dia], numMinutos[dia])
+                                        : new int[0];
+                                disponibilidades.put(fecha, new DisponibilidadDia(idInstalacion,
+                                        java.sql.Date.valueOf(fecha), inicio, fin, duracion, minutos));
+                            }
+                            postToMain(() -> callback.onResult(disponibilidades));
 
                         } catch (SQLException e) {
-                            Log.e(TAG, "Error obteniendo horas reservadas: " + e.getMessage(), e);
-                            android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                            mainHandler.post(() -> callback.onError(e));
+                            Log.e(TAG, "Error obteniendo disponibilidad del rango: " + e.getMessage(), e);
+                            postToMain(() -> callback.onError(e));
                         }
-                    }).start();
+                    });
                 }
 
                 /**
@@ -158,55 +603,100 @@ package com.jlobatonm.socialclub_app.database;
                 }
 
                 /**
-                 * Obtiene todas las reservas realizadas por un socio específico.
+                 * Obtiene las reservas pendientes de un socio (de ahora en adelante), ordenadas de la más próxima
+                 * a la más lejana, junto con el nombre de cada instalación y sin transferir su imagen.
+                 * Las reservas pasadas se descartan en el servidor; para consultarlas se usa {@link #getHistorialReservas}.
                  *
-                 * @param connection  Conexión a la base de datos.
                  * @param numeroSocio Número identificador del socio.
                  * @param callback    Interfaz de callback para notificar el resultado.
                  */
-                public void getReservasBySocio(Connection connection, String numeroSocio, GetReservasBySocioCallback callback) {
-                    new Thread(() -> {
-                        try {
-                            Log.d(TAG, "Buscando reservas para socio: " + numeroSocio);
+                public void getReservasProximas(String numeroSocio, GetReservasBySocioCallback callback) {
+                    String query = SELECT_RESERVAS_CON_INSTALACION +
+                            "WHERE r.numero_socio = ? AND (r.fecha > CURDATE() OR (r.fecha = CURDATE() AND r.hora > CURTIME())) " +
+                            "ORDER BY r.fecha ASC, r.hora ASC, r.id_reserva ASC";
+                    consultarReservas(query, callback, statement -> statement.setString(1, numeroSocio));
+                }
 
-                            String query = "SELECT * FROM reserva WHERE numero_socio = ? ORDER BY fecha DESC, hora ASC";
-                            PreparedStatement statement = connection.prepareStatement(query);
+                /**
+                 * Obtiene una página del historial de reservas pasadas de un socio, de la más reciente a la más antigua.
+                 * <p>
+                 * La paginación es por clave: cada página empieza justo después de la última reserva de la anterior,
+                 * comparando {@code (fecha, hora, id_reserva)}, de modo que el coste de cada página no depende de
+                 * cuántas se hayan leído antes. Si se devuelven menos de {@code limite} reservas no hay más páginas.
+                 * </p>
+                 *
+                 * @param numeroSocio Número identificador del socio.
+                 * @param ultima      Última reserva de la página anterior, o null para la primera página.
+                 * @param limite      Número máximo de reservas de la página.
+                 * @param callback    Interfaz de callback para notificar el resultado.
+                 */
+                public void getHistorialReservas(String numeroSocio, Reserva ultima, int limite,
+                                                 GetReservasBySocioCallback callback) {
+                    if (ultima == null) {
+                        String query = SELECT_RESERVAS_CON_INSTALACION +
+                                "WHERE r.numero_socio = ? AND (r.fecha < CURDATE() OR (r.fecha = CURDATE() AND r.hora <= CURTIME())) " +
+                                "ORDER BY r.fecha DESC, r.hora DESC, r.id_reserva DESC LIMIT ?";
+                        consultarReservas(query, callback, statement -> {
                             statement.setString(1, numeroSocio);
-                            ResultSet resultSet = statement.executeQuery();
+                            statement.setInt(2, limite);
+                        });
+                        return;
+                    }
+
+                    String query = SELECT_RESERVAS_CON_INSTALACION +
+                            "WHERE r.numero_socio = ? AND (r.fecha < ? OR (r.fecha = ? AND (r.hora < ? OR (r.hora = ? AND r.id_reserva < ?)))) " +
+                            "ORDER BY r.fecha DESC, r.hora DESC, r.id_reserva DESC LIMIT ?";
+                    java.sql.Date fecha = new java.sql.Date(ultima.getFecha().getTime());
+                    consultarReservas(query, callback, statement -> {
+                        statement.setString(1, numeroSocio);
+                        statement.setDate(2, fecha);
+                        statement.setDate(3, fecha);
+                        statement.setString(4, ultima.getHora());
+                        statement.setString(5, ultima.getHora());
+                        statement.setInt(6, ultima.getIdReserva());
+                        statement.setInt(7, limite);
+                    });
+                }
+
+                /**
+                 * Asigna los parámetros de una consulta preparada.
+                 */
+                private interface Parametros {
+                    void asignar(PreparedStatement statement) throws SQLException;
+                }
+
+                private void consultarReservas(String query, GetReservasBySocioCallback callback, Parametros parametros) {
+                    execute(callback::onError, () -> {
+                        try (Connection connection = MySQLConnection.getConnection();
+                             PreparedStatement statement = connection.prepareStatement(query)) {
+                            parametros.asignar(statement);
 
                             List<Reserva> reservas = new ArrayList<>();
-                            while (resultSet.next()) {
-                                Reserva reserva = new Reserva();
-                                reserva.setIdReserva(resultSet.getInt("id_reserva"));
-                                reserva.setFecha(resultSet.getDate("fecha"));
-                                reserva.setHora(resultSet.getString("hora"));
-                                reserva.setIdInstalacion(resultSet.getInt("id_instalacion"));
-                                reserva.setNumeroSocio(resultSet.getString("numero_socio"));
-
-                                Object idEmpleadoObj = resultSet.getObject("id_empleado");
-                                if (idEmpleadoObj != null && !resultSet.wasNull()) {
-                                    reserva.setIdEmpleado(resultSet.getInt("id_empleado"));
-                                } else {
-                                    reserva.setIdEmpleado(0);
+                            try (ResultSet resultSet = statement.executeQuery()) {
+                                while (resultSet.next()) {
+                                    Reserva reserva = new Reserva();
+                                    reserva.setIdReserva(resultSet.getInt("id_reserva"));
+                                    reserva.setFecha(resultSet.getDate("fecha"));
+                                    reserva.setHora(resultSet.getString("hora"));
+                                    reserva.setIdInstalacion(resultSet.getInt("id_instalacion"));
+                                    reserva.setNumeroSocio(resultSet.getString("numero_socio"));
+
+                                    int idEmpleado = resultSet.getInt("id_empleado");
+                                    reserva.setIdEmpleado(resultSet.wasNull() ? 0 : idEmpleado);
+
+                                    reserva.setNombreInstalacion(resultSet.getString("nombre_instalacion"));
+                                    reservas.add(reserva);
                                 }
-
-                                reservas.add(reserva);
                             }
 
-                            resultSet.close();
-                            statement.close();
-
-                            Log.d(TAG, "Reservas encontradas: " + reservas.size());
-
-                            android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                            mainHandler.post(() -> callback.onSuccess(reservas));
+                            Log.d(TAG, "Reservas con instalación encontradas: " + reservas.size());
+                            postToMain(() -> callback.onSuccess(reservas));
 
                         } catch (SQLException e) {
-                            Log.e(TAG, "Error obteniendo reservas: " + e.getMessage(), e);
-                            android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                            mainHandler.post(() -> callback.onError(e));
+                            Log.e(TAG, "Error obteniendo reservas con instalación: " + e.getMessage(), e);
+                            postToMain(() -> callback.onError(e));
                         }
-                    }).start();
+                    });
                 }
 
                 /**
@@ -229,32 +719,28 @@ package com.jlobatonm.socialclub_app.database;
                 /**
                  * Elimina una reserva específica de la base de datos.
                  *
-                 * @param connection Conexión a la base de datos.
                  * @param idReserva  Identificador de la reserva a eliminar.
                  * @param callback   Interfaz de callback para notificar el resultado.
                  */
-                public void eliminarReserva(Connection connection, int idReserva, EliminarReservaCallback callback) {
-                    new Thread(() -> {
-                        try {
-                            String query = "DELETE FROM reserva WHERE id_reserva = ?";
-                            PreparedStatement statement = connection.prepareStatement(query);
+                public void eliminarReserva(int idReserva, EliminarReservaCallback callback) {
+                    execute(callback::onError, () -> {
+                        String query = "DELETE FROM reserva WHERE id_reserva = ?";
+                        try (Connection connection = MySQLConnection.getConnection();
+                             PreparedStatement statement = connection.prepareStatement(query)) {
                             statement.setInt(1, idReserva);
 
                             int rowsDeleted = statement.executeUpdate();
-                            statement.close();
 
-                            android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
                             if (rowsDeleted > 0) {
-                                mainHandler.post(callback::onSuccess);
+                                postToMain(callback::onSuccess);
                             } else {
-                                mainHandler.post(() -> callback.onError(new Exception("No se encontró la reserva a eliminar")));
+                                postToMain(() -> callback.onError(new Exception("No se encontró la reserva a eliminar")));
                             }
 
                         } catch (SQLException e) {
                             Log.e(TAG, "Error eliminando reserva: " + e.getMessage(), e);
-                            android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                            mainHandler.post(() -> callback.onError(e));
+                            postToMain(() -> callback.onError(e));
                         }
-                    }).start();
+                    });
                 }
             }
\ No newline at end of file
@@ -2,23 +2,59 @@ package com.jlobatonm.socialclub_app.database;
 
         import android.util.Log;
 
+        import com.jlobatonm.socialclub_app.model.CambiosSocio;
         import com.jlobatonm.socialclub_app.model.Socio;
+        import com.jlobatonm.socialclub_app.utils.CredentialService;
 
         import java.sql.Connection;
         import java.sql.PreparedStatement;
         import java.sql.ResultSet;
         import java.sql.SQLException;
+        import java.util.Map;
 
-        import org.mindrot.jbcrypt.BCrypt;
 
         /**
          * Clase de acceso a datos para las operaciones relacionadas con los socios en la base de datos.
          * Proporciona métodos para consultar y verificar información de los socios de manera asíncrona.
          */
-        public class SocioDao {
+        public class SocioDao extends BaseDao {
 
             private static final String TAG = "SocioDao";
 
+            /**
+             * Consulta del perfil de un socio por email, compartida por {@link #getSocioByEmail} y {@link #autenticar}.
+             * De la foto sólo se lee el hash; los bytes se piden con {@link #getFotoSocio} cuando hay que mostrarla.
+             */
+            private static final String SELECT_SOCIO_POR_EMAIL = "SELECT numero_socio, id_socio, num_familia, nombre, apellidos, " +
+                    "telefono, dni, email, fecha_nacimiento, MD5(foto) AS foto_hash, titularidad, " +
+                    "dentro_instalacion, fecha_alta, contrasenia, version FROM socio WHERE email = ?";
+
+            /**
+             * Crea un DAO cuyas consultas se encolan con prioridad de usuario.
+             */
+            public SocioDao() {
+                super();
+            }
+
+            /**
+             * Crea un DAO cuyas consultas se cancelan con el token indicado.
+             *
+             * @param cancellationToken Token de cancelación, normalmente ligado a un ciclo de vida.
+             */
+            public SocioDao(CancellationToken cancellationToken) {
+                super(cancellationToken);
+            }
+
+            /**
+             * Crea un DAO con el token de cancelación y la prioridad indicados.
+             *
+             * @param cancellationToken Token de cancelación, normalmente ligado a un ciclo de vida.
+             * @param priority          Carril del despachador en el que se encolan las consultas.
+             */
+            public SocioDao(CancellationToken cancellationToken, DatabaseExecutor.Priority priority) {
+                super(cancellationToken, priority);
+            }
+
             /**
              * Interfaz de callback para manejar el resultado de obtener un socio.
              */
@@ -39,18 +75,18 @@ package com.jlobatonm.socialclub_app.database;
             }
 
             /**
-             * Interfaz de callback para manejar el resultado de verificar las credenciales de un socio.
+             * Interfaz de callback para manejar el resultado de autenticar a un socio.
              */
-            public interface CheckSocioCallback {
+            public interface AutenticarCallback {
                 /**
-                 * Se invoca cuando la verificación del socio es exitosa.
+                 * Se invoca cuando la autenticación termina.
                  *
-                 * @param isValid Booleano que indica si las credenciales son válidas.
+                 * @param socio Socio autenticado con todos sus datos, o null si las credenciales no son válidas.
                  */
-                void onResult(boolean isValid);
+                void onResult(Socio socio);
 
                 /**
-                 * Se invoca cuando ocurre un error al verificar el socio.
+                 * Se invoca cuando ocurre un error al autenticar al socio.
                  *
                  * @param exception Excepción que contiene los detalles del error.
                  */
@@ -59,109 +95,349 @@ package com.jlobatonm.socialclub_app.database;
 
             /**
              * Obtiene un socio por su dirección de correo electrónico.
+             * No se descargan ni la huella dactilar ni la foto; de la foto sólo su hash.
              *
-             * @param connection Conexión a la base de datos.
              * @param email      Dirección de correo electrónico del socio.
              * @param callback   Interfaz de callback para notificar el resultado.
              */
-            public void getSocioByEmail(Connection connection, String email, GetSocioCallback callback) {
-                new Thread(() -> {
-                    try {
-                        String query = "SELECT numero_socio, id_socio, num_familia, nombre, apellidos, " +
-                                "telefono, dni, email, fecha_nacimiento, foto, huella, titularidad, " +
-                                "dentro_instalacion, fecha_alta, contrasenia FROM socio WHERE email = ?";
-                        PreparedStatement statement = connection.prepareStatement(query);
+            public void getSocioByEmail(String email, GetSocioCallback callback) {
+                execute(callback::onError, () -> {
+                    try (Connection connection = MySQLConnection.getConnection();
+                         PreparedStatement statement = connection.prepareStatement(SELECT_SOCIO_POR_EMAIL)) {
                         statement.setString(1, email);
                         ResultSet resultSet = statement.executeQuery();
 
                         Socio socio = null;
                         if (resultSet.next()) {
-                            socio = new Socio();
-                            socio.setNumeroSocio(resultSet.getString("numero_socio"));
-                            socio.setIdSocio(resultSet.getInt("id_socio"));
-                            socio.setNumFamilia(resultSet.getInt("num_familia"));
-                            socio.setNombre(resultSet.getString("nombre"));
-                            socio.setApellidos(resultSet.getString("apellidos"));
-                            socio.setTelefono(resultSet.getString("telefono"));
-                            socio.setDni(resultSet.getString("dni"));
-                            socio.setEmail(resultSet.getString("email"));
-                            socio.setFechaNacimiento(resultSet.getDate("fecha_nacimiento"));
-                            socio.setFoto(resultSet.getBytes("foto"));
-                            socio.setHuella(resultSet.getBytes("huella"));
-                            socio.setTitularidad(resultSet.getString("titularidad"));
-                            socio.setDentroInstalacion(resultSet.getBoolean("dentro_instalacion"));
-                            socio.setFechaAlta(resultSet.getDate("fecha_alta"));
-                            socio.setPassword(resultSet.getString("contrasenia"));
+                            socio = leerSocio(resultSet);
                         }
-
                         resultSet.close();
-                        statement.close();
 
                         final Socio finalSocio = socio;
-                        android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                        mainHandler.post(() -> callback.onResult(finalSocio));
+                        postToMain(() -> callback.onResult(finalSocio));
 
                     } catch (SQLException e) {
                         Log.e(TAG, "Error getting socio: " + e.getMessage(), e);
-                        android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                        mainHandler.post(() -> callback.onError(e));
+                        postToMain(() -> callback.onError(e));
                     }
-                }).start();
+                });
             }
 
             /**
-             * Verifica las credenciales de un socio comparando la contraseña proporcionada.
+             * Autentica a un socio y obtiene sus datos en una sola consulta.
+             * Se lee el perfil, sin la foto, junto con la contraseña cifrada y se libera la conexión;
+             * la comprobación BCrypt se hace después en {@link CredentialService}. Así, tras iniciar
+             * sesión, la pantalla principal no necesita volver a pedir el socio al servidor.
              *
-             * @param connection   Conexión a la base de datos.
-             * @param email        Dirección de correo electrónico del socio.
+             * @param email         Dirección de correo electrónico del socio.
              * @param plainPassword Contraseña en texto plano para verificar.
-             * @param callback     Interfaz de callback para notificar el resultado.
+             * @param callback      Interfaz de callback para notificar el resultado.
              */
-            public void checkSocio(Connection connection, String email, String plainPassword, CheckSocioCallback callback) {
-                new Thread(() -> {
-                    try {
-                        String query = "SELECT contrasenia FROM socio WHERE email = ?";
-                        PreparedStatement statement = connection.prepareStatement(query);
+            public void autenticar(String email, String plainPassword, AutenticarCallback callback) {
+                execute(callback::onError, () -> {
+                    try (Connection connection = MySQLConnection.getConnection();
+                         PreparedStatement statement = connection.prepareStatement(SELECT_SOCIO_POR_EMAIL)) {
                         statement.setString(1, email);
                         ResultSet resultSet = statement.executeQuery();
 
-                        boolean isValid = false;
+                        Socio socio = null;
                         if (resultSet.next()) {
-                            String hashedPassword = resultSet.getString("contrasenia");
-                            isValid = verifyPassword(plainPassword, hashedPassword);
+                            socio = leerSocio(resultSet);
                         }
-
                         resultSet.close();
-                        statement.close();
 
-                        final boolean finalIsValid = isValid;
-                        android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                        mainHandler.post(() -> callback.onResult(finalIsValid));
+                        final Socio finalSocio = socio;
+                        CredentialService.getInstance().verificar(plainPassword,
+                                finalSocio != null ? finalSocio.getPassword() : null,
+                                isValid -> postToMain(() -> callback.onResult(isValid ? finalSocio : null)));
+
+                    } catch (SQLException e) {
+                        Log.e(TAG, "Error autenticando socio: " + e.getMessage(), e);
+                        postToMain(() -> callback.onError(e));
+                    }
+                });
+            }
+
+            /**
+             * Crea un socio con los datos de la fila actual de una consulta {@link #SELECT_SOCIO_POR_EMAIL}.
+             */
+            private static Socio leerSocio(ResultSet resultSet) throws SQLException {
+                Socio socio = new Socio();
+                socio.setNumeroSocio(resultSet.getString("numero_socio"));
+                socio.setIdSocio(resultSet.getInt("id_socio"));
+                socio.setNumFamilia(resultSet.getInt("num_familia"));
+                socio.setNombre(resultSet.getString("nombre"));
+                socio.setApellidos(resultSet.getString("apellidos"));
+                socio.setTelefono(resultSet.getString("telefono"));
+                socio.setDni(resultSet.getString("dni"));
+                socio.setEmail(resultSet.getString("email"));
+                socio.setFechaNacimiento(resultSet.getDate("fecha_nacimiento"));
+                socio.setFotoHash(resultSet.getString("foto_hash"));
+                socio.setTitularidad(resultSet.getString("titularidad"));
+                socio.setDentroInstalacion(resultSet.getBoolean("dentro_instalacion"));
+                socio.setFechaAlta(resultSet.getDate("fecha_alta"));
+                socio.setPassword(resultSet.getString("contrasenia"));
+                socio.setVersion(resultSet.getInt("version"));
+                return socio;
+            }
+
+            /**
+             * Interfaz de callback para manejar el resultado de obtener la foto de un socio.
+             */
+            public interface GetFotoSocioCallback {
+                /**
+                 * Se invoca cuando la foto se ha obtenido.
+                 *
+                 * @param foto Bytes de la foto, o null si el socio no tiene foto.
+                 */
+                void onResult(byte[] foto);
+
+                /**
+                 * Se invoca cuando ocurre un error al obtener la foto.
+                 *
+                 * @param exception Excepción que contiene los detalles del error.
+                 */
+                void onError(Exception exception);
+            }
+
+            /**
+             * Obtiene la foto de un socio. Se usa como origen de {@link com.jlobatonm.socialclub_app.utils.ImageLoader},
+             * que sólo la pide si no tiene ya guardada la foto con el hash actual.
+             *
+             * @param numeroSocio Número del socio.
+             * @param callback    Interfaz de callback para notificar el resultado.
+             */
+            public void getFotoSocio(String numeroSocio, GetFotoSocioCallback callback) {
+                execute(callback::onError, () -> {
+                    String query = "SELECT foto FROM socio WHERE numero_socio = ?";
+                    try (Connection connection = MySQLConnection.getConnection();
+                         PreparedStatement statement = connection.prepareStatement(query)) {
+                        statement.setString(1, numeroSocio);
+
+                        byte[] foto = null;
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            if (resultSet.next()) {
+                                foto = resultSet.getBytes("foto");
+                            }
+                        }
+
+                        final byte[] finalFoto = foto;
+                        postToMain(() -> callback.onResult(finalFoto));
+
+                    } catch (SQLException e) {
+                        Log.e(TAG, "Error obteniendo foto: " + e.getMessage(), e);
+                        postToMain(() -> callback.onError(e));
+                    }
+                });
+            }
+
+            /**
+             * Interfaz de callback para manejar el resultado de obtener el número de socio.
+             */
+            public interface GetNumeroSocioCallback {
+                /**
+                 * Se invoca cuando la consulta es exitosa.
+                 *
+                 * @param numeroSocio Número del socio, o null si no existe.
+                 */
+                void onResult(String numeroSocio);
+
+                /**
+                 * Se invoca cuando ocurre un error en la consulta.
+                 *
+                 * @param exception Excepción que contiene los detalles del error.
+                 */
+                void onError(Exception exception);
+            }
+
+            /**
+             * Obtiene únicamente el número de socio asociado a un correo electrónico.
+             *
+             * @param email    Dirección de correo electrónico del socio.
+             * @param callback Interfaz de callback para notificar el resultado.
+             */
+            public void getNumeroSocioByEmail(String email, GetNumeroSocioCallback callback) {
+                execute(callback::onError, () -> {
+                    String query = "SELECT numero_socio FROM socio WHERE email = ?";
+                    try (Connection connection = MySQLConnection.getConnection();
+                         PreparedStatement statement = connection.prepareStatement(query)) {
+                        statement.setString(1, email);
+
+                        String numeroSocio = null;
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            if (resultSet.next()) {
+                                numeroSocio = resultSet.getString("numero_socio");
+                            }
+                        }
+
+                        final String finalNumeroSocio = numeroSocio;
+                        postToMain(() -> callback.onResult(finalNumeroSocio));
 
                     } catch (SQLException e) {
-                        Log.e(TAG, "Error checking socio: " + e.getMessage(), e);
-                        android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                        mainHandler.post(() -> callback.onError(e));
+                        Log.e(TAG, "Error buscando número de socio: " + e.getMessage(), e);
+                        postToMain(() -> callback.onError(e));
                     }
-                }).start();
+                });
             }
 
             /**
-             * Verifica si una contraseña en texto plano coincide con su versión encriptada con BCrypt.
+             * Interfaz de callback para manejar el resultado de obtener el carnet firmado de un socio.
+             */
+            public interface GetCarnetTokenCallback {
+                /**
+                 * Se invoca cuando la consulta es exitosa.
+                 *
+                 * @param token Token del carnet, o null si no hay ninguno vigente.
+                 */
+                void onResult(String token);
+
+                /**
+                 * Se invoca cuando ocurre un error en la consulta.
+                 *
+                 * @param exception Excepción que contiene los detalles del error.
+                 */
+                void onError(Exception exception);
+            }
+
+            /**
+             * Obtiene el token del carnet digital de un socio emitido por el control de acceso,
+             * si todavía no ha caducado.
              *
-             * @param plainPassword  Contraseña en texto plano para verificar.
-             * @param hashedPassword Versión encriptada de la contraseña almacenada en la base de datos.
-             * @return true si la contraseña coincide, false en caso contrario.
-             */
-            public static boolean verifyPassword(String plainPassword, String hashedPassword) {
-                try {
-                    Log.d(TAG, "Verificando contraseña con BCrypt");
-                    boolean result = BCrypt.checkpw(plainPassword, hashedPassword);
-                    Log.d(TAG, "Resultado de verificación: " + result);
-                    return result;
-                } catch (IllegalArgumentException e) {
-                    Log.e(TAG, "Error verificando contraseña: " + e.getMessage(), e);
-                    return false;
+             * @param numeroSocio Número del socio.
+             * @param callback    Interfaz de callback para notificar el resultado.
+             */
+            public void getCarnetToken(String numeroSocio, GetCarnetTokenCallback callback) {
+                execute(callback::onError, () -> {
+                    String query = "SELECT token FROM carnet_token WHERE numero_socio = ? AND valido_hasta > NOW()";
+                    try (Connection connection = MySQLConnection.getConnection();
+                         PreparedStatement statement = connection.prepareStatement(query)) {
+                        statement.setString(1, numeroSocio);
+
+                        String token = null;
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            if (resultSet.next()) {
+                                token = resultSet.getString("token");
+                            }
+                        }
+
+                        final String finalToken = token;
+                        postToMain(() -> callback.onResult(finalToken));
+
+                    } catch (SQLException e) {
+                        Log.e(TAG, "Error obteniendo el carnet: " + e.getMessage(), e);
+                        postToMain(() -> callback.onError(e));
+                    }
+                });
+            }
+
+            /**
+             * Interfaz de callback para manejar el resultado de actualizar un socio.
+             */
+            public interface UpdateSocioCallback {
+                /**
+                 * Se invoca cuando la actualización termina sin errores.
+                 *
+                 * @param actualizado true si se ha modificado alguna fila.
+                 */
+                void onResult(boolean actualizado);
+
+                /**
+                 * Se invoca cuando el perfil se ha modificado desde otro sitio después de leerlo
+                 * (su versión ya no coincide). No se guarda ningún cambio.
+                 */
+                void onConflicto();
+
+                /**
+                 * Se invoca cuando ocurre un error al actualizar el socio.
+                 *
+                 * @param exception Excepción que contiene los detalles del error.
+                 */
+                void onError(Exception exception);
+            }
+
+            /**
+             * Guarda sólo los campos modificados de un socio, con bloqueo optimista por versión.
+             * <p>
+             * El UPDATE incluye únicamente las columnas cambiadas, incrementa la versión y sólo se
+             * aplica si la versión sigue siendo la que se leyó; si no, se notifica
+             * {@link UpdateSocioCallback#onConflicto()}. La foto, si su hash ha cambiado, se guarda
+             * con su propio UPDATE en la misma transacción, para no enviar el BLOB en el caso habitual.
+             * </p>
+             *
+             * @param cambios  Cambios registrados sobre el socio leído.
+             * @param callback Interfaz de callback para notificar el resultado.
+             */
+            public void actualizarSocio(CambiosSocio cambios, UpdateSocioCallback callback) {
+                if (cambios.isEmpty()) {
+                    postToMain(() -> callback.onResult(false));
+                    return;
+                }
+
+                execute(callback::onError, () -> {
+                    Map<CambiosSocio.Campo, Object> campos = cambios.getCampos();
+                    StringBuilder query = new StringBuilder("UPDATE socio SET ");
+                    for (CambiosSocio.Campo campo : campos.keySet()) {
+                        query.append(columna(campo)).append(" = ?, ");
+                    }
+                    query.append("version = version + 1 WHERE numero_socio = ? AND version = ?");
+
+                    try (Connection connection = MySQLConnection.getConnection()) {
+                        connection.setAutoCommit(false);
+                        try (PreparedStatement statement = connection.prepareStatement(query.toString())) {
+                            int paramIndex = 1;
+                            for (Object valor : campos.values()) {
+                                if (valor instanceof java.util.Date) {
+                                    statement.setDate(paramIndex++, new java.sql.Date(((java.util.Date) valor).getTime()));
+                                } else {
+                                    statement.setString(paramIndex++, (String) valor);
+                                }
+                            }
+                            statement.setString(paramIndex++, cambios.getNumeroSocio());
+                            statement.setInt(paramIndex, cambios.getVersion());
+
+                            if (statement.executeUpdate() == 0) {
+                                connection.rollback();
+                                postToMain(callback::onConflicto);
+                                return;
+                            }
+                            if (cambios.tieneFoto()) {
+                                actualizarFoto(connection, cambios.getNumeroSocio(), cambios.getFoto());
+                            }
+                            connection.commit();
+
+                            postToMain(() -> callback.onResult(true));
+                        } catch (SQLException e) {
+                            connection.rollback();
+                            throw e;
+                        } finally {
+                            connection.setAutoCommit(true);
+                        }
+
+                    } catch (SQLException e) {
+                        Log.e(TAG, "Error al actualizar socio: " + e.getMessage(), e);
+                        postToMain(() -> callback.onError(e));
+                    }
+                });
+            }
+
+            private static String columna(CambiosSocio.Campo campo) {
+                return switch (campo) {
+                    case NOMBRE -> "nombre";
+                    case APELLIDOS -> "apellidos";
+                    case TELEFONO -> "telefono";
+                    case DNI -> "dni";
+                    case EMAIL -> "email";
+                    case FECHA_NACIMIENTO -> "fecha_nacimiento";
+                    case PASSWORD -> "contrasenia";
+                };
+            }
+
+            private static void actualizarFoto(Connection connection, String numeroSocio, byte[] foto) throws SQLException {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "UPDATE socio SET foto = ? WHERE numero_socio = ?")) {
+                    statement.setBytes(1, foto);
+                    statement.setString(2, numeroSocio);
+                    statement.executeUpdate();
                 }
             }
         }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package com.jlobatonm.socialclub_app.model;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cambios pendientes de guardar en el perfil de un socio.
+ * <p>
+ * Se crea a partir del socio tal como se cargó (con su versión) y cada setter sólo registra
+ * el campo si su valor es distinto del original, de modo que la actualización envía únicamente
+ * las columnas modificadas. La foto se compara por su hash, sin recorrer sus bytes.
+ * </p>
+ */
+public class CambiosSocio {
+
+    /**
+     * Campos de texto o fecha del perfil que el socio puede modificar.
+     */
+    public enum Campo {
+        NOMBRE,
+        APELLIDOS,
+        TELEFONO,
+        DNI,
+        EMAIL,
+        FECHA_NACIMIENTO,
+        PASSWORD
+    }
+
+    private final Socio original;
+    private final EnumMap<Campo, Object> campos = new EnumMap<>(Campo.class);
+    private byte[] foto;
+    private String fotoHash;
+
+    /**
+     * Crea un registro de cambios vacío sobre el socio indicado.
+     *
+     * @param original Socio tal como está guardado, con su versión.
+     */
+    public CambiosSocio(Socio original) {
+        this.original = original;
+    }
+
+    /**
+     * @param nombre Nombre nuevo del socio.
+     */
+    public void setNombre(String nombre) {
+        registrar(Campo.NOMBRE, original.getNombre(), nombre);
+    }
+
+    /**
+     * @param apellidos Apellidos nuevos del socio.
+     */
+    public void setApellidos(String apellidos) {
+        registrar(Campo.APELLIDOS, original.getApellidos(), apellidos);
+    }
+
+    /**
+     * @param telefono Teléfono nuevo del socio.
+     */
+    public void setTelefono(String telefono) {
+        registrar(Campo.TELEFONO, original.getTelefono(), telefono);
+    }
+
+    /**
+     * @param dni DNI nuevo del socio.
+     */
+    public void setDni(String dni) {
+        registrar(Campo.DNI, original.getDni(), dni);
+    }
+
+    /**
+     * @param email Email nuevo del socio.
+     */
+    public void setEmail(String email) {
+        registrar(Campo.EMAIL, original.getEmail(), email);
+    }
+
+    /**
+     * Registra la fecha de nacimiento si cambia el día, sin tener en cuenta la hora.
+     *
+     * @param fechaNacimiento Fecha de nacimiento nueva del socio.
+     */
+    public void setFechaNacimiento(Date fechaNacimiento) {
+        registrar(Campo.FECHA_NACIMIENTO, dia(original.getFechaNacimiento()), dia(fechaNacimiento));
+    }
+
+    /**
+     * Registra una contraseña nueva, ya cifrada. Siempre se considera un cambio.
+     *
+     * @param passwordCifrada Contraseña cifrada con BCrypt.
+     */
+    public void setPassword(String passwordCifrada) {
+        campos.put(Campo.PASSWORD, passwordCifrada);
+    }
+
+    /**
+     * Registra una foto nueva si su hash es distinto del de la foto guardada.
+     *
+     * @param foto     Bytes de la foto codificada.
+     * @param fotoHash Hash MD5 de los bytes, en hexadecimal.
+     */
+    public void setFoto(byte[] foto, String fotoHash) {
+        if (fotoHash != null && !fotoHash.equals(original.getFotoHash())) {
+            this.foto = foto;
+            this.fotoHash = fotoHash;
+        }
+    }
+
+    /**
+     * @return true si no hay ningún cambio que guardar.
+     */
+    public boolean isEmpty() {
+        return campos.isEmpty() && foto == null;
+    }
+
+    /**
+     * @param campo Campo a consultar.
+     * @return true si el campo ha cambiado.
+     */
+    public boolean contiene(Campo campo) {
+        return campos.containsKey(campo);
+    }
+
+    /**
+     * @return Campos modificados con su valor nuevo, en el orden de {@link Campo}.
+     */
+    public Map<Campo, Object> getCampos() {
+        return Collections.unmodifiableMap(campos);
+    }
+
+    /**
+     * @return true si hay una foto nueva que guardar.
+     */
+    public boolean tieneFoto() {
+        return foto != null;
+    }
+
+    /**
+     * @return Bytes de la foto nueva, o null si no ha cambiado.
+     */
+    public byte[] getFoto() {
+        return foto;
+    }
+
+    /**
+     * @return Hash de la foto nueva, o null si no ha cambiado.
+     */
+    public String getFotoHash() {
+        return fotoHash;
+    }
+
+    /**
+     * @return Número del socio a actualizar.
+     */
+    public String getNumeroSocio() {
+        return original.getNumeroSocio();
+    }
+
+    /**
+     * @return Versión del socio cuando se cargó, para detectar modificaciones concurrentes.
+     */
+    public int getVersion() {
+        return original.getVersion();
+    }
+
+    private void registrar(Campo campo, Object valorOriginal, Object valorNuevo) {
+        if (Objects.equals(valorOriginal, valorNuevo)) {
+            campos.remove(campo);
+        } else {
+            campos.put(campo, valorNuevo);
+        }
+    }
+
+    private static Date dia(Date fecha) {
+        if (fecha == null) {
+            return null;
+        }
+        return java.sql.Date.valueOf(new java.sql.Date(fecha.getTime()).toLocalDate());
+    }
+}
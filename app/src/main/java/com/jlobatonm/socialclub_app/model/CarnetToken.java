@@ -0,0 +1,173 @@
+package com.jlobatonm.socialclub_app.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Carnet digital firmado que se muestra como código QR y que los lectores de acceso
+ * pueden verificar sin conexión y sin consultar la base de datos.
+ * <p>
+ * El token lo emite el sistema de control de acceso del club, que guarda la clave privada,
+ * con el formato {@code SC1.<contenido>.<firma>}: el contenido es
+ * {@code numero_socio|titularidad|valido_desde|valido_hasta} (instantes en segundos Unix)
+ * y la firma es ECDSA P-256 con SHA-256 sobre los bytes del contenido, ambos en Base64 URL
+ * sin relleno. La app nunca firma; sólo guarda el token y lo muestra.
+ * </p>
+ * <p>
+ * La clase sólo usa {@code java.*} para que los lectores puedan reutilizarla tal cual.
+ * </p>
+ */
+public final class CarnetToken {
+
+    /** Prefijo y versión del formato. */
+    public static final String PREFIJO = "SC1";
+    /** Algoritmo de firma del token. */
+    public static final String ALGORITMO_FIRMA = "SHA256withECDSA";
+    /** Margen, en segundos, para tolerar relojes desajustados entre el lector y el emisor. */
+    public static final long MARGEN_RELOJ_SEG = 5 * 60;
+
+    private static final String SEPARADOR_CAMPOS = "\\|";
+    private static final int NUM_CAMPOS = 4;
+
+    private final String token;
+    private final String numeroSocio;
+    private final String titularidad;
+    private final long validoDesde;
+    private final long validoHasta;
+    private final byte[] contenido;
+    private final byte[] firma;
+
+    private CarnetToken(String token, String numeroSocio, String titularidad, long validoDesde,
+                        long validoHasta, byte[] contenido, byte[] firma) {
+        this.token = token;
+        this.numeroSocio = numeroSocio;
+        this.titularidad = titularidad;
+        this.validoDesde = validoDesde;
+        this.validoHasta = validoHasta;
+        this.contenido = contenido;
+        this.firma = firma;
+    }
+
+    /**
+     * Interpreta un token sin verificar su firma.
+     *
+     * @param token Token tal como lo emite el control de acceso.
+     * @return El carnet con los campos del token.
+     * @throws IllegalArgumentException Si el token no tiene el formato esperado.
+     */
+    public static CarnetToken parse(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("Token vacío");
+        }
+        String[] partes = token.split("\\.");
+        if (partes.length != 3 || !PREFIJO.equals(partes[0])) {
+            throw new IllegalArgumentException("Formato de token no reconocido");
+        }
+
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        byte[] contenido = decoder.decode(partes[1]);
+        byte[] firma = decoder.decode(partes[2]);
+
+        String[] campos = new String(contenido, StandardCharsets.UTF_8).split(SEPARADOR_CAMPOS, -1);
+        if (campos.length != NUM_CAMPOS || campos[0].isEmpty()) {
+            throw new IllegalArgumentException("Contenido de token no válido");
+        }
+        try {
+            return new CarnetToken(token, campos[0], campos[1],
+                    Long.parseLong(campos[2]), Long.parseLong(campos[3]), contenido, firma);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Periodo de validez no válido", e);
+        }
+    }
+
+    /**
+     * Obtiene la clave pública de verificación a partir de su codificación X.509 en Base64.
+     *
+     * @param base64X509 Clave pública EC codificada en X.509 y Base64.
+     * @return La clave pública.
+     * @throws GeneralSecurityException Si la clave no es válida.
+     */
+    public static PublicKey clavePublica(String base64X509) throws GeneralSecurityException {
+        byte[] codificada = Base64.getDecoder().decode(base64X509);
+        return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(codificada));
+    }
+
+    /**
+     * Comprueba la firma del token con la clave pública del emisor.
+     *
+     * @param clavePublica Clave pública del control de acceso.
+     * @return true si la firma es válida.
+     */
+    public boolean verificar(PublicKey clavePublica) {
+        try {
+            Signature verificador = Signature.getInstance(ALGORITMO_FIRMA);
+            verificador.initVerify(clavePublica);
+            verificador.update(contenido);
+            return verificador.verify(firma);
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Indica si el instante dado está dentro del periodo de validez, con el margen de {@link #MARGEN_RELOJ_SEG}.
+     *
+     * @param ahoraMs Instante a comprobar, en milisegundos Unix.
+     * @return true si el carnet está vigente.
+     */
+    public boolean vigente(long ahoraMs) {
+        long ahora = ahoraMs / 1000;
+        return ahora + MARGEN_RELOJ_SEG >= validoDesde && ahora - MARGEN_RELOJ_SEG <= validoHasta;
+    }
+
+    /**
+     * Comprobación completa que hace un lector: firma válida y carnet vigente.
+     *
+     * @param clavePublica Clave pública del control de acceso.
+     * @param ahoraMs      Instante actual, en milisegundos Unix.
+     * @return true si el carnet permite el acceso.
+     */
+    public boolean valido(PublicKey clavePublica, long ahoraMs) {
+        return vigente(ahoraMs) && verificar(clavePublica);
+    }
+
+    /**
+     * @return El token completo, que es el contenido del código QR.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return Número del socio.
+     */
+    public String getNumeroSocio() {
+        return numeroSocio;
+    }
+
+    /**
+     * @return Titularidad del socio.
+     */
+    public String getTitularidad() {
+        return titularidad;
+    }
+
+    /**
+     * @return Inicio del periodo de validez, en segundos Unix.
+     */
+    public long getValidoDesde() {
+        return validoDesde;
+    }
+
+    /**
+     * @return Fin del periodo de validez, en segundos Unix.
+     */
+    public long getValidoHasta() {
+        return validoHasta;
+    }
+}
@@ -0,0 +1,148 @@
+package com.jlobatonm.socialclub_app.model;
+
+import java.util.BitSet;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Disponibilidad de una instalación durante un día, dividida en franjas de reserva.
+ * <p>
+ * Las franjas se representan por su minuto de inicio desde la medianoche y la ocupación
+ * con un {@link BitSet}, de modo que comprobar si una franja está libre no requiere
+ * recorrer listas ni interpretar cadenas. Las etiquetas "HH:mm" se calculan una sola vez
+ * al crear el objeto, fuera del hilo principal.
+ * </p>
+ */
+public final class DisponibilidadDia {
+
+    private final int idInstalacion;
+    private final Date fecha;
+    private final int inicioMinutos;
+    private final int duracion;
+    private final int numFranjas;
+    private final BitSet ocupadas;
+    private final String[] etiquetas;
+
+    /**
+     * Crea la disponibilidad de un día a partir del horario de la instalación y de los minutos
+     * de inicio de las reservas existentes. Las reservas que no coinciden con el inicio de una
+     * franja se ignoran.
+     *
+     * @param idInstalacion   Identificador de la instalación.
+     * @param fecha           Día al que corresponde la disponibilidad.
+     * @param inicioMinutos   Minuto de apertura de la instalación.
+     * @param finMinutos      Minuto de cierre de la instalación.
+     * @param duracion        Duración en minutos de cada franja.
+     * @param minutosOcupados Minutos de inicio de las reservas del día.
+     */
+    public DisponibilidadDia(int idInstalacion, Date fecha, int inicioMinutos, int finMinutos,
+                             int duracion, int[] minutosOcupados) {
+        this.idInstalacion = idInstalacion;
+        this.fecha = fecha;
+        this.inicioMinutos = inicioMinutos;
+        this.duracion = duracion;
+
+        if (duracion <= 0 || inicioMinutos >= finMinutos) {
+            numFranjas = 0;
+        } else {
+            numFranjas = Math.max(1, (finMinutos - inicioMinutos) / duracion);
+        }
+
+        ocupadas = new BitSet(numFranjas);
+        for (int minuto : minutosOcupados) {
+            int indice = indiceDe(minuto);
+            if (indice >= 0) {
+                ocupadas.set(indice);
+            }
+        }
+
+        etiquetas = new String[numFranjas];
+        for (int i = 0; i < numFranjas; i++) {
+            int minuto = getMinutoFranja(i);
+            etiquetas[i] = String.format(Locale.getDefault(), "%02d:%02d", minuto / 60, minuto % 60);
+        }
+    }
+
+    /**
+     * Obtiene el identificador de la instalación.
+     *
+     * @return Identificador numérico de la instalación.
+     */
+    public int getIdInstalacion() {
+        return idInstalacion;
+    }
+
+    /**
+     * Obtiene el día al que corresponde la disponibilidad.
+     *
+     * @return Fecha del día.
+     */
+    public Date getFecha() {
+        return fecha;
+    }
+
+    /**
+     * Obtiene el número de franjas del día.
+     *
+     * @return Número de franjas; 0 si la instalación no tiene horario configurado.
+     */
+    public int getNumFranjas() {
+        return numFranjas;
+    }
+
+    /**
+     * Obtiene el minuto de inicio de una franja.
+     *
+     * @param indice Índice de la franja.
+     * @return Minutos desde la medianoche.
+     */
+    public int getMinutoFranja(int indice) {
+        return inicioMinutos + indice * duracion;
+    }
+
+    /**
+     * Obtiene la hora de inicio de una franja en formato HH:mm.
+     *
+     * @param indice Índice de la franja.
+     * @return Hora de inicio de la franja.
+     */
+    public String getEtiqueta(int indice) {
+        return etiquetas[indice];
+    }
+
+    /**
+     * Indica si una franja ya está reservada.
+     *
+     * @param indice Índice de la franja.
+     * @return true si la franja está ocupada.
+     */
+    public boolean estaOcupada(int indice) {
+        return ocupadas.get(indice);
+    }
+
+    /**
+     * Obtiene el índice de la franja que empieza en el minuto indicado.
+     *
+     * @param minuto Minutos desde la medianoche.
+     * @return Índice de la franja, o -1 si ninguna franja empieza en ese minuto.
+     */
+    public int indiceDe(int minuto) {
+        int desplazamiento = minuto - inicioMinutos;
+        if (numFranjas == 0 || desplazamiento < 0 || desplazamiento % duracion != 0) {
+            return -1;
+        }
+        int indice = desplazamiento / duracion;
+        return indice < numFranjas ? indice : -1;
+    }
+
+    /**
+     * Indica si la franja que empieza en el minuto indicado existe y está libre.
+     *
+     * @param minuto Minutos desde la medianoche.
+     * @return true si se puede reservar esa franja.
+     */
+    public boolean estaLibre(int minuto) {
+        int indice = indiceDe(minuto);
+        return indice >= 0 && !ocupadas.get(indice);
+    }
+}
@@ -6,12 +6,18 @@ import java.util.Date;
  * Clase modelo que representa un evento del club social.
  * Contiene información básica sobre cada evento, incluyendo su identificador,
  * nombre, imagen asociada y fecha de realización.
+ * <p>
+ * Los listados sólo cargan los metadatos de la imagen (tamaño y hash); los bytes
+ * se obtienen aparte con {@code EventoDao.getImagenEvento}.
+ * </p>
  */
 public class Evento {
     private int idEvento;
     private String nombre;
     private byte[] imagen;
     private Date fecha;
+    private long imagenTamanio;
+    private String imagenHash;
 
     /**
      * Constructor predeterminado sin parámetros.
@@ -89,4 +95,50 @@ public class Evento {
     public void setFecha(Date fecha) {
         this.fecha = fecha;
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtiene el tamaño en bytes de la imagen del evento almacenada en la base de datos.
+     *
+     * @return Tamaño de la imagen en bytes, o 0 si el evento no tiene imagen.
+     */
+    public long getImagenTamanio() {
+        return imagenTamanio;
+    }
+
+    /**
+     * Establece el tamaño en bytes de la imagen del evento.
+     *
+     * @param imagenTamanio Tamaño de la imagen en bytes.
+     */
+    public void setImagenTamanio(long imagenTamanio) {
+        this.imagenTamanio = imagenTamanio;
+    }
+
+    /**
+     * Obtiene el hash de la imagen del evento, usado como clave de caché.
+     * Cambia cuando se sustituye la imagen.
+     *
+     * @return Hash de la imagen, o null si el evento no tiene imagen.
+     */
+    public String getImagenHash() {
+        return imagenHash;
+    }
+
+    /**
+     * Establece el hash de la imagen del evento.
+     *
+     * @param imagenHash Hash de la imagen.
+     */
+    public void setImagenHash(String imagenHash) {
+        this.imagenHash = imagenHash;
+    }
+
+    /**
+     * Indica si el evento tiene imagen asociada.
+     *
+     * @return true si la imagen existe y no está vacía.
+     */
+    public boolean tieneImagen() {
+        return imagenTamanio > 0 || (imagen != null && imagen.length > 0);
+    }
+}
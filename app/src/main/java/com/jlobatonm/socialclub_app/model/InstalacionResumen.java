@@ -0,0 +1,143 @@
+package com.jlobatonm.socialclub_app.model;
+
+/**
+ * Vista reducida de una instalación del club social.
+ * Contiene sólo los datos necesarios para listar instalaciones y calcular sus horarios,
+ * sin la imagen, de modo que las pantallas de listas y horarios transfieran pocos bytes.
+ * Los datos completos se obtienen como {@link Instalacion}.
+ */
+public class InstalacionResumen {
+    private int id;
+    private String tipo;
+    private String nombre;
+    private int duracion;
+    private String horaIni;
+    private String horaFin;
+    private boolean disponibilidad;
+
+    /**
+     * Obtiene el identificador único de la instalación.
+     *
+     * @return Identificador numérico de la instalación.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Establece el identificador único de la instalación.
+     *
+     * @param id Identificador numérico de la instalación.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Obtiene el tipo de instalación.
+     *
+     * @return Cadena de texto con el tipo de instalación.
+     */
+    public String getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Establece el tipo de instalación.
+     *
+     * @param tipo Cadena de texto con el tipo de instalación.
+     */
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    /**
+     * Obtiene el nombre de la instalación.
+     *
+     * @return Cadena de texto con el nombre de la instalación.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Establece el nombre de la instalación.
+     *
+     * @param nombre Cadena de texto con el nombre de la instalación.
+     */
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Obtiene la duración de cada franja de reserva.
+     *
+     * @return Duración en minutos de cada reserva.
+     */
+    public int getDuracion() {
+        return duracion;
+    }
+
+    /**
+     * Establece la duración de cada franja de reserva.
+     *
+     * @param duracion Duración en minutos de cada reserva.
+     */
+    public void setDuracion(int duracion) {
+        this.duracion = duracion;
+    }
+
+    /**
+     * Obtiene la hora de inicio de disponibilidad de la instalación.
+     *
+     * @return Cadena de texto con la hora de inicio.
+     */
+    public String getHoraIni() {
+        return horaIni;
+    }
+
+    /**
+     * Establece la hora de inicio de disponibilidad de la instalación.
+     *
+     * @param horaIni Cadena de texto con la hora de inicio.
+     */
+    public void setHoraIni(String horaIni) {
+        this.horaIni = horaIni;
+    }
+
+    /**
+     * Obtiene la hora de fin de disponibilidad de la instalación.
+     *
+     * @return Cadena de texto con la hora de fin.
+     */
+    public String getHoraFin() {
+        return horaFin;
+    }
+
+    /**
+     * Establece la hora de fin de disponibilidad de la instalación.
+     *
+     * @param horaFin Cadena de texto con la hora de fin.
+     */
+    public void setHoraFin(String horaFin) {
+        this.horaFin = horaFin;
+    }
+
+    /**
+     * Indica si la instalación está disponible para reservas.
+     *
+     * @return true si la instalación está disponible, false en caso contrario.
+     */
+    public boolean isDisponibilidad() {
+        return disponibilidad;
+    }
+
+    /**
+     * Establece la disponibilidad de la instalación.
+     *
+     * @param disponibilidad true si la instalación está disponible, false en caso contrario.
+     */
+    public void setDisponibilidad(boolean disponibilidad) {
+        this.disponibilidad = disponibilidad;
+    }
+}
@@ -14,6 +14,7 @@ package com.jlobatonm.socialclub_app.model;
         private int idInstalacion;
         private String numeroSocio;
         private Integer idEmpleado;
+        private String nombreInstalacion;
 
         /**
          * Obtiene el identificador único de la reserva.
@@ -122,4 +123,22 @@ package com.jlobatonm.socialclub_app.model;
         public void setIdEmpleado(Integer idEmpleado) {
             this.idEmpleado = idEmpleado;
         }
+
+        /**
+         * Obtiene el nombre de la instalación reservada, si se ha cargado junto a la reserva.
+         *
+         * @return Nombre de la instalación o null si no se ha cargado.
+         */
+        public String getNombreInstalacion() {
+            return nombreInstalacion;
+        }
+
+        /**
+         * Establece el nombre de la instalación reservada.
+         *
+         * @param nombreInstalacion Nombre de la instalación.
+         */
+        public void setNombreInstalacion(String nombreInstalacion) {
+            this.nombreInstalacion = nombreInstalacion;
+        }
     }
\ No newline at end of file
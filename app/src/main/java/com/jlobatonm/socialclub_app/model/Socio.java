@@ -18,11 +18,13 @@ public class Socio {
     private String email;
     private Date fechaNacimiento;
     private byte[] foto;
+    private String fotoHash;
     private byte[] huella;
     private String titularidad;
     private boolean dentroInstalacion;
     private Date fechaAlta;
     private String password;
+    private int version;
 
     /**
      * Constructor predeterminado sin parámetros.
@@ -210,6 +212,25 @@ public class Socio {
         this.foto = foto;
     }
 
+    /**
+     * Obtiene el hash MD5 de los bytes de la fotografía, que la identifica sin tener que
+     * recorrerla ni decodificarla.
+     *
+     * @return Hash de la fotografía en hexadecimal, o null si el socio no tiene foto.
+     */
+    public String getFotoHash() {
+        return fotoHash;
+    }
+
+    /**
+     * Establece el hash MD5 de los bytes de la fotografía.
+     *
+     * @param fotoHash Hash de la fotografía en hexadecimal, o null si el socio no tiene foto.
+     */
+    public void setFotoHash(String fotoHash) {
+        this.fotoHash = fotoHash;
+    }
+
     /**
      * Obtiene los datos de la huella dactilar del socio.
      *
@@ -299,4 +320,22 @@ public class Socio {
     public void setPassword(String password) {
         this.password = password;
     }
+
+    /**
+     * Obtiene la versión del perfil, que se incrementa en cada actualización.
+     *
+     * @return Versión del perfil cuando se leyó.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Establece la versión del perfil.
+     *
+     * @param version Versión del perfil.
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package com.jlobatonm.socialclub_app.repository;
+
+import com.jlobatonm.socialclub_app.model.Evento;
+import com.jlobatonm.socialclub_app.model.InstalacionResumen;
+import com.jlobatonm.socialclub_app.model.Reserva;
+import com.jlobatonm.socialclub_app.model.Socio;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Conversión entre los modelos y el JSON que se guarda en la {@link LocalCache}.
+ * <p>
+ * Las credenciales y la huella del socio nunca se guardan en el dispositivo, y de su foto
+ * sólo el hash: los bytes los guarda {@link com.jlobatonm.socialclub_app.utils.ImageLoader}.
+ * Las fechas se guardan como milisegundos.
+ * </p>
+ */
+final class CacheCodec {
+
+    private CacheCodec() {
+    }
+
+    static String socioAJson(Socio socio) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("numeroSocio", socio.getNumeroSocio());
+        json.put("idSocio", socio.getIdSocio());
+        json.put("numFamilia", socio.getNumFamilia());
+        json.put("nombre", socio.getNombre());
+        json.put("apellidos", socio.getApellidos());
+        json.put("telefono", socio.getTelefono());
+        json.put("dni", socio.getDni());
+        json.put("email", socio.getEmail());
+        json.put("fechaNacimiento", fechaAJson(socio.getFechaNacimiento()));
+        json.put("fotoHash", socio.getFotoHash());
+        json.put("titularidad", socio.getTitularidad());
+        json.put("dentroInstalacion", socio.isDentroInstalacion());
+        json.put("fechaAlta", fechaAJson(socio.getFechaAlta()));
+        json.put("version", socio.getVersion());
+        return json.toString();
+    }
+
+    static Socio socioDesdeJson(String datos) throws JSONException {
+        JSONObject json = new JSONObject(datos);
+        Socio socio = new Socio();
+        socio.setNumeroSocio(texto(json, "numeroSocio"));
+        socio.setIdSocio(json.getInt("idSocio"));
+        socio.setNumFamilia(json.getInt("numFamilia"));
+        socio.setNombre(texto(json, "nombre"));
+        socio.setApellidos(texto(json, "apellidos"));
+        socio.setTelefono(texto(json, "telefono"));
+        socio.setDni(texto(json, "dni"));
+        socio.setEmail(texto(json, "email"));
+        socio.setFechaNacimiento(fecha(json, "fechaNacimiento"));
+        socio.setFotoHash(texto(json, "fotoHash"));
+        socio.setTitularidad(texto(json, "titularidad"));
+        socio.setDentroInstalacion(json.getBoolean("dentroInstalacion"));
+        socio.setFechaAlta(fecha(json, "fechaAlta"));
+        socio.setVersion(json.getInt("version"));
+        return socio;
+    }
+
+    static String eventosAJson(List<Evento> eventos) throws JSONException {
+        JSONArray array = new JSONArray();
+        for (Evento evento : eventos) {
+            JSONObject json = new JSONObject();
+            json.put("idEvento", evento.getIdEvento());
+            json.put("nombre", evento.getNombre());
+            json.put("fecha", fechaAJson(evento.getFecha()));
+            json.put("imagenTamanio", evento.getImagenTamanio());
+            json.put("imagenHash", evento.getImagenHash());
+            array.put(json);
+        }
+        return array.toString();
+    }
+
+    static List<Evento> eventosDesdeJson(String datos) throws JSONException {
+        JSONArray array = new JSONArray(datos);
+        List<Evento> eventos = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject json = array.getJSONObject(i);
+            Evento evento = new Evento();
+            evento.setIdEvento(json.getInt("idEvento"));
+            evento.setNombre(texto(json, "nombre"));
+            evento.setFecha(fecha(json, "fecha"));
+            evento.setImagenTamanio(json.getLong("imagenTamanio"));
+            evento.setImagenHash(texto(json, "imagenHash"));
+            eventos.add(evento);
+        }
+        return eventos;
+    }
+
+    static String instalacionesAJson(List<InstalacionResumen> instalaciones) throws JSONException {
+        JSONArray array = new JSONArray();
+        for (InstalacionResumen instalacion : instalaciones) {
+            JSONObject json = new JSONObject();
+            json.put("id", instalacion.getId());
+            json.put("tipo", instalacion.getTipo());
+            json.put("nombre", instalacion.getNombre());
+            json.put("duracion", instalacion.getDuracion());
+            json.put("horaIni", instalacion.getHoraIni());
+            json.put("horaFin", instalacion.getHoraFin());
+            json.put("disponibilidad", instalacion.isDisponibilidad());
+            array.put(json);
+        }
+        return array.toString();
+    }
+
+    static List<InstalacionResumen> instalacionesDesdeJson(String datos) throws JSONException {
+        JSONArray array = new JSONArray(datos);
+        List<InstalacionResumen> instalaciones = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject json = array.getJSONObject(i);
+            InstalacionResumen instalacion = new InstalacionResumen();
+            instalacion.setId(json.getInt("id"));
+            instalacion.setTipo(texto(json, "tipo"));
+            instalacion.setNombre(texto(json, "nombre"));
+            instalacion.setDuracion(json.getInt("duracion"));
+            instalacion.setHoraIni(texto(json, "horaIni"));
+            instalacion.setHoraFin(texto(json, "horaFin"));
+            instalacion.setDisponibilidad(json.getBoolean("disponibilidad"));
+            instalaciones.add(instalacion);
+        }
+        return instalaciones;
+    }
+
+    static String reservasAJson(List<Reserva> reservas) throws JSONException {
+        JSONArray array = new JSONArray();
+        for (Reserva reserva : reservas) {
+            JSONObject json = new JSONObject();
+            json.put("idReserva", reserva.getIdReserva());
+            json.put("fecha", fechaAJson(reserva.getFecha()));
+            json.put("hora", reserva.getHora());
+            json.put("idInstalacion", reserva.getIdInstalacion());
+            json.put("numeroSocio", reserva.getNumeroSocio());
+            json.put("idEmpleado", reserva.getIdEmpleado() != null ? reserva.getIdEmpleado() : JSONObject.NULL);
+            json.put("nombreInstalacion", reserva.getNombreInstalacion());
+            array.put(json);
+        }
+        return array.toString();
+    }
+
+    static List<Reserva> reservasDesdeJson(String datos) throws JSONException {
+        JSONArray array = new JSONArray(datos);
+        List<Reserva> reservas = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject json = array.getJSONObject(i);
+            Reserva reserva = new Reserva();
+            reserva.setIdReserva(json.getInt("idReserva"));
+            reserva.setFecha(fecha(json, "fecha"));
+            reserva.setHora(texto(json, "hora"));
+            reserva.setIdInstalacion(json.getInt("idInstalacion"));
+            reserva.setNumeroSocio(texto(json, "numeroSocio"));
+            reserva.setIdEmpleado(json.isNull("idEmpleado") ? null : json.getInt("idEmpleado"));
+            reserva.setNombreInstalacion(texto(json, "nombreInstalacion"));
+            reservas.add(reserva);
+        }
+        return reservas;
+    }
+
+    private static Object fechaAJson(Date fecha) {
+        return fecha != null ? fecha.getTime() : JSONObject.NULL;
+    }
+
+    private static String texto(JSONObject json, String campo) throws JSONException {
+        return json.isNull(campo) ? null : json.getString(campo);
+    }
+
+    private static Date fecha(JSONObject json, String campo) throws JSONException {
+        return json.isNull(campo) ? null : new Date(json.getLong(campo));
+    }
+}
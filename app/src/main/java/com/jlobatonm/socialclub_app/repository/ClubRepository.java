@@ -0,0 +1,427 @@
+package com.jlobatonm.socialclub_app.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.jlobatonm.socialclub_app.database.CancellationToken;
+import com.jlobatonm.socialclub_app.database.DatabaseExecutor;
+import com.jlobatonm.socialclub_app.database.EventoDao;
+import com.jlobatonm.socialclub_app.database.InstalacionDao;
+import com.jlobatonm.socialclub_app.database.ReservaDao;
+import com.jlobatonm.socialclub_app.database.SocioDao;
+import com.jlobatonm.socialclub_app.model.CarnetToken;
+import com.jlobatonm.socialclub_app.model.Evento;
+import com.jlobatonm.socialclub_app.model.InstalacionResumen;
+import com.jlobatonm.socialclub_app.model.Reserva;
+import com.jlobatonm.socialclub_app.model.Socio;
+
+import org.json.JSONException;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Repositorio de los datos que muestran las pantallas principales (socio, eventos,
+ * instalaciones y reservas), situado por encima de los DAO.
+ * <p>
+ * Sigue la estrategia <i>stale-while-revalidate</i>: si hay datos guardados en el dispositivo
+ * se entregan de inmediato, y si han superado su tiempo de vida se consulta además el servidor
+ * y se entrega el resultado actualizado. Así la primera pintura no depende de la red.
+ * Si el servidor falla pero había datos en caché, el error no se notifica.
+ * </p>
+ * <p>
+ * Los callbacks se invocan en el hilo principal y dejan de invocarse cuando se cancela el token.
+ * </p>
+ */
+public class ClubRepository {
+
+    private static final String TAG = "ClubRepository";
+    private static final long MINUTO_MS = 60_000;
+
+    /**
+     * Tipos de datos guardados, con su tiempo de vida y la versión de su formato.
+     * Al cambiar el formato de un recurso basta con subir su versión para descartar lo guardado.
+     */
+    public enum Recurso {
+        SOCIO("socio", 4, 24 * 60 * MINUTO_MS),
+        EVENTOS("eventos", 1, 30 * MINUTO_MS),
+        INSTALACIONES("instalaciones", 1, 24 * 60 * MINUTO_MS),
+        RESERVAS("reservas", 2, 5 * MINUTO_MS),
+        CARNET("carnet", 1, 6 * 60 * MINUTO_MS);
+
+        private final String prefijo;
+        private final int version;
+        private final long ttlMs;
+
+        Recurso(String prefijo, int version, long ttlMs) {
+            this.prefijo = prefijo;
+            this.version = version;
+            this.ttlMs = ttlMs;
+        }
+
+        String clave(String id) {
+            return prefijo + ":" + id;
+        }
+    }
+
+    /**
+     * Interfaz de callback para recibir los datos del repositorio.
+     *
+     * @param <T> Tipo de los datos.
+     */
+    public interface Callback<T> {
+        /**
+         * Se invoca con los datos guardados en el dispositivo y, si estaban caducados o no
+         * existían, otra vez con los datos del servidor.
+         *
+         * @param datos      Datos obtenidos.
+         * @param desdeCache true si los datos proceden de la caché local.
+         */
+        void onResult(T datos, boolean desdeCache);
+
+        /**
+         * Se invoca cuando no hay datos en caché y la consulta al servidor falla.
+         *
+         * @param exception Excepción que contiene los detalles del error.
+         */
+        void onError(Exception exception);
+    }
+
+    /**
+     * Consulta al servidor adaptada a un único tipo de resultado.
+     */
+    private interface Remoto<T> {
+        void consultar(CancellationToken token, Callback<T> callback);
+    }
+
+    /**
+     * Conversión de los datos a texto para la caché.
+     */
+    private interface Codificador<T> {
+        String codificar(T datos) throws JSONException;
+    }
+
+    /**
+     * Conversión del texto de la caché a los datos.
+     */
+    private interface Decodificador<T> {
+        T decodificar(String datos) throws JSONException;
+    }
+
+    private static ClubRepository instance;
+
+    private final LocalCache localCache;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private Socio socioAutenticado;
+
+    /**
+     * Constructor privado para prevenir la instanciación directa.
+     * Este constructor es parte del patrón Singleton.
+     */
+    private ClubRepository(Context context) {
+        localCache = new LocalCache(context);
+    }
+
+    /**
+     * Obtiene la instancia única del repositorio.
+     *
+     * @param context Cualquier contexto de la aplicación.
+     * @return La instancia única de ClubRepository.
+     */
+    public static synchronized ClubRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new ClubRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Obtiene los datos de un socio por su email, pudiendo forzar la consulta al servidor
+     * aunque los datos guardados no hayan caducado. Los datos guardados no incluyen la
+     * contraseña cifrada; la entrega del servidor sí.
+     *
+     * @param email    Email del socio.
+     * @param token    Token de cancelación de la petición.
+     * @param forzar   true para consultar siempre al servidor después de entregar lo guardado.
+     * @param callback Callback que recibe el socio, o null si no existe.
+     */
+    public void getSocio(String email, CancellationToken token, boolean forzar, Callback<Socio> callback) {
+        obtener(Recurso.SOCIO, email, token, forzar, CacheCodec::socioAJson, CacheCodec::socioDesdeJson,
+                (t, cb) -> new SocioDao(t).getSocioByEmail(email, new SocioDao.GetSocioCallback() {
+                    @Override
+                    public void onResult(Socio socio) {
+                        cb.onResult(socio, false);
+                    }
+
+                    @Override
+                    public void onError(Exception exception) {
+                        cb.onError(exception);
+                    }
+                }), callback);
+    }
+
+    /**
+     * Recibe el socio que acaba de iniciar sesión, ya leído del servidor junto con su contraseña
+     * cifrada, para que la primera carga de la sesión lo use sin otra consulta. También se guarda
+     * en el dispositivo como si viniera de {@link #getSocio}. Debe llamarse desde el hilo principal.
+     *
+     * @param socio Socio autenticado.
+     */
+    public void setSocioAutenticado(Socio socio) {
+        socioAutenticado = socio;
+        String clave = Recurso.SOCIO.clave(socio.getEmail());
+        long ahora = System.currentTimeMillis();
+        diskExecutor.execute(() -> {
+            try {
+                localCache.guardar(clave, Recurso.SOCIO.version, ahora, CacheCodec.socioAJson(socio));
+            } catch (Exception e) {
+                Log.w(TAG, "No se pudo guardar en caché: " + clave, e);
+            }
+        });
+    }
+
+    /**
+     * Entrega una sola vez el socio recibido en el inicio de sesión, si corresponde al email
+     * (sin distinguir mayúsculas, como el inicio de sesión).
+     * Debe llamarse desde el hilo principal.
+     *
+     * @param email Email del socio de la sesión.
+     * @return El socio autenticado, o null si no hay ninguno pendiente para ese email.
+     */
+    public Socio tomarSocioAutenticado(String email) {
+        Socio socio = socioAutenticado;
+        socioAutenticado = null;
+        return socio != null && email.equalsIgnoreCase(socio.getEmail()) ? socio : null;
+    }
+
+    /**
+     * Obtiene el carnet digital firmado de un socio. Se guarda en el dispositivo para que
+     * el carnet pueda mostrarse sin conexión; quien lo use debe comprobar que sigue vigente.
+     *
+     * @param numeroSocio Número del socio.
+     * @param token       Token de cancelación de la petición.
+     * @param callback    Callback que recibe el carnet, o null si el socio no tiene ninguno vigente.
+     */
+    public void getCarnet(String numeroSocio, CancellationToken token, Callback<CarnetToken> callback) {
+        obtener(Recurso.CARNET, numeroSocio, token, false, CarnetToken::getToken, CarnetToken::parse,
+                (t, cb) -> new SocioDao(t).getCarnetToken(numeroSocio, new SocioDao.GetCarnetTokenCallback() {
+                    @Override
+                    public void onResult(String carnet) {
+                        CarnetToken datos = null;
+                        if (carnet != null) {
+                            try {
+                                datos = CarnetToken.parse(carnet);
+                            } catch (IllegalArgumentException e) {
+                                Log.w(TAG, "Carnet con formato no válido: " + e.getMessage());
+                            }
+                        }
+                        cb.onResult(datos, false);
+                    }
+
+                    @Override
+                    public void onError(Exception exception) {
+                        cb.onError(exception);
+                    }
+                }), callback);
+    }
+
+    /**
+     * Obtiene los metadatos de los próximos eventos.
+     *
+     * @param token    Token de cancelación de la petición.
+     * @param callback Callback que recibe la lista de eventos.
+     */
+    public void getEventosProximos(CancellationToken token, Callback<List<Evento>> callback) {
+        obtener(Recurso.EVENTOS, "proximos", token, false, CacheCodec::eventosAJson, CacheCodec::eventosDesdeJson,
+                (t, cb) -> new EventoDao(t).getEventosProximos(new EventoDao.GetAllEventosCallback() {
+                    @Override
+                    public void onResult(List<Evento> eventos) {
+                        cb.onResult(eventos, false);
+                    }
+
+                    @Override
+                    public void onError(Exception exception) {
+                        cb.onError(exception);
+                    }
+                }), callback);
+    }
+
+    /**
+     * Obtiene la lista resumida de instalaciones.
+     *
+     * @param token    Token de cancelación de la petición.
+     * @param callback Callback que recibe la lista de instalaciones.
+     */
+    public void getResumenInstalaciones(CancellationToken token, Callback<List<InstalacionResumen>> callback) {
+        obtener(Recurso.INSTALACIONES, "resumen", token, false, CacheCodec::instalacionesAJson, CacheCodec::instalacionesDesdeJson,
+                (t, cb) -> new InstalacionDao(t).getResumenInstalaciones(new InstalacionDao.GetResumenInstalacionesCallback() {
+                    @Override
+                    public void onResult(List<InstalacionResumen> instalaciones) {
+                        cb.onResult(instalaciones, false);
+                    }
+
+                    @Override
+                    public void onError(Exception exception) {
+                        cb.onError(exception);
+                    }
+                }), callback);
+    }
+
+    /**
+     * Obtiene las reservas pendientes de un socio con el nombre de su instalación.
+     *
+     * @param numeroSocio Número del socio.
+     * @param token       Token de cancelación de la petición.
+     * @param callback    Callback que recibe la lista de reservas.
+     */
+    public void getReservasSocio(String numeroSocio, CancellationToken token, Callback<List<Reserva>> callback) {
+        obtener(Recurso.RESERVAS, numeroSocio, token, false, CacheCodec::reservasAJson, CacheCodec::reservasDesdeJson,
+                (t, cb) -> new ReservaDao(t).getReservasProximas(numeroSocio, new ReservaDao.GetReservasBySocioCallback() {
+                    @Override
+                    public void onSuccess(List<Reserva> reservas) {
+                        cb.onResult(reservas, false);
+                    }
+
+                    @Override
+                    public void onError(Exception exception) {
+                        cb.onError(exception);
+                    }
+                }), callback);
+    }
+
+    /**
+     * Consulta en segundo plano las próximas reservas de un socio y sustituye las guardadas en
+     * el dispositivo, para que la pantalla de reservas se abra ya actualizada.
+     * <p>
+     * A diferencia de {@link #getReservasSocio}, no entrega lo guardado y siempre llama una sola
+     * vez al callback, también si falla la consulta.
+     * </p>
+     *
+     * @param numeroSocio Número de socio.
+     * @param token       Token para cancelar la consulta.
+     * @param callback    Callback que recibe true si las reservas han cambiado respecto a las guardadas.
+     */
+    public void refrescarReservasSocio(String numeroSocio, CancellationToken token, Callback<Boolean> callback) {
+        String clave = Recurso.RESERVAS.clave(numeroSocio);
+        new ReservaDao(token, DatabaseExecutor.Priority.BACKGROUND).getReservasProximas(numeroSocio,
+                new ReservaDao.GetReservasBySocioCallback() {
+                    @Override
+                    public void onSuccess(List<Reserva> reservas) {
+                        long ahora = System.currentTimeMillis();
+                        diskExecutor.execute(() -> {
+                            boolean cambios = false;
+                            try {
+                                String datos = CacheCodec.reservasAJson(reservas);
+                                LocalCache.Entrada entrada = localCache.leer(clave, Recurso.RESERVAS.version);
+                                cambios = entrada != null && !datos.equals(entrada.datos);
+                                localCache.guardar(clave, Recurso.RESERVAS.version, ahora, datos);
+                            } catch (Exception e) {
+                                Log.w(TAG, "No se pudo guardar en caché: " + clave, e);
+                            }
+                            boolean huboCambios = cambios;
+                            mainHandler.post(() -> {
+                                if (!token.isCancelled()) {
+                                    callback.onResult(huboCambios, false);
+                                }
+                            });
+                        });
+                    }
+
+                    @Override
+                    public void onError(Exception exception) {
+                        callback.onError(exception);
+                    }
+                });
+    }
+
+    /**
+     * Descarta los datos guardados de un tipo, por ejemplo tras crear o cancelar una reserva,
+     * para que la siguiente lectura vaya al servidor.
+     *
+     * @param recurso Tipo de datos a descartar.
+     */
+    public void invalidar(Recurso recurso) {
+        diskExecutor.execute(() -> localCache.borrar(recurso.prefijo + ":"));
+    }
+
+    /**
+     * Borra todos los datos guardados en el dispositivo. Se usa al cerrar sesión.
+     */
+    public void limpiar() {
+        socioAutenticado = null;
+        diskExecutor.execute(localCache::vaciar);
+    }
+
+    /**
+     * Lee la caché en el hilo de disco, entrega lo guardado y, si falta o está caducado,
+     * consulta el servidor y guarda el resultado.
+     */
+    private <T> void obtener(Recurso recurso, String id, CancellationToken token, boolean forzar,
+                             Codificador<T> codificador, Decodificador<T> decodificador,
+                             Remoto<T> remoto, Callback<T> callback) {
+        String clave = recurso.clave(id);
+        diskExecutor.execute(() -> {
+            T enCache = null;
+            boolean fresco = false;
+            try {
+                LocalCache.Entrada entrada = localCache.leer(clave, recurso.version);
+                if (entrada != null) {
+                    enCache = decodificador.decodificar(entrada.datos);
+                    fresco = System.currentTimeMillis() - entrada.guardadoEn < recurso.ttlMs;
+                }
+            } catch (Exception e) {
+                Log.w(TAG, "Entrada de caché ilegible: " + clave, e);
+            }
+
+            final T datosCache = enCache;
+            final boolean revalidar = forzar || !fresco;
+            mainHandler.post(() -> {
+                if (token.isCancelled()) {
+                    return;
+                }
+                if (datosCache != null) {
+                    callback.onResult(datosCache, true);
+                }
+                if (revalidar) {
+                    revalidar(recurso, clave, token, codificador, remoto, callback, datosCache != null);
+                }
+            });
+        });
+    }
+
+    private <T> void revalidar(Recurso recurso, String clave, CancellationToken token,
+                               Codificador<T> codificador, Remoto<T> remoto, Callback<T> callback,
+                               boolean habiaCache) {
+        remoto.consultar(token, new Callback<T>() {
+            @Override
+            public void onResult(T datos, boolean desdeCache) {
+                callback.onResult(datos, false);
+                long ahora = System.currentTimeMillis();
+                diskExecutor.execute(() -> {
+                    try {
+                        if (datos == null) {
+                            localCache.borrarClave(clave);
+                        } else {
+                            localCache.guardar(clave, recurso.version, ahora, codificador.codificar(datos));
+                        }
+                    } catch (Exception e) {
+                        Log.w(TAG, "No se pudo guardar en caché: " + clave, e);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                if (habiaCache) {
+                    Log.w(TAG, "Se mantienen los datos en caché de " + clave + ": " + exception.getMessage());
+                } else {
+                    callback.onError(exception);
+                }
+            }
+        });
+    }
+}
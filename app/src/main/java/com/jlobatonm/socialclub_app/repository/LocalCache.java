@@ -0,0 +1,126 @@
+package com.jlobatonm.socialclub_app.repository;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import androidx.annotation.WorkerThread;
+
+/**
+ * Almacén local en SQLite de las respuestas del servidor, guardadas como texto JSON por clave.
+ * <p>
+ * Cada entrada guarda la versión del formato con el que se escribió y el instante en que se
+ * guardó, para que {@link ClubRepository} decida si la puede servir y si está caducada.
+ * Al ser sólo una caché, un cambio de esquema simplemente la vacía.
+ * </p>
+ * <p>
+ * Todos los métodos acceden a disco y deben llamarse fuera del hilo principal.
+ * </p>
+ */
+class LocalCache extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "club_cache.db";
+    private static final int DATABASE_VERSION = 1;
+    private static final String TABLA = "cache";
+
+    /**
+     * Entrada leída de la caché.
+     */
+    static final class Entrada {
+        final String datos;
+        final long guardadoEn;
+
+        Entrada(String datos, long guardadoEn) {
+            this.datos = datos;
+            this.guardadoEn = guardadoEn;
+        }
+    }
+
+    LocalCache(Context context) {
+        super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLA + " (" +
+                "clave TEXT PRIMARY KEY, " +
+                "version INTEGER NOT NULL, " +
+                "guardado_en INTEGER NOT NULL, " +
+                "datos TEXT NOT NULL)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLA);
+        onCreate(db);
+    }
+
+    /**
+     * Lee una entrada de la caché.
+     *
+     * @param clave   Clave de la entrada.
+     * @param version Versión del formato esperada.
+     * @return La entrada, o null si no existe o se escribió con otra versión del formato.
+     */
+    @WorkerThread
+    Entrada leer(String clave, int version) {
+        try (Cursor cursor = getReadableDatabase().query(TABLA,
+                new String[]{"datos", "guardado_en"},
+                "clave = ? AND version = ?",
+                new String[]{clave, String.valueOf(version)},
+                null, null, null)) {
+            if (cursor.moveToFirst()) {
+                return new Entrada(cursor.getString(0), cursor.getLong(1));
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Guarda o sustituye una entrada de la caché.
+     *
+     * @param clave      Clave de la entrada.
+     * @param version    Versión del formato de los datos.
+     * @param guardadoEn Instante de la escritura, en milisegundos.
+     * @param datos      Datos serializados.
+     */
+    @WorkerThread
+    void guardar(String clave, int version, long guardadoEn, String datos) {
+        ContentValues values = new ContentValues();
+        values.put("clave", clave);
+        values.put("version", version);
+        values.put("guardado_en", guardadoEn);
+        values.put("datos", datos);
+        getWritableDatabase().insertWithOnConflict(TABLA, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    /**
+     * Borra una entrada de la caché.
+     *
+     * @param clave Clave de la entrada.
+     */
+    @WorkerThread
+    void borrarClave(String clave) {
+        getWritableDatabase().delete(TABLA, "clave = ?", new String[]{clave});
+    }
+
+    /**
+     * Borra todas las entradas cuya clave empieza por el prefijo indicado.
+     *
+     * @param prefijo Prefijo de las claves a borrar.
+     */
+    @WorkerThread
+    void borrar(String prefijo) {
+        getWritableDatabase().delete(TABLA, "clave LIKE ?", new String[]{prefijo + "%"});
+    }
+
+    /**
+     * Borra todas las entradas de la caché.
+     */
+    @WorkerThread
+    void vaciar() {
+        getWritableDatabase().delete(TABLA, null, null);
+    }
+}
@@ -0,0 +1,20 @@
+package com.jlobatonm.socialclub_app.services;
+
+/**
+ * Fuente de la hora actual usada por la sincronización.
+ * Permite sustituir el reloj del sistema por uno simulado al probar la política de planificación.
+ */
+public interface Clock {
+
+    /**
+     * Reloj del sistema.
+     */
+    Clock SYSTEM = System::currentTimeMillis;
+
+    /**
+     * Obtiene la hora actual.
+     *
+     * @return Milisegundos desde el epoch.
+     */
+    long currentTimeMillis();
+}
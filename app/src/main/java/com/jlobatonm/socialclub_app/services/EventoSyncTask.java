@@ -0,0 +1,190 @@
+package com.jlobatonm.socialclub_app.services;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Log;
+
+import androidx.core.app.NotificationCompat;
+
+import com.jlobatonm.socialclub_app.R;
+import com.jlobatonm.socialclub_app.database.CancellationToken;
+import com.jlobatonm.socialclub_app.database.DatabaseExecutor;
+import com.jlobatonm.socialclub_app.database.EventoDao;
+import com.jlobatonm.socialclub_app.model.Evento;
+import com.jlobatonm.socialclub_app.ui.MainActivity;
+
+import java.util.List;
+
+/**
+ * Tarea de sincronización que detecta nuevos eventos del club y muestra una notificación por cada uno.
+ * <p>
+ * La sincronización es incremental: se guarda en SharedPreferences el último
+ * {@code idevento} procesado y sólo se piden los metadatos de los eventos posteriores.
+ * </p>
+ */
+public class EventoSyncTask implements SyncTask {
+
+    private static final String TAG = "EventoSyncTask";
+    private static final String CHANNEL_ID = "EventosChannel";
+    private static final String PREFS_NAME = "evento_sync";
+    private static final String KEY_ULTIMO_ID = "ultimo_id_evento";
+
+    @Override
+    public String getNombre() {
+        return "eventos";
+    }
+
+    /**
+     * Consulta los eventos posteriores al último procesado y muestra una notificación
+     * por cada uno. La marca se guarda antes de notificar, de modo que un reinicio del
+     * proceso no repite notificaciones. La tarea termina cuando se han mostrado todas.
+     * <p>
+     * En la primera ejecución no se notifica nada: sólo se toma como marca el evento más
+     * reciente, para no avisar de todo el histórico.
+     * </p>
+     */
+    @Override
+    public void sincronizar(Context context, CancellationToken cancellationToken, Resultado resultado) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        EventoDao eventoDao = new EventoDao(cancellationToken, DatabaseExecutor.Priority.BACKGROUND);
+
+        if (!prefs.contains(KEY_ULTIMO_ID)) {
+            eventoDao.getUltimoIdEvento(new EventoDao.GetUltimoIdEventoCallback() {
+                @Override
+                public void onResult(int ultimoIdEvento) {
+                    prefs.edit().putInt(KEY_ULTIMO_ID, ultimoIdEvento).apply();
+                    resultado.onTerminado(false);
+                }
+
+                @Override
+                public void onError(Exception exception) {
+                    resultado.onError(exception);
+                }
+            });
+            return;
+        }
+
+        int ultimoId = prefs.getInt(KEY_ULTIMO_ID, 0);
+        eventoDao.getEventosNuevos(ultimoId, new EventoDao.GetAllEventosCallback() {
+            @Override
+            public void onResult(List<Evento> eventos) {
+                if (eventos.isEmpty()) {
+                    resultado.onTerminado(false);
+                    return;
+                }
+
+                int nuevoUltimoId = ultimoId;
+                for (Evento evento : eventos) {
+                    nuevoUltimoId = Math.max(nuevoUltimoId, evento.getIdEvento());
+                }
+                prefs.edit().putInt(KEY_ULTIMO_ID, nuevoUltimoId).apply();
+
+                createNotificationChannel(context);
+                int[] pendientes = {eventos.size()};
+                for (Evento evento : eventos) {
+                    notificarEvento(context, eventoDao, evento, () -> {
+                        if (--pendientes[0] == 0) {
+                            resultado.onTerminado(true);
+                        }
+                    });
+                }
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                resultado.onError(exception);
+            }
+        });
+    }
+
+    /**
+     * Descarga la imagen de un evento nuevo y muestra su notificación.
+     * Si la imagen no se puede obtener, la notificación se muestra sin ella.
+     *
+     * @param context      Contexto de la aplicación
+     * @param eventoDao    DAO con el que se descarga la imagen
+     * @param evento       Evento a notificar
+     * @param alNotificar  Acción a ejecutar una vez mostrada la notificación
+     */
+    private void notificarEvento(Context context, EventoDao eventoDao, Evento evento, Runnable alNotificar) {
+        String mensaje = "Fecha: " + evento.getFecha();
+        eventoDao.getImagenEvento(evento, new EventoDao.GetImagenEventoCallback() {
+            @Override
+            public void onResult(byte[] imagen) {
+                mostrarNotificacion(context, evento.getIdEvento(), evento.getNombre(), mensaje, imagen);
+                alNotificar.run();
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                Log.e(TAG, "Error al obtener la imagen del evento: ", exception);
+                mostrarNotificacion(context, evento.getIdEvento(), evento.getNombre(), mensaje, null);
+                alNotificar.run();
+            }
+        });
+    }
+
+    /**
+     * Construye y muestra una notificación con la información del evento.
+     *
+     * @param context  Contexto de la aplicación
+     * @param idEvento Identificador del evento, usado como identificador de la notificación
+     * @param titulo   El título que se mostrará en la notificación
+     * @param mensaje  El contenido textual de la notificación
+     * @param imagen   Los bytes de la imagen que se mostrará en la notificación expandida,
+     *                 puede ser null si no hay imagen disponible
+     */
+    private void mostrarNotificacion(Context context, int idEvento, String titulo, String mensaje, byte[] imagen) {
+        Intent intent = new Intent(context, MainActivity.class);
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+                context,
+                0,
+                intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_stat_name)
+                .setContentTitle(titulo)
+                .setContentText(mensaje)
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setContentIntent(pendingIntent)
+                .setAutoCancel(true)
+                .setSubText(context.getString(R.string.app_name));
+
+        if (imagen != null) {
+            try {
+                Bitmap bitmap = BitmapFactory.decodeByteArray(imagen, 0, imagen.length);
+                builder.setStyle(new NotificationCompat.BigPictureStyle().bigPicture(bitmap).bigLargeIcon((Bitmap) null));
+            } catch (Exception e) {
+                Log.e(TAG, "Error al decodificar la imagen: ", e);
+            }
+        }
+
+        NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        notificationManager.notify(idEvento, builder.build());
+    }
+
+    /**
+     * Crea el canal de notificaciones requerido para Android 8.0 (API 26) y superior.
+     * Este canal se utiliza para todas las notificaciones de eventos del club.
+     *
+     * @param context Contexto de la aplicación
+     */
+    private void createNotificationChannel(Context context) {
+        CharSequence name = "Eventos Channel";
+        String description = "Canal para notificaciones de nuevos eventos";
+        int importance = NotificationManager.IMPORTANCE_HIGH;
+        NotificationChannel channel = new NotificationChannel(CHANNEL_ID, name, importance);
+        channel.setDescription(description);
+
+        NotificationManager notificationManager = context.getSystemService(NotificationManager.class);
+        notificationManager.createNotificationChannel(channel);
+    }
+}
@@ -0,0 +1,63 @@
+package com.jlobatonm.socialclub_app.services;
+
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.content.ComponentName;
+import android.content.Context;
+import android.util.Log;
+
+/**
+ * Implementación de {@link SyncScheduler} basada en {@link JobScheduler}.
+ * El sistema decide el momento exacto de la ejecución respetando las restricciones,
+ * por lo que la aplicación no necesita mantener un servicio ni un temporizador activos.
+ */
+public class JobSyncScheduler implements SyncScheduler {
+
+    private static final String TAG = "JobSyncScheduler";
+    private static final int JOB_ID = 1001;
+
+    private final Context context;
+
+    /**
+     * Crea el planificador.
+     *
+     * @param context Contexto de la aplicación.
+     */
+    public JobSyncScheduler(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    @Override
+    public void programar(long retrasoMs, SyncConstraints restricciones) {
+        JobInfo job = new JobInfo.Builder(JOB_ID, new ComponentName(context, SyncJobService.class))
+                .setMinimumLatency(retrasoMs)
+                .setRequiredNetworkType(restricciones.isRedNoMedida()
+                        ? JobInfo.NETWORK_TYPE_UNMETERED
+                        : JobInfo.NETWORK_TYPE_ANY)
+                .setRequiresCharging(restricciones.isCargando())
+                .setRequiresBatteryNotLow(restricciones.isBateriaNoBaja())
+                .setPersisted(true)
+                .build();
+
+        int resultado = getJobScheduler().schedule(job);
+        if (resultado == JobScheduler.RESULT_SUCCESS) {
+            Log.d(TAG, "Sincronización programada dentro de " + retrasoMs / 1000 + " s");
+        } else {
+            Log.e(TAG, "No se pudo programar la sincronización");
+        }
+    }
+
+    @Override
+    public boolean estaProgramado() {
+        return getJobScheduler().getPendingJob(JOB_ID) != null;
+    }
+
+    @Override
+    public void cancelar() {
+        getJobScheduler().cancel(JOB_ID);
+    }
+
+    private JobScheduler getJobScheduler() {
+        return context.getSystemService(JobScheduler.class);
+    }
+}
@@ -0,0 +1,52 @@
+package com.jlobatonm.socialclub_app.services;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.jlobatonm.socialclub_app.database.CancellationToken;
+import com.jlobatonm.socialclub_app.repository.ClubRepository;
+
+/**
+ * Tarea de sincronización que actualiza las próximas reservas del socio guardadas en el dispositivo.
+ * <p>
+ * Se ejecuta en el mismo despertar que {@link EventoSyncTask}, de modo que el servidor se
+ * consulta una sola vez por ciclo para eventos y reservas.
+ * </p>
+ */
+public class ReservaSyncTask implements SyncTask {
+
+    private static final String PREFS_NAME = "user_prefs";
+    private static final String KEY_NUMERO_SOCIO = "numero_socio";
+
+    @Override
+    public String getNombre() {
+        return "reservas";
+    }
+
+    /**
+     * Consulta las próximas reservas del socio con sesión iniciada y sustituye las guardadas.
+     * Si no hay sesión, termina sin consultar el servidor.
+     */
+    @Override
+    public void sincronizar(Context context, CancellationToken cancellationToken, Resultado resultado) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String numeroSocio = prefs.getString(KEY_NUMERO_SOCIO, null);
+        if (numeroSocio == null || numeroSocio.isEmpty()) {
+            resultado.onTerminado(false);
+            return;
+        }
+
+        ClubRepository.getInstance(context).refrescarReservasSocio(numeroSocio, cancellationToken,
+                new ClubRepository.Callback<Boolean>() {
+                    @Override
+                    public void onResult(Boolean cambios, boolean desdeCache) {
+                        resultado.onTerminado(cambios);
+                    }
+
+                    @Override
+                    public void onError(Exception exception) {
+                        resultado.onError(exception);
+                    }
+                });
+    }
+}
@@ -0,0 +1,45 @@
+package com.jlobatonm.socialclub_app.services;
+
+/**
+ * Condiciones que debe cumplir el dispositivo para que se ejecute una sincronización.
+ */
+public final class SyncConstraints {
+
+    /**
+     * Restricciones por defecto: red no medida (la base de datos está en la red local del club)
+     * y batería no baja. No se exige que el dispositivo esté cargando.
+     */
+    public static final SyncConstraints POR_DEFECTO = new SyncConstraints(true, false, true);
+
+    private final boolean redNoMedida;
+    private final boolean cargando;
+    private final boolean bateriaNoBaja;
+
+    /**
+     * Crea un conjunto de restricciones.
+     *
+     * @param redNoMedida   true si se exige una red no medida (por ejemplo, Wi-Fi).
+     * @param cargando      true si se exige que el dispositivo esté cargando.
+     * @param bateriaNoBaja true si se exige que la batería no esté baja.
+     */
+    public SyncConstraints(boolean redNoMedida, boolean cargando, boolean bateriaNoBaja) {
+        this.redNoMedida = redNoMedida;
+        this.cargando = cargando;
+        this.bateriaNoBaja = bateriaNoBaja;
+    }
+
+    /** @return true si se exige una red no medida. */
+    public boolean isRedNoMedida() {
+        return redNoMedida;
+    }
+
+    /** @return true si se exige que el dispositivo esté cargando. */
+    public boolean isCargando() {
+        return cargando;
+    }
+
+    /** @return true si se exige que la batería no esté baja. */
+    public boolean isBateriaNoBaja() {
+        return bateriaNoBaja;
+    }
+}
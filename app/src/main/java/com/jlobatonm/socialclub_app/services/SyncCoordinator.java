@@ -0,0 +1,219 @@
+package com.jlobatonm.socialclub_app.services;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+
+import com.jlobatonm.socialclub_app.database.CancellationToken;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coordina las sincronizaciones en segundo plano de la aplicación.
+ * <p>
+ * Todas las {@link SyncTask} registradas se ejecutan juntas en un único despertar, y las
+ * peticiones que llegan mientras hay una sincronización en curso (o justo después de una)
+ * se agrupan con ella en lugar de lanzar otra. Al terminar, se programa la siguiente
+ * ejecución con el retraso que indique la {@link SyncPolicy} según si hubo cambios.
+ * </p>
+ * <p>
+ * Todos los métodos se llaman desde el hilo principal.
+ * </p>
+ */
+public class SyncCoordinator {
+
+    private static final String TAG = "SyncCoordinator";
+    private static final String PREFS_NAME = "sync_state";
+    private static final String KEY_ULTIMA_EJECUCION = "ultima_ejecucion";
+    private static final String KEY_SIN_CAMBIOS = "ejecuciones_sin_cambios";
+
+    private static SyncCoordinator instance;
+
+    private final Context context;
+    private final SharedPreferences prefs;
+    private final SyncScheduler scheduler;
+    private final SyncPolicy policy;
+    private final Clock clock;
+    private final SyncConstraints restricciones;
+    private final List<SyncTask> tareas = new ArrayList<>();
+    private final List<Runnable> alTerminar = new ArrayList<>();
+    private CancellationToken ejecucionActual;
+
+    /**
+     * Crea un coordinador con las dependencias indicadas.
+     *
+     * @param context       Contexto de la aplicación, que se pasa a las tareas.
+     * @param prefs         Preferencias donde se guarda el estado entre ejecuciones.
+     * @param scheduler     Mecanismo que despierta a la aplicación.
+     * @param policy        Política que calcula el retraso entre ejecuciones.
+     * @param clock         Reloj usado para agrupar peticiones cercanas.
+     * @param restricciones Condiciones que debe cumplir el dispositivo.
+     */
+    SyncCoordinator(Context context, SharedPreferences prefs, SyncScheduler scheduler, SyncPolicy policy,
+                    Clock clock, SyncConstraints restricciones) {
+        this.context = context;
+        this.prefs = prefs;
+        this.scheduler = scheduler;
+        this.policy = policy;
+        this.clock = clock;
+        this.restricciones = restricciones;
+    }
+
+    /**
+     * Obtiene la instancia única del coordinador, con las tareas de sincronización de la aplicación registradas.
+     *
+     * @param context Cualquier contexto de la aplicación.
+     * @return La instancia compartida de SyncCoordinator.
+     */
+    public static synchronized SyncCoordinator getInstance(Context context) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            instance = new SyncCoordinator(appContext,
+                    appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE),
+                    new JobSyncScheduler(appContext), SyncPolicy.porDefecto(), Clock.SYSTEM,
+                    SyncConstraints.POR_DEFECTO);
+            instance.registrar(new EventoSyncTask());
+            instance.registrar(new ReservaSyncTask());
+        }
+        return instance;
+    }
+
+    /**
+     * Registra una tarea para que se ejecute en cada sincronización.
+     *
+     * @param tarea Tarea a registrar.
+     */
+    @MainThread
+    public void registrar(SyncTask tarea) {
+        tareas.add(tarea);
+    }
+
+    /**
+     * Asegura que haya una sincronización programada. Si nunca se ha sincronizado o la última
+     * sincronización es antigua, se programa para cuanto antes; si no, tras el intervalo mínimo.
+     */
+    @MainThread
+    public void iniciar() {
+        if (ejecucionActual != null || scheduler.estaProgramado()) {
+            return;
+        }
+        long ultima = prefs.getLong(KEY_ULTIMA_EJECUCION, 0);
+        long retraso = policy.esReciente(clock, ultima) ? policy.getIntervaloMinimoMs() : 0;
+        scheduler.programar(retraso, restricciones);
+    }
+
+    /**
+     * Ejecuta todas las tareas registradas. Si ya hay una sincronización en curso, la petición
+     * se agrupa con ella; si la última terminó hace muy poco, no se vuelve a consultar el servidor.
+     *
+     * @param onTerminado Acción a ejecutar cuando termine la sincronización.
+     */
+    @MainThread
+    public void sincronizar(Runnable onTerminado) {
+        alTerminar.add(onTerminado);
+
+        if (ejecucionActual != null) {
+            Log.d(TAG, "Sincronización ya en curso, se agrupa la petición");
+            return;
+        }
+
+        int sinCambios = prefs.getInt(KEY_SIN_CAMBIOS, 0);
+        if (policy.esReciente(clock, prefs.getLong(KEY_ULTIMA_EJECUCION, 0))) {
+            Log.d(TAG, "Sincronización reciente, se omite esta ejecución");
+            notificarFin();
+            scheduler.programar(policy.siguienteRetraso(sinCambios), restricciones);
+            return;
+        }
+
+        CancellationToken token = new CancellationToken();
+        ejecucionActual = token;
+
+        if (tareas.isEmpty()) {
+            terminar(token, false);
+            return;
+        }
+
+        int[] pendientes = {tareas.size()};
+        boolean[] huboCambios = {false};
+        for (SyncTask tarea : tareas) {
+            tarea.sincronizar(context, token, new SyncTask.Resultado() {
+                @Override
+                public void onTerminado(boolean cambios) {
+                    Log.d(TAG, tarea.getNombre() + " terminada, cambios: " + cambios);
+                    huboCambios[0] |= cambios;
+                    if (--pendientes[0] == 0) {
+                        terminar(token, huboCambios[0]);
+                    }
+                }
+
+                @Override
+                public void onError(Exception exception) {
+                    Log.e(TAG, "Error en " + tarea.getNombre() + ": " + exception.getMessage(), exception);
+                    if (--pendientes[0] == 0) {
+                        terminar(token, huboCambios[0]);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Detiene la sincronización en curso, por ejemplo porque el sistema ha retirado la red.
+     *
+     * @return true si había una sincronización en curso.
+     */
+    @MainThread
+    public boolean detener() {
+        if (ejecucionActual == null) {
+            return false;
+        }
+        ejecucionActual.cancel();
+        ejecucionActual = null;
+        alTerminar.clear();
+        return true;
+    }
+
+    /**
+     * Detiene la sincronización en curso, anula la programada y olvida el estado guardado.
+     * Se usa al cerrar sesión, para que la aplicación no siga despertándose ni avisando de
+     * eventos en un dispositivo sin sesión. La siguiente llamada a {@link #iniciar()} la vuelve a programar.
+     */
+    @MainThread
+    public void cancelar() {
+        detener();
+        scheduler.cancelar();
+        prefs.edit().clear().apply();
+    }
+
+    /**
+     * Cierra una ejecución: actualiza el contador de ejecuciones sin cambios (los errores
+     * cuentan como ejecuciones sin cambios), avisa a los interesados y programa la siguiente.
+     */
+    private void terminar(CancellationToken token, boolean huboCambios) {
+        if (token != ejecucionActual) {
+            return;
+        }
+        ejecucionActual = null;
+
+        int sinCambios = huboCambios ? 0 : prefs.getInt(KEY_SIN_CAMBIOS, 0) + 1;
+        prefs.edit()
+                .putLong(KEY_ULTIMA_EJECUCION, clock.currentTimeMillis())
+                .putInt(KEY_SIN_CAMBIOS, sinCambios)
+                .apply();
+
+        // Primero se libera el trabajo actual y después se programa el siguiente con el mismo ID
+        notificarFin();
+        scheduler.programar(policy.siguienteRetraso(sinCambios), restricciones);
+    }
+
+    private void notificarFin() {
+        List<Runnable> pendientes = new ArrayList<>(alTerminar);
+        alTerminar.clear();
+        for (Runnable accion : pendientes) {
+            accion.run();
+        }
+    }
+}
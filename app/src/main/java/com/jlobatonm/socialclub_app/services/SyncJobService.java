@@ -0,0 +1,35 @@
+package com.jlobatonm.socialclub_app.services;
+
+import android.app.job.JobParameters;
+import android.app.job.JobService;
+
+/**
+ * Punto de entrada del sistema para las sincronizaciones programadas por {@link JobSyncScheduler}.
+ * Delega el trabajo en el {@link SyncCoordinator}, que ejecuta todas las tareas en un solo despertar.
+ */
+public class SyncJobService extends JobService {
+
+    /**
+     * Inicia la sincronización. El trabajo continúa de forma asíncrona hasta que el
+     * coordinador avisa de que ha terminado.
+     *
+     * @param params Parámetros del trabajo
+     * @return true porque el trabajo termina de forma asíncrona
+     */
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        SyncCoordinator.getInstance(this).sincronizar(() -> jobFinished(params, false));
+        return true;
+    }
+
+    /**
+     * El sistema detiene la sincronización (por ejemplo, porque se ha perdido la red).
+     *
+     * @param params Parámetros del trabajo
+     * @return true para que el sistema reintente el trabajo más tarde si seguía en curso
+     */
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        return SyncCoordinator.getInstance(this).detener();
+    }
+}
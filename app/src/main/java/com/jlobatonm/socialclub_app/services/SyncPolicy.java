@@ -0,0 +1,86 @@
+package com.jlobatonm.socialclub_app.services;
+
+import java.util.Random;
+
+/**
+ * Política de planificación de la sincronización: calcula cuánto esperar hasta la siguiente
+ * ejecución según cuántas ejecuciones seguidas no han traído cambios (o han fallado).
+ * <p>
+ * El retraso crece exponencialmente desde {@code intervaloMinimoMs} hasta
+ * {@code intervaloMaximoMs} y se le aplica un jitter aleatorio para que los dispositivos
+ * no consulten el servidor todos a la vez. No depende de Android, por lo que puede probarse
+ * con un {@link Random} con semilla fija y un {@link Clock} simulado.
+ * </p>
+ */
+public class SyncPolicy {
+
+    private static final long QUINCE_MINUTOS_MS = 15 * 60_000L;
+    private static final long SEIS_HORAS_MS = 6 * 60 * 60_000L;
+    private static final double JITTER_POR_DEFECTO = 0.2;
+
+    private final long intervaloMinimoMs;
+    private final long intervaloMaximoMs;
+    private final double jitter;
+    private final Random random;
+
+    /**
+     * Crea una política de planificación.
+     *
+     * @param intervaloMinimoMs Retraso tras una ejecución con cambios.
+     * @param intervaloMaximoMs Retraso máximo tras ejecuciones sin cambios.
+     * @param jitter            Fracción (0..1) de variación aleatoria aplicada al retraso.
+     * @param random            Generador aleatorio del jitter.
+     */
+    public SyncPolicy(long intervaloMinimoMs, long intervaloMaximoMs, double jitter, Random random) {
+        if (intervaloMinimoMs <= 0 || intervaloMaximoMs < intervaloMinimoMs || jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("Parámetros de política no válidos");
+        }
+        this.intervaloMinimoMs = intervaloMinimoMs;
+        this.intervaloMaximoMs = intervaloMaximoMs;
+        this.jitter = jitter;
+        this.random = random;
+    }
+
+    /**
+     * Crea la política usada por la aplicación: de 15 minutos a 6 horas con un 20 % de jitter.
+     *
+     * @return Política por defecto.
+     */
+    public static SyncPolicy porDefecto() {
+        return new SyncPolicy(QUINCE_MINUTOS_MS, SEIS_HORAS_MS, JITTER_POR_DEFECTO, new Random());
+    }
+
+    /**
+     * Calcula el retraso hasta la siguiente sincronización.
+     *
+     * @param ejecucionesSinCambios Ejecuciones consecutivas sin cambios o con error (0 si la última trajo cambios).
+     * @return Retraso en milisegundos.
+     */
+    public long siguienteRetraso(int ejecucionesSinCambios) {
+        long base = intervaloMinimoMs;
+        for (int i = 0; i < ejecucionesSinCambios && base < intervaloMaximoMs; i++) {
+            base *= 2;
+        }
+        base = Math.min(base, intervaloMaximoMs);
+
+        double factor = 1.0 + jitter * (2 * random.nextDouble() - 1);
+        return Math.max(intervaloMinimoMs / 2, Math.round(base * factor));
+    }
+
+    /**
+     * Indica si una sincronización solicitada ahora debe agruparse con la última ejecución
+     * en lugar de lanzarse, porque ésta es demasiado reciente.
+     *
+     * @param clock           Reloj con la hora actual.
+     * @param ultimaEjecucion Hora de la última ejecución completada, o 0 si nunca se ha ejecutado.
+     * @return true si la última ejecución es más reciente que la mitad del intervalo mínimo.
+     */
+    public boolean esReciente(Clock clock, long ultimaEjecucion) {
+        return ultimaEjecucion > 0 && clock.currentTimeMillis() - ultimaEjecucion < intervaloMinimoMs / 2;
+    }
+
+    /** @return Retraso mínimo entre sincronizaciones en milisegundos. */
+    public long getIntervaloMinimoMs() {
+        return intervaloMinimoMs;
+    }
+}
@@ -0,0 +1,29 @@
+package com.jlobatonm.socialclub_app.services;
+
+/**
+ * Abstracción del mecanismo que despierta a la aplicación para sincronizar.
+ * La implementación de producción es {@link JobSyncScheduler}; otras implementaciones
+ * (por ejemplo, en pruebas) pueden registrar las llamadas sin depender del sistema.
+ */
+public interface SyncScheduler {
+
+    /**
+     * Programa la siguiente sincronización, sustituyendo cualquier otra pendiente.
+     *
+     * @param retrasoMs     Retraso mínimo antes de ejecutar.
+     * @param restricciones Condiciones que debe cumplir el dispositivo.
+     */
+    void programar(long retrasoMs, SyncConstraints restricciones);
+
+    /**
+     * Indica si hay una sincronización programada pendiente.
+     *
+     * @return true si hay una sincronización pendiente.
+     */
+    boolean estaProgramado();
+
+    /**
+     * Cancela la sincronización programada, si la hay.
+     */
+    void cancelar();
+}
@@ -0,0 +1,47 @@
+package com.jlobatonm.socialclub_app.services;
+
+import android.content.Context;
+
+import com.jlobatonm.socialclub_app.database.CancellationToken;
+
+/**
+ * Tarea de sincronización registrada en el {@link SyncCoordinator}.
+ * Todas las tareas registradas se ejecutan juntas en cada despertar de la aplicación.
+ */
+public interface SyncTask {
+
+    /**
+     * Interfaz de callback para notificar el resultado de la tarea.
+     */
+    interface Resultado {
+        /**
+         * Se invoca cuando la tarea termina correctamente.
+         *
+         * @param huboCambios true si se han encontrado datos nuevos.
+         */
+        void onTerminado(boolean huboCambios);
+
+        /**
+         * Se invoca cuando la tarea falla.
+         *
+         * @param exception Excepción que contiene los detalles del error.
+         */
+        void onError(Exception exception);
+    }
+
+    /**
+     * Nombre de la tarea, usado en los registros.
+     *
+     * @return Nombre de la tarea.
+     */
+    String getNombre();
+
+    /**
+     * Ejecuta la sincronización. El resultado debe notificarse en el hilo principal.
+     *
+     * @param context  Contexto de la aplicación.
+     * @param token    Token que se cancela si el sistema detiene la sincronización.
+     * @param callback Callback para notificar el resultado.
+     */
+    void sincronizar(Context context, CancellationToken token, Resultado callback);
+}
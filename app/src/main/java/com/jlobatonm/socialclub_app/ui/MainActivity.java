@@ -1,7 +1,6 @@
 package com.jlobatonm.socialclub_app.ui;
 
 import android.Manifest;
-import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
@@ -20,7 +19,7 @@ import androidx.navigation.ui.NavigationUI;
 
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.jlobatonm.socialclub_app.R;
-import com.jlobatonm.socialclub_app.services.EventoService;
+import com.jlobatonm.socialclub_app.services.SyncCoordinator;
 
 /**
  * Actividad principal que sirve como punto de entrada a la aplicación del club social.
@@ -55,7 +54,7 @@ public class MainActivity extends AppCompatActivity {
      * Método llamado cuando se crea la actividad.
      * <p>
      * Configura la interfaz de usuario, inicializa la barra de herramientas,
-     * verifica los permisos de notificación, inicia el servicio de eventos
+     * verifica los permisos de notificación, programa la sincronización en segundo plano
      * y configura la navegación inferior.
      * </p>
      *
@@ -78,8 +77,7 @@ public class MainActivity extends AppCompatActivity {
 
         checkNotificationPermission();
 
-        Intent serviceIntent = new Intent(this, EventoService.class);
-        startService(serviceIntent);
+        SyncCoordinator.getInstance(this).iniciar();
 
         BottomNavigationView navView = findViewById(R.id.nav_view);
 
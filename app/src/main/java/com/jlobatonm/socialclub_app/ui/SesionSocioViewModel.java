@@ -0,0 +1,224 @@
+package com.jlobatonm.socialclub_app.ui;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.jlobatonm.socialclub_app.database.CancellationToken;
+import com.jlobatonm.socialclub_app.database.SocioDao;
+import com.jlobatonm.socialclub_app.model.CarnetToken;
+import com.jlobatonm.socialclub_app.model.Socio;
+import com.jlobatonm.socialclub_app.repository.ClubRepository;
+import com.jlobatonm.socialclub_app.utils.ImageLoader;
+
+/**
+ * ViewModel con el socio que ha iniciado sesión, compartido por todos los fragmentos de
+ * {@link MainActivity} (se obtiene con {@code new ViewModelProvider(requireActivity())}).
+ * <p>
+ * El perfil se carga una sola vez por sesión: primero se entrega el guardado en el dispositivo,
+ * si existe, y después el del servidor. Justo después de iniciar sesión se usa el socio que
+ * devolvió la autenticación, sin volver a consultarlo. Sólo se vuelve a consultar tras {@link #recargar()},
+ * por ejemplo al guardar cambios en el perfil.
+ * </p>
+ * <p>
+ * El contenido del QR del carnet se resuelve aparte: es el carnet firmado guardado en el
+ * dispositivo si está vigente y, si no, el número de socio. Como el número se guarda al iniciar
+ * sesión, el carnet no espera a que llegue el perfil y se puede mostrar sin conexión.
+ * </p>
+ */
+public class SesionSocioViewModel extends AndroidViewModel {
+
+    private static final String PREFS_NAME = "user_prefs";
+    private static final String KEY_EMAIL = "email";
+    private static final String KEY_NUMERO_SOCIO = "numero_socio";
+
+    private final MutableLiveData<Socio> socio = new MutableLiveData<>();
+    private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
+    private final MutableLiveData<String> contenidoQr = new MutableLiveData<>();
+    private final CancellationToken cancellationToken = new CancellationToken();
+    private final ClubRepository repository;
+    private boolean enCurso;
+    private boolean cargadoDelServidor;
+    private int generacion;
+    private String numeroCarnet;
+
+    /**
+     * Constructor que obtiene el repositorio de datos de la aplicación.
+     *
+     * @param application Aplicación a la que pertenece el ViewModel
+     */
+    public SesionSocioViewModel(@NonNull Application application) {
+        super(application);
+        repository = ClubRepository.getInstance(application);
+    }
+
+    /**
+     * Obtiene los datos del socio de la sesión como LiveData.
+     *
+     * @return LiveData con el socio actual
+     */
+    public LiveData<Socio> getSocio() {
+        return socio;
+    }
+
+    /**
+     * Obtiene los mensajes de error como LiveData.
+     *
+     * @return LiveData con el mensaje de error actual
+     */
+    public LiveData<String> getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Obtiene el contenido del código QR del carnet como LiveData: el token del carnet firmado
+     * si hay uno vigente o, mientras tanto, el número de socio.
+     *
+     * @return LiveData con el contenido del QR
+     */
+    public LiveData<String> getContenidoQr() {
+        return contenidoQr;
+    }
+
+    /**
+     * Obtiene el número del socio de la sesión si ya se ha cargado.
+     *
+     * @return Número de socio, o null si todavía no se conoce
+     */
+    public String getNumeroSocio() {
+        Socio actual = socio.getValue();
+        return actual != null ? actual.getNumeroSocio() : null;
+    }
+
+    /**
+     * Obtiene el origen de la foto de un socio para {@link ImageLoader}. El perfil sólo trae el
+     * hash de la foto, así que los bytes se descargan únicamente si la clave con ese hash no está
+     * ya en la caché de imágenes.
+     *
+     * @param numeroSocio Número del socio
+     * @return Fuente que descarga la foto de la base de datos
+     */
+    public ImageLoader.Fuente getFuenteFoto(String numeroSocio) {
+        return callback -> new SocioDao(cancellationToken).getFotoSocio(numeroSocio, new SocioDao.GetFotoSocioCallback() {
+            @Override
+            public void onResult(byte[] foto) {
+                callback.onBytes(foto);
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                callback.onError(exception);
+            }
+        });
+    }
+
+    /**
+     * Carga el socio de la sesión si todavía no se ha obtenido del servidor.
+     * Es seguro llamarlo desde cada fragmento que lo necesite.
+     */
+    public void cargar() {
+        if (enCurso || cargadoDelServidor) {
+            return;
+        }
+
+        SharedPreferences prefs = getApplication().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String email = prefs.getString(KEY_EMAIL, "");
+        if (email.isEmpty()) {
+            errorMessage.setValue("No se pudo identificar al usuario");
+            return;
+        }
+        cargarCarnet(prefs.getString(KEY_NUMERO_SOCIO, null));
+
+        Socio autenticado = repository.tomarSocioAutenticado(email);
+        if (autenticado != null) {
+            cargadoDelServidor = true;
+            socio.setValue(autenticado);
+            cargarCarnet(autenticado.getNumeroSocio());
+            return;
+        }
+
+        enCurso = true;
+        int peticion = generacion;
+        repository.getSocio(email, cancellationToken, true, new ClubRepository.Callback<>() {
+            @Override
+            public void onResult(Socio datos, boolean desdeCache) {
+                // Una respuesta anterior a recargar() podría traer una versión ya superada
+                if (peticion != generacion) {
+                    return;
+                }
+                enCurso = false;
+                if (!desdeCache) {
+                    cargadoDelServidor = true;
+                }
+                socio.setValue(datos);
+                if (datos != null && numeroCarnet == null) {
+                    prefs.edit().putString(KEY_NUMERO_SOCIO, datos.getNumeroSocio()).apply();
+                    cargarCarnet(datos.getNumeroSocio());
+                }
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                if (peticion != generacion) {
+                    return;
+                }
+                enCurso = false;
+                errorMessage.setValue(exception.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Muestra el número de socio en el QR y pide el carnet firmado, una sola vez por sesión.
+     */
+    private void cargarCarnet(String numeroSocio) {
+        if (numeroSocio == null || numeroSocio.isEmpty() || numeroCarnet != null) {
+            return;
+        }
+        numeroCarnet = numeroSocio;
+        contenidoQr.setValue(numeroSocio);
+
+        repository.getCarnet(numeroSocio, cancellationToken, new ClubRepository.Callback<>() {
+            @Override
+            public void onResult(CarnetToken carnet, boolean desdeCache) {
+                if (carnet != null && carnet.getNumeroSocio().equals(numeroSocio)
+                        && carnet.vigente(System.currentTimeMillis())) {
+                    contenidoQr.setValue(carnet.getToken());
+                } else {
+                    contenidoQr.setValue(numeroSocio);
+                }
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                // Sin carnet firmado se sigue mostrando el número de socio.
+            }
+        });
+    }
+
+    /**
+     * Descarta el socio guardado y lo vuelve a pedir al servidor.
+     * Se usa después de modificar el perfil. Las respuestas de peticiones anteriores se ignoran.
+     */
+    public void recargar() {
+        repository.invalidar(ClubRepository.Recurso.SOCIO);
+        generacion++;
+        cargadoDelServidor = false;
+        enCurso = false;
+        cargar();
+    }
+
+    /**
+     * Cancela las consultas pendientes al destruirse el ViewModel.
+     */
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        cancellationToken.cancel();
+    }
+}
@@ -0,0 +1,152 @@
+package com.jlobatonm.socialclub_app.ui.home;
+
+import android.content.Context;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.jlobatonm.socialclub_app.database.CancellationToken;
+import com.jlobatonm.socialclub_app.database.EventoDao;
+import com.jlobatonm.socialclub_app.databinding.ItemEventoBinding;
+import com.jlobatonm.socialclub_app.model.Evento;
+import com.jlobatonm.socialclub_app.utils.ImageLoader;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Adaptador de la lista de eventos de la pantalla principal.
+ * <p>
+ * Las diferencias entre la lista anterior y la nueva se calculan en segundo plano
+ * ({@link ListAdapter} usa un {@code AsyncListDiffer}), de modo que al refrescar los eventos
+ * sólo se vuelven a dibujar las filas que han cambiado. Cada fila usa el identificador
+ * del evento como id estable.
+ * </p>
+ */
+public class EventoAdapter extends ListAdapter<Evento, EventoAdapter.EventoViewHolder> {
+
+    private static final String TAG = "EventoAdapter";
+
+    private static final DiffUtil.ItemCallback<Evento> DIFF_CALLBACK = new DiffUtil.ItemCallback<>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Evento antiguo, @NonNull Evento nuevo) {
+            return antiguo.getIdEvento() == nuevo.getIdEvento();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Evento antiguo, @NonNull Evento nuevo) {
+            return Objects.equals(antiguo.getNombre(), nuevo.getNombre())
+                    && Objects.equals(antiguo.getFecha(), nuevo.getFecha())
+                    && Objects.equals(antiguo.getImagenHash(), nuevo.getImagenHash());
+        }
+    };
+
+    /**
+     * Interfaz para recibir las pulsaciones sobre un evento con imagen.
+     */
+    public interface OnEventoClickListener {
+        /**
+         * Se invoca al pulsar un evento cuya imagen ya se ha cargado.
+         *
+         * @param claveImagen Clave de la imagen del evento en {@link ImageLoader}
+         */
+        void onEventoClick(String claveImagen);
+    }
+
+    private final ImageLoader imageLoader;
+    private final CancellationToken cancellationToken;
+    private final OnEventoClickListener listener;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("d 'de' MMMM 'de' yyyy", new Locale("es", "ES"));
+
+    /**
+     * Crea el adaptador.
+     *
+     * @param context           Contexto con el que se obtiene el {@link ImageLoader}
+     * @param cancellationToken Token con el que se cancelan las descargas de imágenes pendientes
+     * @param listener          Receptor de las pulsaciones sobre los eventos
+     */
+    public EventoAdapter(Context context, CancellationToken cancellationToken, OnEventoClickListener listener) {
+        super(DIFF_CALLBACK);
+        this.imageLoader = ImageLoader.getInstance(context);
+        this.cancellationToken = cancellationToken;
+        this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getIdEvento();
+    }
+
+    @NonNull
+    @Override
+    public EventoViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ItemEventoBinding binding = ItemEventoBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false);
+        return new EventoViewHolder(binding);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull EventoViewHolder holder, int position) {
+        Evento evento = getItem(position);
+        holder.binding.textEventoNombre.setText(evento.getNombre());
+        holder.binding.textEventoFecha.setText(dateFormat.format(evento.getFecha()));
+        imageLoader.cancelar(holder.binding.imageViewEvento);
+        holder.binding.imageViewEvento.setImageDrawable(null);
+        holder.itemView.setOnClickListener(null);
+
+        if (evento.tieneImagen()) {
+            cargarImagen(holder, evento);
+        } else {
+            Log.d(TAG, "Evento sin imagen: " + evento.getIdEvento());
+        }
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull EventoViewHolder holder) {
+        super.onViewRecycled(holder);
+        imageLoader.cancelar(holder.binding.imageViewEvento);
+    }
+
+    /**
+     * Muestra la imagen de un evento a través de {@link ImageLoader}: desde la caché si ya se
+     * decodificó o descargó antes y, si no, descargándola con {@link EventoDao}.
+     *
+     * @param holder Fila del evento
+     * @param evento Evento cuya imagen se carga
+     */
+    private void cargarImagen(EventoViewHolder holder, Evento evento) {
+        String clave = ImageLoader.clave("evento", evento.getIdEvento(), evento.getImagenHash());
+        imageLoader.cargar(holder.binding.imageViewEvento, clave,
+                callback -> new EventoDao(cancellationToken).getImagenEvento(evento, new EventoDao.GetImagenEventoCallback() {
+                    @Override
+                    public void onResult(byte[] imagen) {
+                        callback.onBytes(imagen);
+                    }
+
+                    @Override
+                    public void onError(Exception exception) {
+                        Log.e(TAG, "Error al cargar imagen del evento " + evento.getIdEvento(), exception);
+                        callback.onError(exception);
+                    }
+                }),
+                bitmap -> holder.itemView.setOnClickListener(v -> listener.onEventoClick(clave)));
+    }
+
+    /**
+     * Fila de la lista de eventos.
+     */
+    static class EventoViewHolder extends RecyclerView.ViewHolder {
+        private final ItemEventoBinding binding;
+
+        EventoViewHolder(ItemEventoBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+    }
+}
@@ -2,10 +2,7 @@ package com.jlobatonm.socialclub_app.ui.home;
 
 import android.app.Dialog;
 import android.content.pm.ActivityInfo;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -15,14 +12,14 @@ import android.view.WindowInsetsController;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.DialogFragment;
+import androidx.lifecycle.ViewModelProvider;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.MultiFormatWriter;
-import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
 import com.jlobatonm.socialclub_app.R;
 import com.jlobatonm.socialclub_app.model.Socio;
 import com.jlobatonm.socialclub_app.databinding.DialogFullScreenCarnetBinding;
+import com.jlobatonm.socialclub_app.ui.SesionSocioViewModel;
+import com.jlobatonm.socialclub_app.utils.ImageLoader;
+import com.jlobatonm.socialclub_app.utils.QrRenderer;
 
 import java.util.Calendar;
 import java.util.Date;
@@ -39,15 +36,12 @@ public class FullScreenCarnetDialog extends DialogFragment {
     private static final String ARG_SOCIO_APELLIDOS = "socio_apellidos";
     private static final String ARG_SOCIO_NUMERO = "socio_numero";
     private static final String ARG_SOCIO_FECHA_NAC = "socio_fecha_nac";
-    private static final String ARG_SOCIO_FOTO = "socio_foto";
-
-    private static final int QR_WIDTH = 300;
-    private static final int QR_HEIGHT = 300;
-    private static final int WHITE = 0xFFFFFFFF;
-    private static final int BLACK = 0xFF000000;
+    private static final String ARG_SOCIO_FOTO_CLAVE = "socio_foto_clave";
 
     /**
      * Crea una nueva instancia del diálogo con los datos del socio.
+     * La foto no viaja en los argumentos: sólo su clave, y se resuelve con {@link ImageLoader}
+     * (o, si ya no está en caché, descargándola de la base de datos).
      *
      * @param socio Objeto Socio con la información a mostrar
      * @return Nueva instancia del diálogo configurada
@@ -63,8 +57,8 @@ public class FullScreenCarnetDialog extends DialogFragment {
             args.putLong(ARG_SOCIO_FECHA_NAC, socio.getFechaNacimiento().getTime());
         }
 
-        if (socio.getFoto() != null) {
-            args.putByteArray(ARG_SOCIO_FOTO, socio.getFoto());
+        if (socio.getFotoHash() != null) {
+            args.putString(ARG_SOCIO_FOTO_CLAVE, ImageLoader.clave("socio", socio.getNumeroSocio(), socio.getFotoHash()));
         }
 
         fragment.setArguments(args);
@@ -104,22 +98,20 @@ public class FullScreenCarnetDialog extends DialogFragment {
                 binding.textFechaNacimiento.setText(categoriaEdad);
             }
 
-            byte[] fotoBytes = args.getByteArray(ARG_SOCIO_FOTO);
-            if (fotoBytes != null && fotoBytes.length > 0) {
-                Bitmap bitmap = BitmapFactory.decodeByteArray(fotoBytes, 0, fotoBytes.length);
-                if (bitmap != null) {
-                    binding.imageViewFoto.setImageBitmap(bitmap);
-                }
+            SesionSocioViewModel sesion = new ViewModelProvider(requireActivity()).get(SesionSocioViewModel.class);
+            String claveFoto = args.getString(ARG_SOCIO_FOTO_CLAVE);
+            if (claveFoto != null) {
+                ImageLoader.getInstance(requireContext()).cargar(binding.imageViewFoto, claveFoto,
+                        sesion.getFuenteFoto(numeroSocio), null);
             }
 
-            if (numeroSocio != null && !numeroSocio.isEmpty()) {
-                try {
-                    Bitmap qrCodeBitmap = generateQRCode(numeroSocio);
-                    binding.imageViewQrCode.setImageBitmap(qrCodeBitmap);
-                } catch (WriterException e) {
-                    Log.e("FullScreenCarnetDialog", "Error al generar código QR", e);
-                }
+            // El QR es el carnet firmado si la sesión ya lo tiene; si no, el número de socio.
+            QrRenderer qrRenderer = QrRenderer.getInstance(requireContext());
+            if (sesion.getContenidoQr().getValue() == null) {
+                qrRenderer.mostrar(binding.imageViewQrCode, numeroSocio);
             }
+            sesion.getContenidoQr().observe(getViewLifecycleOwner(),
+                    contenido -> qrRenderer.mostrar(binding.imageViewQrCode, contenido));
         }
 
         view.setOnClickListener(v -> dismiss());
@@ -161,27 +153,6 @@ public class FullScreenCarnetDialog extends DialogFragment {
         return edad;
     }
 
-    /**
-     * Genera un código QR a partir del texto proporcionado.
-     *
-     * @param content Texto a codificar en el QR
-     * @return Bitmap con el código QR generado
-     * @throws WriterException Si hay error en la generación del código
-     */
-    private Bitmap generateQRCode(String content) throws WriterException {
-        BitMatrix bitMatrix = new MultiFormatWriter().encode(content, BarcodeFormat.QR_CODE, QR_WIDTH, QR_HEIGHT);
-        int width = bitMatrix.getWidth();
-        int height = bitMatrix.getHeight();
-        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                bitmap.setPixel(x, y, bitMatrix.get(x, y) ? BLACK : WHITE);
-            }
-        }
-        return bitmap;
-    }
-
     @Override
     public void onStart() {
         super.onStart();
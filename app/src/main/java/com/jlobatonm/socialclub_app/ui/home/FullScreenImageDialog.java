@@ -1,8 +1,8 @@
 package com.jlobatonm.socialclub_app.ui.home;
 
 import android.app.Dialog;
-import android.graphics.Bitmap;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -13,6 +13,7 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.DialogFragment;
 
 import com.jlobatonm.socialclub_app.R;
+import com.jlobatonm.socialclub_app.utils.ImageLoader;
 
 import java.util.Objects;
 
@@ -22,18 +23,21 @@ import java.util.Objects;
  */
 public class FullScreenImageDialog extends DialogFragment {
 
-    private static final String ARG_IMAGE = "image";
+    private static final String TAG = "FullScreenImageDialog";
+    private static final String ARG_IMAGE_KEY = "image_key";
 
     /**
      * Crea una nueva instancia del diálogo de imagen a pantalla completa.
+     * Sólo se guarda la clave de la imagen en los argumentos; los píxeles se obtienen de
+     * {@link ImageLoader}, que ya la tiene en caché porque se ha mostrado antes en la lista.
      *
-     * @param image Bitmap de la imagen que se mostrará
+     * @param imageKey Clave de la imagen en {@link ImageLoader}
      * @return Una nueva instancia del diálogo configurada con la imagen
      */
-    public static FullScreenImageDialog newInstance(Bitmap image) {
+    public static FullScreenImageDialog newInstance(String imageKey) {
         FullScreenImageDialog dialog = new FullScreenImageDialog();
         Bundle args = new Bundle();
-        args.putParcelable(ARG_IMAGE, image);
+        args.putString(ARG_IMAGE_KEY, imageKey);
         dialog.setArguments(args);
         return dialog;
     }
@@ -52,9 +56,13 @@ public class FullScreenImageDialog extends DialogFragment {
         View view = inflater.inflate(R.layout.dialog_full_screen_image, container, false);
         ImageView imageView = view.findViewById(R.id.fullScreenImageView);
 
-        if (getArguments() != null) {
-            Bitmap image = getArguments().getParcelable(ARG_IMAGE);
-            imageView.setImageBitmap(image);
+        String imageKey = getArguments() != null ? getArguments().getString(ARG_IMAGE_KEY) : null;
+        if (imageKey != null) {
+            // La imagen ya debe estar en caché; si se ha descartado, se cierra el diálogo
+            ImageLoader.getInstance(requireContext()).cargar(imageView, imageKey, callback -> {
+                Log.d(TAG, "Imagen no disponible en caché: " + imageKey);
+                dismissAllowingStateLoss();
+            }, null);
         }
 
         imageView.setOnClickListener(v -> dismiss());
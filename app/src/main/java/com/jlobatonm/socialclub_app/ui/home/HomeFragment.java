@@ -3,8 +3,6 @@ package com.jlobatonm.socialclub_app.ui.home;
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -14,7 +12,6 @@ import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
-import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
@@ -28,23 +25,20 @@ import androidx.fragment.app.Fragment;
 import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.ViewModelProvider;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.MultiFormatWriter;
-import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
 import com.jlobatonm.socialclub_app.R;
-import com.jlobatonm.socialclub_app.database.MySQLConnection;
+import com.jlobatonm.socialclub_app.database.CancellationToken;
 import com.jlobatonm.socialclub_app.databinding.FragmentHomeBinding;
 import com.jlobatonm.socialclub_app.model.Evento;
 import com.jlobatonm.socialclub_app.model.Socio;
+import com.jlobatonm.socialclub_app.repository.ClubRepository;
+import com.jlobatonm.socialclub_app.services.SyncCoordinator;
+import com.jlobatonm.socialclub_app.ui.SesionSocioViewModel;
 import com.jlobatonm.socialclub_app.ui.login.LoginActivity;
+import com.jlobatonm.socialclub_app.utils.ImageLoader;
+import com.jlobatonm.socialclub_app.utils.QrRenderer;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.sql.Connection;
-import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -57,8 +51,10 @@ import java.util.Locale;
 public class HomeFragment extends Fragment {
 
     private HomeViewModel homeViewModel;
+    private SesionSocioViewModel sesionSocioViewModel;
     private FragmentHomeBinding binding;
     private static final String TAG = "HomeFragment";
+    private CancellationToken cancellationToken;
 
     /**
      * Crea la vista del fragmento y configura los elementos de la UI.
@@ -71,8 +67,10 @@ public class HomeFragment extends Fragment {
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
         homeViewModel = new ViewModelProvider(this).get(HomeViewModel.class);
+        sesionSocioViewModel = new ViewModelProvider(requireActivity()).get(SesionSocioViewModel.class);
         binding = FragmentHomeBinding.inflate(inflater, container, false);
         View root = binding.getRoot();
+        cancellationToken = CancellationToken.forLifecycle(getViewLifecycleOwner());
 
         final TextView textNumeroSocio = binding.textNumeroSocio;
         final TextView textNombre = binding.textNombre;
@@ -82,14 +80,14 @@ public class HomeFragment extends Fragment {
         final ImageView imageViewQrCode = binding.imageViewQrCode;
 
         binding.carnet.setOnClickListener(v -> {
-            Socio socio = homeViewModel.getSocioData().getValue();
+            Socio socio = sesionSocioViewModel.getSocio().getValue();
             if (socio != null) {
                 DialogFragment dialog = FullScreenCarnetDialog.newInstance(socio);
                 dialog.show(getParentFragmentManager(), "FullScreenCarnetDialog");
             }
         });
 
-        homeViewModel.getSocioData().observe(getViewLifecycleOwner(), socio -> {
+        sesionSocioViewModel.getSocio().observe(getViewLifecycleOwner(), socio -> {
             if (socio != null) {
                 textNumeroSocio.setText(String.valueOf(socio.getNumeroSocio()));
                 String fullName = socio.getNombre() + " " + socio.getApellidos();
@@ -97,29 +95,14 @@ public class HomeFragment extends Fragment {
                 String categoriaEdad = getCategoriaEdad(socio.getFechaNacimiento());
                 textFechaNacimiento.setText(categoriaEdad);
 
-                byte[] fotoBlob = socio.getFoto();
-                if (fotoBlob != null && fotoBlob.length > 0) {
-                    Log.d(TAG, "Foto BLOB length: " + fotoBlob.length);
-                    Bitmap bitmap = BitmapFactory.decodeByteArray(fotoBlob, 0, fotoBlob.length);
-                    if (bitmap != null) {
-                        imageViewFoto.setImageBitmap(bitmap);
-                        Log.d(TAG, "Bitmap set successfully");
-                    } else {
-                        Log.d(TAG, "Failed to decode bitmap");
-                        saveBlobToFile(fotoBlob);
-                    }
+                if (socio.getFotoHash() != null) {
+                    ImageLoader.getInstance(requireContext()).cargar(imageViewFoto,
+                            ImageLoader.clave("socio", socio.getNumeroSocio(), socio.getFotoHash()),
+                            sesionSocioViewModel.getFuenteFoto(socio.getNumeroSocio()), null);
                 } else {
-                    Log.d(TAG, "Foto BLOB is null or empty");
+                    Log.d(TAG, "El socio no tiene foto");
                 }
 
-                if (socio.getNumeroSocio() != null && !socio.getNumeroSocio().isEmpty()) {
-                    try {
-                        Bitmap qrCodeBitmap = generateQRCode(socio.getNumeroSocio());
-                        imageViewQrCode.setImageBitmap(qrCodeBitmap);
-                    } catch (WriterException e) {
-                        Log.e(TAG, "Error generating QR code", e);
-                    }
-                }
 
                 AppCompatActivity activity = (AppCompatActivity) getActivity();
                 if (activity != null) {
@@ -139,78 +122,30 @@ public class HomeFragment extends Fragment {
             }
         });
 
-        homeViewModel.getEventosData().observe(getViewLifecycleOwner(), eventos -> {
-            LinearLayout eventosLayout = root.findViewById(R.id.eventosLinearLayout);
-            eventosLayout.removeAllViews();
-
-            if (eventos == null || eventos.isEmpty() || !hayEventosFuturos(eventos)) {
-                TextView noEventosTextView = new TextView(getContext());
-                noEventosTextView.setText(R.string.no_hay_eventos);
-                noEventosTextView.setTextSize(18);
-                noEventosTextView.setTextColor(getResources().getColor(android.R.color.white, null));
-                noEventosTextView.setGravity(android.view.Gravity.CENTER);
-                noEventosTextView.setPadding(0, 32, 0, 0);
-
-                eventosLayout.addView(noEventosTextView);
-            } else {
-                SimpleDateFormat dateFormat = new SimpleDateFormat("d 'de' MMMM 'de' yyyy", new Locale("es", "ES"));
-                Date today = new Date();
-
-                for (Evento evento : eventos) {
-                    if (evento.getFecha().compareTo(today) >= 0) {
-                        View eventoView = LayoutInflater.from(getContext()).inflate(R.layout.item_evento, eventosLayout, false);
-
-                        TextView textEventoNombre = eventoView.findViewById(R.id.textEventoNombre);
-                        TextView textEventoFecha = eventoView.findViewById(R.id.textEventoFecha);
-                        ImageView imageViewEvento = eventoView.findViewById(R.id.imageViewEvento);
-
-                        textEventoNombre.setText(evento.getNombre());
-                        String formattedDate = dateFormat.format(evento.getFecha());
-                        textEventoFecha.setText(formattedDate);
-
-                        byte[] imagenBlob = evento.getImagen();
-                        if (imagenBlob != null && imagenBlob.length > 0) {
-                            Bitmap bitmap = BitmapFactory.decodeByteArray(imagenBlob, 0, imagenBlob.length);
-                            if (bitmap != null) {
-                                imageViewEvento.setImageBitmap(bitmap);
+        sesionSocioViewModel.getContenidoQr().observe(getViewLifecycleOwner(), contenido ->
+                QrRenderer.getInstance(requireContext()).mostrar(imageViewQrCode, contenido));
 
-                                final Bitmap finalBitmap = bitmap;
-                                eventoView.setOnClickListener(v -> {
-                                    DialogFragment dialog = FullScreenImageDialog.newInstance(finalBitmap);
-                                    dialog.show(getParentFragmentManager(), "FullScreenImageDialog");
-                                });
-                            } else {
-                                Log.d(TAG, "Failed to decode bitmap");
-                            }
-                        } else {
-                            Log.d(TAG, "Imagen BLOB is null or empty");
-                        }
-
-                        eventosLayout.addView(eventoView);
-                    }
-                }
+        sesionSocioViewModel.getErrorMessage().observe(getViewLifecycleOwner(), errorMessage -> {
+            if (errorMessage != null && !errorMessage.isEmpty()) {
+                Toast.makeText(getContext(), errorMessage, Toast.LENGTH_SHORT).show();
             }
         });
 
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
-            @Override
-            public void onSuccess(Connection connection) {
-                String userEmail = getUserEmail();
-                homeViewModel.fetchSocioData(connection, userEmail);
-                homeViewModel.fetchEventosData(connection);
-            }
-
-            private String getUserEmail() {
-                SharedPreferences sharedPreferences = requireActivity().getSharedPreferences("user_prefs", Context.MODE_PRIVATE);
-                return sharedPreferences.getString("email", "");
-            }
+        EventoAdapter eventoAdapter = new EventoAdapter(requireContext(), cancellationToken, claveImagen -> {
+            DialogFragment dialog = FullScreenImageDialog.newInstance(claveImagen);
+            dialog.show(getParentFragmentManager(), "FullScreenImageDialog");
+        });
+        binding.eventosRecyclerView.setAdapter(eventoAdapter);
 
-            @Override
-            public void onFailure(SQLException exception) {
-                homeViewModel.setErrorMessage(exception.getMessage());
-            }
+        homeViewModel.getEventosData().observe(getViewLifecycleOwner(), eventos -> {
+            List<Evento> eventosFuturos = filtrarEventosFuturos(eventos);
+            binding.textSinEventos.setVisibility(eventosFuturos.isEmpty() ? View.VISIBLE : View.GONE);
+            eventoAdapter.submitList(eventosFuturos);
         });
 
+        sesionSocioViewModel.cargar();
+        homeViewModel.fetchEventosData();
+
         SimpleDateFormat dateFormat = new SimpleDateFormat("d 'de' MMMM 'de' yyyy", new Locale("es", "ES"));
         String formattedDate = dateFormat.format(new Date());
         textFecha.setText(formattedDate);
@@ -236,7 +171,8 @@ public class HomeFragment extends Fragment {
     /**
      * Cierra la sesión del usuario actual.
      * Muestra un diálogo de confirmación y, si el usuario confirma,
-     * borra los datos guardados y redirige a la pantalla de login.
+     * borra los datos guardados (también la caché local), cancela la sincronización en segundo plano
+     * y redirige a la pantalla de login.
      */
     private void logout() {
         new AlertDialog.Builder(requireContext())
@@ -247,6 +183,10 @@ public class HomeFragment extends Fragment {
                     SharedPreferences.Editor editor = sharedPreferences.edit();
                     editor.clear();
                     editor.apply();
+                    ClubRepository.getInstance(requireContext()).limpiar();
+                    ImageLoader.getInstance(requireContext()).limpiar();
+                    QrRenderer.getInstance(requireContext()).limpiar();
+                    SyncCoordinator.getInstance(requireContext()).cancelar();
 
                     Intent intent = new Intent(getActivity(), LoginActivity.class);
                     intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
@@ -256,48 +196,6 @@ public class HomeFragment extends Fragment {
                 .show();
     }
 
-    /**
-     * Genera un código QR a partir del texto proporcionado.
-     *
-     * @param content Texto a codificar en el QR
-     * @return Bitmap con el código QR generado
-     * @throws WriterException Si hay error en la generación del código
-     */
-    private Bitmap generateQRCode(String content) throws WriterException {
-        final int QR_WIDTH = 300;
-        final int QR_HEIGHT = 300;
-        final int WHITE = 0xFFFFFFFF;
-        final int BLACK = 0xFF000000;
-
-        BitMatrix bitMatrix = new MultiFormatWriter().encode(content, BarcodeFormat.QR_CODE, QR_WIDTH, QR_HEIGHT);
-        int width = bitMatrix.getWidth();
-        int height = bitMatrix.getHeight();
-        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                bitmap.setPixel(x, y, bitMatrix.get(x, y) ? BLACK : WHITE);
-            }
-        }
-        return bitmap;
-    }
-
-    /**
-     * Guarda los datos del BLOB en un archivo para diagnóstico.
-     * Se utiliza cuando hay problemas al decodificar la imagen.
-     *
-     * @param blob Datos binarios a guardar en el archivo
-     */
-    private void saveBlobToFile(byte[] blob) {
-        File file = new File(requireContext().getExternalFilesDir(null), "socio_foto_blob");
-        try (FileOutputStream fos = new FileOutputStream(file)) {
-            fos.write(blob);
-            Log.d(TAG, "BLOB saved to file: " + file.getAbsolutePath());
-        } catch (IOException e) {
-            Log.e(TAG, "Failed to save BLOB to file", e);
-        }
-    }
-
     /**
      * Limpia los recursos cuando se destruye la vista.
      */
@@ -344,18 +242,22 @@ public class HomeFragment extends Fragment {
     }
 
     /**
-     * Verifica si hay eventos futuros en la lista de eventos.
+     * Obtiene los eventos de la lista que todavía no han pasado.
      *
-     * @param eventos Lista de eventos a verificar
-     * @return true si hay al menos un evento futuro, false en caso contrario
+     * @param eventos Lista de eventos a filtrar, puede ser null
+     * @return Lista con los eventos futuros, vacía si no hay ninguno
      */
-    private boolean hayEventosFuturos(List<Evento> eventos) {
+    private List<Evento> filtrarEventosFuturos(List<Evento> eventos) {
+        List<Evento> futuros = new ArrayList<>();
+        if (eventos == null) {
+            return futuros;
+        }
         Date today = new Date();
         for (Evento evento : eventos) {
             if (evento.getFecha().compareTo(today) >= 0) {
-                return true;
+                futuros.add(evento);
             }
         }
-        return false;
+        return futuros;
     }
-}
\ No newline at end of file
+}
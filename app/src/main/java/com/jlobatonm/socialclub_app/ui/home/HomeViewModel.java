@@ -1,26 +1,40 @@
 package com.jlobatonm.socialclub_app.ui.home;
 
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
 
-import com.jlobatonm.socialclub_app.database.EventoDao;
-import com.jlobatonm.socialclub_app.database.SocioDao;
+import com.jlobatonm.socialclub_app.database.CancellationToken;
 import com.jlobatonm.socialclub_app.model.Evento;
-import com.jlobatonm.socialclub_app.model.Socio;
+import com.jlobatonm.socialclub_app.repository.ClubRepository;
 
-import java.sql.Connection;
 import java.util.List;
 
 /**
  * ViewModel para la pantalla principal de la aplicación.
- * Gestiona la obtención y almacenamiento de datos relacionados con eventos y socios.
+ * Gestiona la obtención y almacenamiento de los eventos; los datos del socio se obtienen
+ * de {@link com.jlobatonm.socialclub_app.ui.SesionSocioViewModel}.
+ * Los datos se obtienen del {@link ClubRepository}, que entrega primero los guardados en el dispositivo.
  */
-public class HomeViewModel extends ViewModel {
+public class HomeViewModel extends AndroidViewModel {
 
     private final MutableLiveData<List<Evento>> eventosData = new MutableLiveData<>();
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
-    private final MutableLiveData<Socio> socioData = new MutableLiveData<>();
+    private final CancellationToken cancellationToken = new CancellationToken();
+    private final ClubRepository repository;
+
+    /**
+     * Constructor que obtiene el repositorio de datos de la aplicación.
+     *
+     * @param application Aplicación a la que pertenece el ViewModel
+     */
+    public HomeViewModel(@NonNull Application application) {
+        super(application);
+        repository = ClubRepository.getInstance(application);
+    }
 
     /**
      * Obtiene los datos de eventos como LiveData.
@@ -41,24 +55,12 @@ public class HomeViewModel extends ViewModel {
     }
 
     /**
-     * Obtiene los datos del socio como LiveData.
-     *
-     * @return LiveData con los datos del socio actual
+     * Obtiene los metadatos de los próximos eventos (sin imágenes) y actualiza el LiveData correspondiente.
      */
-    public LiveData<Socio> getSocioData() {
-        return socioData;
-    }
-
-    /**
-     * Obtiene todos los eventos de la base de datos y actualiza el LiveData correspondiente.
-     *
-     * @param connection Conexión a la base de datos
-     */
-    public void fetchEventosData(Connection connection) {
-        EventoDao eventoDao = new EventoDao();
-        eventoDao.getAllEventos(connection, new EventoDao.GetAllEventosCallback() {
+    public void fetchEventosData() {
+        repository.getEventosProximos(cancellationToken, new ClubRepository.Callback<>() {
             @Override
-            public void onResult(List<Evento> eventos) {
+            public void onResult(List<Evento> eventos, boolean desdeCache) {
                 eventosData.postValue(eventos);
             }
 
@@ -69,27 +71,6 @@ public class HomeViewModel extends ViewModel {
         });
     }
 
-    /**
-     * Obtiene los datos de un socio por su email y actualiza el LiveData correspondiente.
-     *
-     * @param connection Conexión a la base de datos
-     * @param email      Email del socio a buscar
-     */
-    public void fetchSocioData(Connection connection, String email) {
-        SocioDao socioDao = new SocioDao();
-        socioDao.getSocioByEmail(connection, email, new SocioDao.GetSocioCallback() {
-            @Override
-            public void onResult(Socio socio) {
-                socioData.postValue(socio);
-            }
-
-            @Override
-            public void onError(Exception exception) {
-                errorMessage.postValue(exception.getMessage());
-            }
-        });
-    }
-
     /**
      * Establece un mensaje de error y lo publica en el LiveData correspondiente.
      *
@@ -98,4 +79,13 @@ public class HomeViewModel extends ViewModel {
     public void setErrorMessage(String message) {
         errorMessage.postValue(message);
     }
-}
\ No newline at end of file
+
+    /**
+     * Cancela las consultas pendientes al destruirse el ViewModel.
+     */
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        cancellationToken.cancel();
+    }
+}
@@ -13,12 +13,13 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.splashscreen.SplashScreen;
 
 import com.jlobatonm.socialclub_app.R;
-import com.jlobatonm.socialclub_app.database.MySQLConnection;
+import com.jlobatonm.socialclub_app.database.CancellationToken;
 import com.jlobatonm.socialclub_app.database.SocioDao;
+import com.jlobatonm.socialclub_app.model.CarnetToken;
+import com.jlobatonm.socialclub_app.model.Socio;
+import com.jlobatonm.socialclub_app.repository.ClubRepository;
 import com.jlobatonm.socialclub_app.ui.MainActivity;
-
-import java.sql.Connection;
-import java.sql.SQLException;
+import com.jlobatonm.socialclub_app.utils.QrRenderer;
 
 /**
  * Actividad que gestiona el inicio de sesión de usuarios.
@@ -67,7 +68,7 @@ public class LoginActivity extends AppCompatActivity {
 
         setContentView(R.layout.activity_login);
 
-        socioDao = new SocioDao();
+        socioDao = new SocioDao(CancellationToken.forLifecycle(this));
 
         EditText emailEditText = findViewById(R.id.username);
         EditText passwordEditText = findViewById(R.id.password);
@@ -77,46 +78,67 @@ public class LoginActivity extends AppCompatActivity {
             String userEmail = emailEditText.getText().toString();
             String password = passwordEditText.getText().toString();
 
-            MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
+            socioDao.autenticar(userEmail, password, new SocioDao.AutenticarCallback() {
                 @Override
-                public void onSuccess(Connection connection) {
-                    socioDao.checkSocio(connection, userEmail, password, new SocioDao.CheckSocioCallback() {
-                        @Override
-                        public void onResult(boolean isValid) {
-                            if (isValid) {
-                                // Guardar email en SharedPreferences para mantener la sesión
-                                SharedPreferences sharedPreferences = getSharedPreferences("user_prefs", Context.MODE_PRIVATE);
-                                SharedPreferences.Editor editor = sharedPreferences.edit();
-                                editor.putString("email", userEmail);
-                                editor.apply();
-
-                                // Navegar a MainActivity
-                                Intent intent = new Intent(LoginActivity.this, MainActivity.class);
-                                startActivity(intent);
-                                finish();
-                            } else {
-                                runOnUiThread(() -> Toast.makeText(LoginActivity.this, "Credenciales incorrectas", Toast.LENGTH_SHORT).show());
-                                Log.i(TAG, "Credenciales incorrectas");
-                            }
-                        }
-
-                        @Override
-                        public void onError(Exception exception) {
-                            runOnUiThread(() -> Toast.makeText(LoginActivity.this, "Error: " + exception.getMessage(), Toast.LENGTH_SHORT).show());
-                            Log.e(TAG, "Error de verificación: " + exception.getMessage(), exception);
-                        }
-                    });
+                public void onResult(Socio socio) {
+                    if (socio != null) {
+                        // Guardar email y número de socio en SharedPreferences para mantener la sesión.
+                        // Se guarda el email tal como está en la base de datos, que es la clave del socio en la caché.
+                        SharedPreferences sharedPreferences = getSharedPreferences("user_prefs", Context.MODE_PRIVATE);
+                        SharedPreferences.Editor editor = sharedPreferences.edit();
+                        editor.putString("email", socio.getEmail());
+                        editor.putString("numero_socio", socio.getNumeroSocio());
+                        editor.apply();
+
+                        // La pantalla principal usa este socio sin volver a pedirlo
+                        ClubRepository.getInstance(LoginActivity.this).setSocioAutenticado(socio);
+                        precargarCarnet(socio.getNumeroSocio());
+
+                        // Navegar a MainActivity
+                        Intent intent = new Intent(LoginActivity.this, MainActivity.class);
+                        startActivity(intent);
+                        finish();
+                    } else {
+                        runOnUiThread(() -> Toast.makeText(LoginActivity.this, "Credenciales incorrectas", Toast.LENGTH_SHORT).show());
+                        Log.i(TAG, "Credenciales incorrectas");
+                    }
                 }
 
                 @Override
-                public void onFailure(SQLException exception) {
-                    runOnUiThread(() -> Toast.makeText(LoginActivity.this, "Error de conexión: " + exception.getMessage(), Toast.LENGTH_SHORT).show());
-                    Log.e(TAG, "Error de conexión: " + exception.getMessage(), exception);
+                public void onError(Exception exception) {
+                    runOnUiThread(() -> Toast.makeText(LoginActivity.this, "Error: " + exception.getMessage(), Toast.LENGTH_SHORT).show());
+                    Log.e(TAG, "Error de verificación: " + exception.getMessage(), exception);
                 }
             });
         });
     }
 
+    /**
+     * Prepara en segundo plano el carnet del socio que acaba de iniciar sesión: descarga el carnet
+     * firmado y genera su código QR, para que el carnet se muestre al instante (también sin conexión)
+     * al abrir la pantalla principal.
+     * La consulta no se liga al ciclo de vida de esta actividad, que se cierra enseguida.
+     *
+     * @param numeroSocio Número del socio
+     */
+    private void precargarCarnet(String numeroSocio) {
+        QrRenderer qrRenderer = QrRenderer.getInstance(getApplicationContext());
+        qrRenderer.precargar(numeroSocio);
+        ClubRepository.getInstance(this).getCarnet(numeroSocio, new CancellationToken(), new ClubRepository.Callback<>() {
+            @Override
+            public void onResult(CarnetToken carnet, boolean desdeCache) {
+                if (carnet != null) {
+                    qrRenderer.precargar(carnet.getToken());
+                }
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                Log.w(TAG, "No se pudo descargar el carnet: " + exception.getMessage());
+            }
+        });
+    }
+
     /**
      * Método que se ejecuta cuando la actividad se vuelve visible al usuario.
      * Nota: La verificación de sesión activa se ha movido al método onCreate para
@@ -1,40 +1,37 @@
 package com.jlobatonm.socialclub_app.ui.mis_reservas;
 
-import android.content.Context;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.jlobatonm.socialclub_app.R;
-import com.jlobatonm.socialclub_app.database.InstalacionDao;
-import com.jlobatonm.socialclub_app.database.MySQLConnection;
+import com.jlobatonm.socialclub_app.database.CancellationToken;
 import com.jlobatonm.socialclub_app.database.ReservaDao;
-import com.jlobatonm.socialclub_app.database.SocioDao;
-import com.jlobatonm.socialclub_app.databinding.CardReservaBinding;
 import com.jlobatonm.socialclub_app.databinding.FragmentMisReservasBinding;
-import com.jlobatonm.socialclub_app.model.Instalacion;
 import com.jlobatonm.socialclub_app.model.Reserva;
-import com.jlobatonm.socialclub_app.model.Socio;
-
-import java.sql.Connection;
-import java.sql.SQLException;
-import java.text.SimpleDateFormat;
+import com.jlobatonm.socialclub_app.repository.ClubRepository;
+import com.jlobatonm.socialclub_app.ui.SesionSocioViewModel;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Comparator;
-import java.util.Date;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Set;
 
 /**
  * Fragmento que muestra las reservas activas del socio actual.
@@ -46,6 +43,11 @@ public class MisReservasFragment extends Fragment {
     private FragmentMisReservasBinding binding;
     private MisReservasViewModel viewModel;
     private boolean isFragmentActive = true;
+    private CancellationToken cancellationToken;
+    private SesionSocioViewModel sesionSocioViewModel;
+    private String numeroSocioCargado;
+    private List<Reserva> reservasProximas = Collections.emptyList();
+    private ReservaAdapter reservaAdapter;
 
     /**
      * Crea y configura la vista del fragmento.
@@ -60,17 +62,33 @@ public class MisReservasFragment extends Fragment {
                              ViewGroup container, Bundle savedInstanceState) {
         binding = FragmentMisReservasBinding.inflate(inflater, container, false);
         View root = binding.getRoot();
+        cancellationToken = CancellationToken.forLifecycle(getViewLifecycleOwner());
 
         viewModel = new ViewModelProvider(this).get(MisReservasViewModel.class);
+        sesionSocioViewModel = new ViewModelProvider(requireActivity()).get(SesionSocioViewModel.class);
+        numeroSocioCargado = null;
 
-        binding.contenedorReservas.removeAllViews();
+        reservaAdapter = new ReservaAdapter(this::mostrarDialogoCancelarReserva);
+        binding.recyclerReservas.setAdapter(reservaAdapter);
 
         viewModel.getReservas().observe(getViewLifecycleOwner(), reservas -> {
             if (reservas != null) {
-                if (reservas.isEmpty()) {
-                    mostrarMensajeSinReservas();
-                } else {
-                    mostrarReservas(reservas);
+                mostrarReservas(reservas);
+            }
+        });
+
+        viewModel.getHistorial().observe(getViewLifecycleOwner(), historial -> {
+            if (historial != null) {
+                renderizarReservas();
+            }
+        });
+
+        // Historial con desplazamiento infinito: al llegar al final se pide la siguiente página
+        binding.recyclerReservas.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (!recyclerView.canScrollVertically(1) && numeroSocioCargado != null && viewModel.hayMasHistorial()) {
+                    viewModel.cargarMasHistorial(numeroSocioCargado);
                 }
             }
         });
@@ -78,7 +96,7 @@ public class MisReservasFragment extends Fragment {
         viewModel.getCargando().observe(getViewLifecycleOwner(), estaCargando -> {
             if (estaCargando) {
                 binding.progressBar.setVisibility(View.VISIBLE);
-                binding.contenedorReservas.setVisibility(View.GONE);
+                binding.recyclerReservas.setVisibility(View.GONE);
                 binding.tvSinReservas.setVisibility(View.GONE);
             } else {
                 binding.progressBar.setVisibility(View.GONE);
@@ -92,7 +110,14 @@ public class MisReservasFragment extends Fragment {
             }
         });
 
-        cargarReservas();
+        // El socio puede llegar dos veces (caché y servidor); sólo se recargan las reservas si cambia
+        sesionSocioViewModel.getSocio().observe(getViewLifecycleOwner(), socio -> {
+            if (socio != null && !socio.getNumeroSocio().equals(numeroSocioCargado)) {
+                cargarReservas();
+            }
+        });
+
+        sesionSocioViewModel.cargar();
 
         return root;
     }
@@ -118,71 +143,38 @@ public class MisReservasFragment extends Fragment {
     }
 
     /**
-     * Carga las reservas del socio desde la base de datos.
-     * Primero obtiene el socio por email y luego sus reservas.
+     * Carga las reservas del socio de la sesión a través del {@link ClubRepository};
+     * si hay datos guardados en el dispositivo se muestran de inmediato mientras se revalidan
+     * con el servidor. Si el socio todavía no se conoce, se cargarán en cuanto llegue.
      */
     private void cargarReservas() {
         if (!isAdded()) return;
 
-        SharedPreferences prefs = requireContext().getSharedPreferences("user_prefs", Context.MODE_PRIVATE);
-        String email = prefs.getString("email", "");
-
-        if (email.isEmpty()) {
-            viewModel.setError("No se pudo identificar al usuario");
+        String numeroSocio = sesionSocioViewModel.getNumeroSocio();
+        if (numeroSocio == null) {
+            sesionSocioViewModel.cargar();
             return;
         }
+        numeroSocioCargado = numeroSocio;
 
         viewModel.setCargando(true);
+        viewModel.cargarMasHistorial(numeroSocio);
 
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
-            @Override
-            public void onSuccess(Connection connection) {
-                SocioDao socioDao = new SocioDao();
-                socioDao.getSocioByEmail(connection, email, new SocioDao.GetSocioCallback() {
+        ClubRepository.getInstance(requireContext()).getReservasSocio(numeroSocio, cancellationToken,
+                new ClubRepository.Callback<>() {
                     @Override
-                    public void onResult(Socio socio) {
-                        if (socio != null) {
-                            String numeroSocio = socio.getNumeroSocio();
-                            Log.d(TAG, "Número de socio obtenido: " + numeroSocio);
-
-                            ReservaDao reservaDao = new ReservaDao();
-                            reservaDao.getReservasBySocio(connection, numeroSocio, new ReservaDao.GetReservasBySocioCallback() {
-                                @Override
-                                public void onSuccess(List<Reserva> reservas) {
-                                    viewModel.setReservas(reservas);
-                                    viewModel.setCargando(false);
-                                }
-
-                                @Override
-                                public void onError(Exception exception) {
-                                    Log.e(TAG, "Error al cargar reservas: " + exception.getMessage());
-                                    viewModel.setError("Error al cargar reservas: " + exception.getMessage());
-                                    viewModel.setCargando(false);
-                                }
-                            });
-                        } else {
-                            Log.e(TAG, "No se encontró socio con el email: " + email);
-                            viewModel.setError("No se encontró socio con el email: " + email);
-                            viewModel.setCargando(false);
-                        }
+                    public void onResult(List<Reserva> reservas, boolean desdeCache) {
+                        viewModel.setReservas(reservas);
+                        viewModel.setCargando(false);
                     }
 
                     @Override
                     public void onError(Exception exception) {
-                        Log.e(TAG, "Error al obtener socio: " + exception.getMessage());
-                        viewModel.setError("Error al obtener socio: " + exception.getMessage());
+                        Log.e(TAG, "Error al cargar reservas: " + exception.getMessage());
+                        viewModel.setError("Error al cargar reservas: " + exception.getMessage());
                         viewModel.setCargando(false);
                     }
                 });
-            }
-
-            @Override
-            public void onFailure(SQLException exception) {
-                Log.e(TAG, "Error de conexión: " + exception.getMessage());
-                viewModel.setError("Error de conexión: " + exception.getMessage());
-                viewModel.setCargando(false);
-            }
-        });
     }
 
     /**
@@ -191,197 +183,94 @@ public class MisReservasFragment extends Fragment {
     private void mostrarMensajeSinReservas() {
         if (!isAdded()) return;
 
-        binding.contenedorReservas.setVisibility(View.GONE);
+        binding.recyclerReservas.setVisibility(View.GONE);
         binding.tvSinReservas.setVisibility(View.VISIBLE);
     }
 
     /**
-     * Muestra las reservas activas en la interfaz de usuario.
-     * Filtra las reservas pasadas y muestra solo las activas.
+     * Muestra las reservas activas en la interfaz de usuario, seguidas del historial ya cargado.
+     * Las reservas llegan ordenadas, del servidor o de la caché del dispositivo.
      *
-     * @param reservas Lista completa de reservas a procesar
+     * @param reservas Lista de reservas pendientes del socio
      */
     private void mostrarReservas(List<Reserva> reservas) {
+        reservasProximas = reservas;
+        renderizarReservas();
+    }
+
+    /**
+     * Envía al adaptador la lista completa: reservas activas y, debajo, el historial.
+     * El adaptador calcula las diferencias en segundo plano y sólo actualiza las filas que cambian.
+     */
+    private void renderizarReservas() {
         if (!isAdded()) return;
 
-        binding.contenedorReservas.setVisibility(View.VISIBLE);
-        binding.tvSinReservas.setVisibility(View.GONE);
+        // Las próximas pueden venir de la caché y haber empezado ya; ésas pertenecen al historial
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Reserva> proximas = new ArrayList<>();
+        Set<Integer> idsProximas = new HashSet<>();
+        for (Reserva reserva : reservasProximas) {
+            if (!yaEmpezada(reserva, ahora)) {
+                proximas.add(reserva);
+                idsProximas.add(reserva.getIdReserva());
+            }
+        }
 
-        binding.contenedorReservas.removeAllViews();
-
-        Date fechaActual = new Date();
-        List<Reserva> reservasActivas = new ArrayList<>();
-
-        for (Reserva reserva : reservas) {
-            Date fechaReserva = reserva.getFecha();
-
-            if (fechaReserva.compareTo(fechaActual) > 0) {
-                reservasActivas.add(reserva);
-            } else if (isSameDay(fechaReserva, fechaActual)) {
-                try {
-                    String horaReserva = reserva.getHora();
-                    if (horaReserva != null && !horaReserva.isEmpty()) {
-                        if (!horaReserva.contains(":")) {
-                            try {
-                                int horaInt = Integer.parseInt(horaReserva);
-                                horaReserva = String.format(Locale.getDefault(), "%02d:00", horaInt);
-                            } catch (NumberFormatException e) {
-                                Log.e(TAG, "Error al procesar hora: " + e.getMessage());
-                            }
-                        }
-
-                        String[] partes = horaReserva.split(":");
-                        if (partes.length >= 2) {
-                            int horaInt = Integer.parseInt(partes[0]);
-                            int minutoInt = Integer.parseInt(partes[1]);
-
-                            Calendar calActual = Calendar.getInstance();
-                            int horaActual = calActual.get(Calendar.HOUR_OF_DAY);
-                            int minutoActual = calActual.get(Calendar.MINUTE);
-
-                            if (horaInt > horaActual || (horaInt == horaActual && minutoInt > minutoActual)) {
-                                reservasActivas.add(reserva);
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    Log.e(TAG, "Error al procesar hora: " + e.getMessage());
+        // Ningún id puede repetirse en la lista: el adaptador usa ids estables
+        List<Reserva> historial = new ArrayList<>();
+        List<Reserva> historialCargado = viewModel.getHistorial().getValue();
+        if (historialCargado != null) {
+            for (Reserva reserva : historialCargado) {
+                if (!idsProximas.contains(reserva.getIdReserva())) {
+                    historial.add(reserva);
                 }
             }
         }
-
-        if (reservasActivas.isEmpty()) {
+        boolean sinHistorial = historial.isEmpty();
+        if (proximas.isEmpty() && sinHistorial) {
+            reservaAdapter.submitList(Collections.emptyList());
             mostrarMensajeSinReservas();
             return;
         }
 
-        reservasActivas.sort(Comparator.comparing(Reserva::getFecha));
+        binding.recyclerReservas.setVisibility(View.VISIBLE);
+        binding.tvSinReservas.setVisibility(View.GONE);
 
-        for (Reserva reserva : reservasActivas) {
-            View cardView = crearTarjetaReserva(reserva);
-            binding.contenedorReservas.addView(cardView);
+        List<ReservaAdapter.Item> items = new ArrayList<>();
+        if (proximas.isEmpty()) {
+            items.add(ReservaAdapter.Item.titulo(R.string.no_tienes_reservas_activas));
         }
-    }
-
-    /**
-     * Verifica si dos fechas corresponden al mismo día calendario.
-     *
-     * @param date1 Primera fecha a comparar
-     * @param date2 Segunda fecha a comparar
-     * @return true si ambas fechas son del mismo día, false en caso contrario
-     */
-    private boolean isSameDay(Date date1, Date date2) {
-        Calendar cal1 = Calendar.getInstance();
-        Calendar cal2 = Calendar.getInstance();
-        cal1.setTime(date1);
-        cal2.setTime(date2);
-        return cal1.get(Calendar.YEAR) == cal2.get(Calendar.YEAR) &&
-                cal1.get(Calendar.DAY_OF_YEAR) == cal2.get(Calendar.DAY_OF_YEAR);
-    }
-
-    /**
-     * Crea una tarjeta de vista para mostrar una reserva.
-     *
-     * @param reserva La reserva a mostrar
-     * @return Una vista que representa la tarjeta de la reserva
-     */
-    private View crearTarjetaReserva(Reserva reserva) {
-        if (!isAdded()) return null;
-
-        CardReservaBinding cardBinding = CardReservaBinding.inflate(
-                LayoutInflater.from(requireContext()), binding.contenedorReservas, false);
-
-        int imagenResourceId = obtenerImagenSegunInstalacion(reserva.getIdInstalacion());
-        cardBinding.imagenInstalacion.setImageResource(imagenResourceId);
-
-        obtenerNombreInstalacion(reserva.getIdInstalacion(), cardBinding.nombreInstalacion);
-
-        SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
-        String fechaFormateada = dateFormat.format(reserva.getFecha());
-        cardBinding.fechaReserva.setText(getString(R.string.fecha_formato, fechaFormateada));
-
-        String hora = reserva.getHora();
-        if (hora != null && !hora.isEmpty()) {
-            if (!hora.contains(":") || hora.split(":").length < 2) {
-                try {
-                    int horaInt = Integer.parseInt(hora);
-                    hora = String.format(Locale.getDefault(), "%02d:00", horaInt);
-                } catch (NumberFormatException e) {
-                    Log.e(TAG, "Error al procesar hora: " + e.getMessage());
-                }
-            } else {
-                String[] partes = hora.split(":");
-                if (partes.length >= 2) {
-                    hora = String.format(Locale.getDefault(), "%02d:%02d",
-                            Integer.parseInt(partes[0]), Integer.parseInt(partes[1]));
-                }
+        for (Reserva reserva : proximas) {
+            items.add(ReservaAdapter.Item.reserva(reserva, true));
+        }
+        if (!sinHistorial) {
+            items.add(ReservaAdapter.Item.titulo(R.string.historial_reservas));
+            for (Reserva reserva : historial) {
+                items.add(ReservaAdapter.Item.reserva(reserva, false));
             }
         }
-        cardBinding.horaReserva.setText(getString(R.string.hora_formato, hora));
-        cardBinding.btnCancelarReserva.setOnClickListener(v -> mostrarDialogoCancelarReserva(reserva));
-
-        return cardBinding.getRoot();
-    }
-
-    /**
-     * Determina qué imagen mostrar según el tipo de instalación.
-     *
-     * @param instalacionId El ID de la instalación
-     * @return El recurso de imagen a mostrar
-     */
-    private int obtenerImagenSegunInstalacion(int instalacionId) {
-        return switch (instalacionId % 5) {
-            case 0 -> R.drawable.padel;
-            case 1 -> R.drawable.padel;
-            case 3 -> R.drawable.futbol;
-            case 4 -> R.drawable.salon;
-            default -> R.drawable.logo_club_social;
-        };
+        reservaAdapter.submitList(items);
     }
 
     /**
-     * Obtiene y muestra el nombre de la instalación.
+     * Indica si una reserva ya ha empezado, con el mismo criterio que separa en el servidor
+     * las reservas próximas del historial.
      *
-     * @param instalacionId El ID de la instalación
-     * @param tvNombre      El TextView donde mostrar el nombre
+     * @param reserva Reserva a comprobar
+     * @param ahora   Fecha y hora actuales
+     * @return true si la fecha y hora de la reserva no son posteriores a ahora
      */
-    private void obtenerNombreInstalacion(int instalacionId, final TextView tvNombre) {
-        if (!isAdded()) return;
-
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
-            @Override
-            public void onSuccess(Connection connection) {
-                InstalacionDao instalacionDao = new InstalacionDao();
-                instalacionDao.getInstalacionById(connection, instalacionId, new InstalacionDao.GetInstalacionCallback() {
-                    @Override
-                    public void onResult(Instalacion instalacion) {
-                        if (instalacion != null && isAdded() && isFragmentActive) {
-                            requireActivity().runOnUiThread(() ->
-                                    tvNombre.setText(instalacion.getNombre()));
-                        }
-                    }
-
-                    @Override
-                    public void onError(Exception exception) {
-                        Log.e(TAG, "Error al obtener instalación: " + exception.getMessage());
-                        if (isAdded() && isFragmentActive) {
-                            requireActivity().runOnUiThread(() ->
-                                    tvNombre.setText(getString(R.string.instalacion_id_format, instalacionId))
-                            );
-                        }
-                    }
-                });
-            }
-
-            @Override
-            public void onFailure(SQLException exception) {
-                Log.e(TAG, "Error de conexión: " + exception.getMessage());
-                if (isAdded() && isFragmentActive) {
-                    requireActivity().runOnUiThread(() ->
-                            tvNombre.setText(getString(R.string.instalacion_id_format, instalacionId)));
-                }
-            }
-        });
+    private static boolean yaEmpezada(Reserva reserva, LocalDateTime ahora) {
+        if (reserva.getFecha() == null || reserva.getHora() == null) {
+            return false;
+        }
+        try {
+            LocalDate fecha = Instant.ofEpochMilli(reserva.getFecha().getTime())
+                    .atZone(ZoneId.systemDefault()).toLocalDate();
+            return !LocalDateTime.of(fecha, LocalTime.parse(reserva.getHora())).isAfter(ahora);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
     }
 
     /**
@@ -410,35 +299,27 @@ public class MisReservasFragment extends Fragment {
 
         viewModel.setCargando(true);
 
+        // Sin token de ciclo de vida: la cancelación debe llegar a la base de datos aunque se salga de la pantalla
         ReservaDao reservaDao = new ReservaDao();
+        ClubRepository repository = ClubRepository.getInstance(requireContext());
 
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
+        reservaDao.eliminarReserva(reserva.getIdReserva(), new ReservaDao.EliminarReservaCallback() {
             @Override
-            public void onSuccess(Connection connection) {
-                reservaDao.eliminarReserva(connection, reserva.getIdReserva(), new ReservaDao.EliminarReservaCallback() {
-                    @Override
-                    public void onSuccess() {
-                        if (isAdded() && isFragmentActive) {
-                            requireActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Reserva cancelada correctamente", Toast.LENGTH_SHORT).show();
-                                cargarReservas();
-                            });
-                        } else {
-                            viewModel.setCargando(false);
-                        }
-                    }
-
-                    @Override
-                    public void onError(Exception exception) {
-                        viewModel.setError("Error al cancelar reserva: " + exception.getMessage());
-                        viewModel.setCargando(false);
-                    }
-                });
+            public void onSuccess() {
+                repository.invalidar(ClubRepository.Recurso.RESERVAS);
+                if (isAdded() && isFragmentActive) {
+                    requireActivity().runOnUiThread(() -> {
+                        Toast.makeText(requireContext(), "Reserva cancelada correctamente", Toast.LENGTH_SHORT).show();
+                        cargarReservas();
+                    });
+                } else {
+                    viewModel.setCargando(false);
+                }
             }
 
             @Override
-            public void onFailure(SQLException exception) {
-                viewModel.setError("Error de conexión: " + exception.getMessage());
+            public void onError(Exception exception) {
+                viewModel.setError("Error al cancelar reserva: " + exception.getMessage());
                 viewModel.setCargando(false);
             }
         });
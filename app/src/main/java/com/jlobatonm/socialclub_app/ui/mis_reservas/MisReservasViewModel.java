@@ -1,11 +1,16 @@
 package com.jlobatonm.socialclub_app.ui.mis_reservas;
 
+import android.util.Log;
+
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import com.jlobatonm.socialclub_app.database.CancellationToken;
+import com.jlobatonm.socialclub_app.database.ReservaDao;
 import com.jlobatonm.socialclub_app.model.Reserva;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -14,9 +19,18 @@ import java.util.List;
  */
 public class MisReservasViewModel extends ViewModel {
 
+    private static final String TAG = "MisReservasViewModel";
+
     private final MutableLiveData<List<Reserva>> reservas;
     private final MutableLiveData<Boolean> cargando;
     private final MutableLiveData<String> error;
+    private final MutableLiveData<List<Reserva>> historial = new MutableLiveData<>();
+    private final CancellationToken cancellationToken = new CancellationToken();
+    private final List<Reserva> paginasHistorial = new ArrayList<>();
+    private String numeroSocioHistorial;
+    private boolean cargandoHistorial;
+    private int generacionHistorial;
+    private boolean hayMasHistorial = true;
 
     /**
      * Constructor que inicializa los LiveData para reservas, estado de carga y errores.
@@ -80,4 +94,79 @@ public class MisReservasViewModel extends ViewModel {
     public void setError(String mensaje) {
         error.setValue(mensaje);
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtiene las reservas pasadas cargadas hasta ahora, de la más reciente a la más antigua.
+     *
+     * @return LiveData con el historial de reservas
+     */
+    public LiveData<List<Reserva>> getHistorial() {
+        return historial;
+    }
+
+    /**
+     * Carga la siguiente página del historial de reservas del socio y la añade a {@link #getHistorial()}.
+     * No hace nada si ya se está cargando una página o si no quedan más. Si cambia el socio,
+     * el historial empieza de nuevo y la página que se estuviera cargando del socio anterior se descarta.
+     *
+     * @param numeroSocio Número del socio cuyo historial se carga
+     */
+    public void cargarMasHistorial(String numeroSocio) {
+        if (!numeroSocio.equals(numeroSocioHistorial)) {
+            numeroSocioHistorial = numeroSocio;
+            paginasHistorial.clear();
+            historial.setValue(new ArrayList<>());
+            hayMasHistorial = true;
+            cargandoHistorial = false;
+            generacionHistorial++;
+        }
+        if (cargandoHistorial || !hayMasHistorial) {
+            return;
+        }
+        cargandoHistorial = true;
+        int generacion = generacionHistorial;
+
+        Reserva ultima = paginasHistorial.isEmpty() ? null : paginasHistorial.get(paginasHistorial.size() - 1);
+        new ReservaDao(cancellationToken).getHistorialReservas(numeroSocio, ultima, ReservaDao.TAMANIO_PAGINA_HISTORIAL,
+                new ReservaDao.GetReservasBySocioCallback() {
+                    @Override
+                    public void onSuccess(List<Reserva> pagina) {
+                        if (generacion != generacionHistorial) {
+                            return;
+                        }
+                        cargandoHistorial = false;
+                        hayMasHistorial = pagina.size() == ReservaDao.TAMANIO_PAGINA_HISTORIAL;
+                        paginasHistorial.addAll(pagina);
+                        historial.setValue(new ArrayList<>(paginasHistorial));
+                    }
+
+                    @Override
+                    public void onError(Exception exception) {
+                        if (generacion != generacionHistorial) {
+                            return;
+                        }
+                        cargandoHistorial = false;
+                        Log.e(TAG, "Error al cargar el historial de reservas", exception);
+                        error.setValue("Error al cargar el historial: " + exception.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Indica si quedan páginas del historial por cargar.
+     *
+     * @return true si la última página estaba completa
+     */
+    public boolean hayMasHistorial() {
+        return hayMasHistorial;
+    }
+
+    /**
+     * Cancela las consultas pendientes al destruirse el ViewModel.
+     */
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        cancellationToken.cancel();
+    }
+}
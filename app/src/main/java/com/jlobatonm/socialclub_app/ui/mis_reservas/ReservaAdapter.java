@@ -0,0 +1,240 @@
+package com.jlobatonm.socialclub_app.ui.mis_reservas;
+
+import android.content.Context;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.jlobatonm.socialclub_app.R;
+import com.jlobatonm.socialclub_app.databinding.CardReservaBinding;
+import com.jlobatonm.socialclub_app.databinding.ItemTituloReservasBinding;
+import com.jlobatonm.socialclub_app.model.Reserva;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Adaptador de la lista de reservas del socio: títulos de sección, reservas pendientes
+ * (que pueden cancelarse) y reservas del historial.
+ * <p>
+ * Las diferencias entre la lista anterior y la nueva se calculan en segundo plano
+ * ({@link ListAdapter} usa un {@code AsyncListDiffer}), de modo que al cargar una página
+ * del historial o cancelar una reserva sólo se tocan las filas afectadas.
+ * Las reservas usan su identificador como id estable y los títulos uno negativo.
+ * </p>
+ */
+public class ReservaAdapter extends ListAdapter<ReservaAdapter.Item, RecyclerView.ViewHolder> {
+
+    private static final String TAG = "ReservaAdapter";
+    private static final int TIPO_TITULO = 0;
+    private static final int TIPO_RESERVA = 1;
+
+    private static final DiffUtil.ItemCallback<Item> DIFF_CALLBACK = new DiffUtil.ItemCallback<>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Item antiguo, @NonNull Item nuevo) {
+            return antiguo.getId() == nuevo.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Item antiguo, @NonNull Item nuevo) {
+            if (antiguo.reserva == null || nuevo.reserva == null) {
+                return antiguo.titulo == nuevo.titulo;
+            }
+            return antiguo.cancelable == nuevo.cancelable
+                    && antiguo.reserva.getIdInstalacion() == nuevo.reserva.getIdInstalacion()
+                    && Objects.equals(antiguo.reserva.getFecha(), nuevo.reserva.getFecha())
+                    && Objects.equals(antiguo.reserva.getHora(), nuevo.reserva.getHora())
+                    && Objects.equals(antiguo.reserva.getNombreInstalacion(), nuevo.reserva.getNombreInstalacion());
+        }
+    };
+
+    /**
+     * Elemento de la lista: un título de sección o una reserva.
+     */
+    public static final class Item {
+        private final int titulo;
+        private final Reserva reserva;
+        private final boolean cancelable;
+
+        private Item(int titulo, Reserva reserva, boolean cancelable) {
+            this.titulo = titulo;
+            this.reserva = reserva;
+            this.cancelable = cancelable;
+        }
+
+        /**
+         * Crea un título de sección.
+         *
+         * @param titulo Recurso de texto del título
+         * @return Elemento de título
+         */
+        public static Item titulo(int titulo) {
+            return new Item(titulo, null, false);
+        }
+
+        /**
+         * Crea un elemento de reserva.
+         *
+         * @param reserva    Reserva a mostrar
+         * @param cancelable true si la reserva está pendiente y puede cancelarse
+         * @return Elemento de reserva
+         */
+        public static Item reserva(Reserva reserva, boolean cancelable) {
+            return new Item(0, reserva, cancelable);
+        }
+
+        private long getId() {
+            return reserva != null ? reserva.getIdReserva() : -titulo;
+        }
+    }
+
+    /**
+     * Interfaz para recibir la petición de cancelar una reserva.
+     */
+    public interface OnCancelarReservaListener {
+        /**
+         * Se invoca al pulsar el botón de cancelar de una reserva pendiente.
+         *
+         * @param reserva La reserva a cancelar
+         */
+        void onCancelarReserva(Reserva reserva);
+    }
+
+    private final OnCancelarReservaListener listener;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
+
+    /**
+     * Crea el adaptador.
+     *
+     * @param listener Receptor de las peticiones de cancelación
+     */
+    public ReservaAdapter(OnCancelarReservaListener listener) {
+        super(DIFF_CALLBACK);
+        this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return getItem(position).reserva != null ? TIPO_RESERVA : TIPO_TITULO;
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        LayoutInflater inflater = LayoutInflater.from(parent.getContext());
+        if (viewType == TIPO_TITULO) {
+            return new TituloViewHolder(ItemTituloReservasBinding.inflate(inflater, parent, false));
+        }
+        return new ReservaViewHolder(CardReservaBinding.inflate(inflater, parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        Item item = getItem(position);
+        if (holder instanceof TituloViewHolder) {
+            ((TituloViewHolder) holder).binding.textTitulo.setText(item.titulo);
+        } else {
+            bindReserva(((ReservaViewHolder) holder).binding, item);
+        }
+    }
+
+    private void bindReserva(CardReservaBinding cardBinding, Item item) {
+        Reserva reserva = item.reserva;
+        Context context = cardBinding.getRoot().getContext();
+
+        cardBinding.imagenInstalacion.setImageResource(obtenerImagenSegunInstalacion(reserva.getIdInstalacion()));
+
+        String nombreInstalacion = reserva.getNombreInstalacion();
+        cardBinding.nombreInstalacion.setText(nombreInstalacion != null
+                ? nombreInstalacion
+                : context.getString(R.string.instalacion_id_format, reserva.getIdInstalacion()));
+
+        String fechaFormateada = dateFormat.format(reserva.getFecha());
+        cardBinding.fechaReserva.setText(context.getString(R.string.fecha_formato, fechaFormateada));
+        cardBinding.horaReserva.setText(context.getString(R.string.hora_formato, formatearHora(reserva.getHora())));
+
+        if (item.cancelable) {
+            cardBinding.btnCancelarReserva.setVisibility(View.VISIBLE);
+            cardBinding.btnCancelarReserva.setOnClickListener(v -> listener.onCancelarReserva(reserva));
+        } else {
+            cardBinding.btnCancelarReserva.setVisibility(View.GONE);
+            cardBinding.btnCancelarReserva.setOnClickListener(null);
+        }
+    }
+
+    /**
+     * Normaliza la hora de una reserva al formato HH:MM.
+     *
+     * @param hora Hora tal y como llega de la base de datos
+     * @return Hora en formato HH:MM, o la original si no se puede interpretar
+     */
+    private static String formatearHora(String hora) {
+        if (hora == null || hora.isEmpty()) {
+            return hora;
+        }
+        try {
+            String[] partes = hora.split(":");
+            if (partes.length < 2) {
+                return String.format(Locale.getDefault(), "%02d:00", Integer.parseInt(hora));
+            }
+            return String.format(Locale.getDefault(), "%02d:%02d",
+                    Integer.parseInt(partes[0]), Integer.parseInt(partes[1]));
+        } catch (NumberFormatException e) {
+            Log.e(TAG, "Error al procesar hora: " + e.getMessage());
+            return hora;
+        }
+    }
+
+    /**
+     * Determina qué imagen mostrar según el tipo de instalación.
+     *
+     * @param instalacionId El ID de la instalación
+     * @return El recurso de imagen a mostrar
+     */
+    private static int obtenerImagenSegunInstalacion(int instalacionId) {
+        return switch (instalacionId % 5) {
+            case 0 -> R.drawable.padel;
+            case 1 -> R.drawable.padel;
+            case 3 -> R.drawable.futbol;
+            case 4 -> R.drawable.salon;
+            default -> R.drawable.logo_club_social;
+        };
+    }
+
+    /**
+     * Fila de título de sección.
+     */
+    static class TituloViewHolder extends RecyclerView.ViewHolder {
+        private final ItemTituloReservasBinding binding;
+
+        TituloViewHolder(ItemTituloReservasBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+    }
+
+    /**
+     * Fila de reserva.
+     */
+    static class ReservaViewHolder extends RecyclerView.ViewHolder {
+        private final CardReservaBinding binding;
+
+        ReservaViewHolder(CardReservaBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+    }
+}
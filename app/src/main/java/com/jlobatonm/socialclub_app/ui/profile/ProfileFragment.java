@@ -6,17 +6,11 @@ import android.app.DatePickerDialog;
 import android.content.ActivityNotFoundException;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.graphics.Matrix;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.Environment;
-import android.os.Handler;
-import android.os.Looper;
-import android.os.ParcelFileDescriptor;
 import android.provider.MediaStore;
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -34,23 +28,18 @@ import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.jlobatonm.socialclub_app.R;
-import com.jlobatonm.socialclub_app.database.MySQLConnection;
 import com.jlobatonm.socialclub_app.database.SocioDao;
 import com.jlobatonm.socialclub_app.databinding.FragmentProfileBinding;
+import com.jlobatonm.socialclub_app.model.CambiosSocio;
 import com.jlobatonm.socialclub_app.model.Socio;
+import com.jlobatonm.socialclub_app.ui.SesionSocioViewModel;
+import com.jlobatonm.socialclub_app.utils.CredentialService;
+import com.jlobatonm.socialclub_app.utils.FotoPerfilEncoder;
+import com.jlobatonm.socialclub_app.utils.ImageLoader;
 import com.jlobatonm.socialclub_app.utils.PasswordCache;
 
-import org.mindrot.jbcrypt.BCrypt;
-
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileDescriptor;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -75,7 +64,9 @@ public class ProfileFragment extends Fragment {
     private final SimpleDateFormat dateFormatDisplay = new SimpleDateFormat("d 'de' MMMM 'de' yyyy", new Locale("es", "ES"));
     private boolean pendingCameraAction = false;
     private boolean pendingGalleryAction = false;
-    private boolean fotoChanged = false;
+    private byte[] fotoNueva;
+    private String fotoNuevaHash;
+    private SesionSocioViewModel sesionSocioViewModel;
 
     /**
      * Crea y configura la vista del fragmento.
@@ -90,6 +81,7 @@ public class ProfileFragment extends Fragment {
         profileViewModel = new ViewModelProvider(this).get(ProfileViewModel.class);
         binding = FragmentProfileBinding.inflate(inflater, container, false);
         View root = binding.getRoot();
+        sesionSocioViewModel = new ViewModelProvider(requireActivity()).get(SesionSocioViewModel.class);
         binding.imageViewFoto.setOnClickListener(v -> mostrarOpcionesFoto());
 
         binding.textNumeroSocio.setEnabled(false);
@@ -100,6 +92,8 @@ public class ProfileFragment extends Fragment {
         profileViewModel.getSocioData().observe(getViewLifecycleOwner(), socio -> {
             if (socio != null) {
                 currentSocio = socio;
+                // Si hay una foto elegida sin guardar, se sigue mostrando esa
+                boolean fotoPendiente = fotoNuevaHash != null;
 
                 binding.textNumeroSocio.setText(socio.getNumeroSocio());
                 binding.textNombre.setText(socio.getNombre());
@@ -113,28 +107,26 @@ public class ProfileFragment extends Fragment {
                     binding.textFechaNacimiento.setText(formattedDate);
                 }
 
+                binding.textContrasenia.setText(R.string.contrase_a_cifrada);
                 String plainPassword = PasswordCache.getInstance().getPassword();
-                if (plainPassword != null && !plainPassword.isEmpty() &&
-                        SocioDao.verifyPassword(plainPassword, socio.getPassword())) {
-                    binding.textContrasenia.setText(plainPassword);
-                } else {
-                    binding.textContrasenia.setText(R.string.contrase_a_cifrada);
+                if (plainPassword != null && !plainPassword.isEmpty() && socio.getPassword() != null) {
+                    CredentialService.getInstance().verificar(plainPassword, socio.getPassword(), valida -> {
+                        if (valida && binding != null && currentSocio == socio) {
+                            binding.textContrasenia.setText(plainPassword);
+                        }
+                    });
                 }
 
-                byte[] fotoBlob = socio.getFoto();
-                if (fotoBlob != null && fotoBlob.length > 0) {
-                    Log.d(TAG, "Foto BLOB length: " + fotoBlob.length);
-                    Bitmap bitmap = BitmapFactory.decodeByteArray(fotoBlob, 0, fotoBlob.length);
-                    if (bitmap != null) {
-                        binding.imageViewFoto.setImageBitmap(bitmap);
-                    } else {
-                        Log.d(TAG, "Failed to decode bitmap");
-                        saveBlobToFile(fotoBlob);
-                    }
+                if (socio.getFotoHash() != null && !fotoPendiente) {
+                    ImageLoader.getInstance(requireContext()).cargar(binding.imageViewFoto,
+                            ImageLoader.clave("socio", socio.getNumeroSocio(), socio.getFotoHash()),
+                            sesionSocioViewModel.getFuenteFoto(socio.getNumeroSocio()), null);
                 }
             }
         });
 
+        sesionSocioViewModel.getSocio().observe(getViewLifecycleOwner(), profileViewModel::setSocioData);
+
         binding.btnGuardar.setOnClickListener(v -> mostrarDialogoConfirmacion());
 
         cargarDatosSocio();
@@ -328,115 +320,53 @@ public class ProfileFragment extends Fragment {
      * @return true si hay cambios, false en caso contrario.
      */
     private boolean verificarSiHayCambios() {
-        String nombreOriginal = currentSocio.getNombre();
-        String apellidosOriginal = currentSocio.getApellidos();
-        String telefonoOriginal = currentSocio.getTelefono();
-        String dniOriginal = currentSocio.getDni();
-        String emailOriginal = currentSocio.getEmail();
-        String fechaOriginal = "";
-        if (currentSocio.getFechaNacimiento() != null) {
-            fechaOriginal = dateFormatDisplay.format(currentSocio.getFechaNacimiento());
-        }
-
-        String newPassword = binding.textContrasenia.getText().toString();
-        String cachedPassword = PasswordCache.getInstance().getPassword();
-        boolean passwordChanged = !newPassword.equals("(Contraseña cifrada)") &&
-                (!newPassword.equals(cachedPassword));
-
-        boolean hayFotoActual = binding.imageViewFoto.getDrawable() != null;
-        boolean hayFotoOriginal = currentSocio.getFoto() != null && currentSocio.getFoto().length > 0;
-
-        if (hayFotoActual != hayFotoOriginal) {
-            fotoChanged = true;
-            Log.d(TAG, "Cambio de foto detectado: presencia de foto diferente");
-        } else if (hayFotoActual) {
-            Bitmap bitmap = ((android.graphics.drawable.BitmapDrawable) binding.imageViewFoto.getDrawable()).getBitmap();
-            String hashActual = calcularHashImagen(bitmap);
-            String hashOriginal = calcularHashImagen(currentSocio.getFoto());
-
-            if (!hashActual.equals(hashOriginal)) {
-                fotoChanged = true;
-                Log.d(TAG, "Cambio de foto detectado: hash diferente");
-            }
+        try {
+            return !leerCambios().isEmpty() || passwordCambiada();
+        } catch (ParseException e) {
+            // La fecha no es válida: guardarCambios lo notificará
+            return true;
         }
-
-        return !binding.textNombre.getText().toString().equals(nombreOriginal) ||
-                !binding.textApellidos.getText().toString().equals(apellidosOriginal) ||
-                !binding.textTelefono.getText().toString().equals(telefonoOriginal) ||
-                !binding.textDni.getText().toString().equals(dniOriginal) ||
-                !binding.textEmail.getText().toString().equals(emailOriginal) ||
-                !binding.textFechaNacimiento.getText().toString().equals(fechaOriginal) ||
-                passwordChanged ||
-                fotoChanged;
     }
 
     /**
-     * Calcula un hash simple para una imagen bitmap.
+     * Compara el formulario con el socio cargado y registra sólo los campos distintos.
+     * La foto se compara por su hash, sin decodificarla.
      *
-     * @param bitmap La imagen para calcular su hash.
-     * @return Un string que representa el hash de la imagen.
+     * @return Cambios pendientes de guardar, sin la contraseña.
+     * @throws ParseException Si la fecha de nacimiento no es válida.
      */
-    private String calcularHashImagen(Bitmap bitmap) {
-        Bitmap smallBitmap = Bitmap.createScaledBitmap(bitmap, 50, 50, true);
-
-        StringBuilder hash = new StringBuilder();
-        for (int x = 0; x < smallBitmap.getWidth(); x += 10) {
-            for (int y = 0; y < smallBitmap.getHeight(); y += 10) {
-                hash.append(smallBitmap.getPixel(x, y) & 0xFFFFFF);
-            }
-        }
-        return hash.toString();
+    private CambiosSocio leerCambios() throws ParseException {
+        CambiosSocio cambios = new CambiosSocio(currentSocio);
+        cambios.setNombre(binding.textNombre.getText().toString());
+        cambios.setApellidos(binding.textApellidos.getText().toString());
+        cambios.setTelefono(binding.textTelefono.getText().toString());
+        cambios.setDni(binding.textDni.getText().toString());
+        cambios.setEmail(binding.textEmail.getText().toString());
+
+        String fechaStr = binding.textFechaNacimiento.getText().toString();
+        cambios.setFechaNacimiento(fechaStr.isEmpty() ? null : dateFormatDisplay.parse(fechaStr));
+
+        cambios.setFoto(fotoNueva, fotoNuevaHash);
+        return cambios;
     }
 
     /**
-     * Calcula un hash simple para una imagen en formato de bytes.
+     * Indica si se ha escrito una contraseña distinta de la actual.
      *
-     * @param imagenBytes Los bytes de la imagen.
-     * @return Un string que representa el hash de la imagen.
+     * @return true si hay una contraseña nueva.
      */
-    private String calcularHashImagen(byte[] imagenBytes) {
-        if (imagenBytes == null || imagenBytes.length == 0) {
-            return "";
-        }
-
-        Bitmap bitmap = BitmapFactory.decodeByteArray(imagenBytes, 0, imagenBytes.length);
-        if (bitmap == null) {
-            return "";
-        }
-
-        return calcularHashImagen(bitmap);
+    private boolean passwordCambiada() {
+        String newPassword = binding.textContrasenia.getText().toString();
+        String cachedPassword = PasswordCache.getInstance().getPassword();
+        return !newPassword.equals("(Contraseña cifrada)") && !newPassword.equals(cachedPassword);
     }
 
     /**
-     * Carga los datos del socio desde la base de datos.
+     * Carga los datos del socio de la sesión. Si ya se cargaron en otra pantalla,
+     * se reutilizan sin volver a consultar la base de datos.
      */
     private void cargarDatosSocio() {
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
-            @Override
-            public void onSuccess(Connection connection) {
-                String email = getUserEmail();
-                SocioDao socioDao = new SocioDao();
-
-                socioDao.getSocioByEmail(connection, email, new SocioDao.GetSocioCallback() {
-                    @Override
-                    public void onResult(Socio socio) {
-                        profileViewModel.setSocioData(socio);
-                    }
-
-                    @Override
-                    public void onError(Exception exception) {
-                        Toast.makeText(getContext(), "Error al cargar datos: " + exception.getMessage(),
-                                Toast.LENGTH_SHORT).show();
-                    }
-                });
-            }
-
-            @Override
-            public void onFailure(SQLException exception) {
-                Toast.makeText(getContext(), "Error de conexión: " + exception.getMessage(),
-                        Toast.LENGTH_SHORT).show();
-            }
-        });
+        sesionSocioViewModel.cargar();
     }
 
     /**
@@ -444,46 +374,37 @@ public class ProfileFragment extends Fragment {
      */
     private void guardarCambios() {
         try {
-            currentSocio.setNombre(binding.textNombre.getText().toString());
-            currentSocio.setApellidos(binding.textApellidos.getText().toString());
-            currentSocio.setTelefono(binding.textTelefono.getText().toString());
-            currentSocio.setDni(binding.textDni.getText().toString());
-            currentSocio.setEmail(binding.textEmail.getText().toString());
-
-            String fechaStr = binding.textFechaNacimiento.getText().toString();
+            CambiosSocio cambios;
             try {
-                Date fechaNacimiento = dateFormatDisplay.parse(fechaStr);
-                currentSocio.setFechaNacimiento(fechaNacimiento);
+                cambios = leerCambios();
             } catch (ParseException e) {
                 Toast.makeText(getContext(), "Error al procesar la fecha de nacimiento",
                         Toast.LENGTH_SHORT).show();
                 return;
             }
 
-            String newPassword = binding.textContrasenia.getText().toString();
-            String cachedPassword = PasswordCache.getInstance().getPassword();
-            boolean passwordChanged = !newPassword.equals("(Contraseña cifrada)") &&
-                    (!newPassword.equals(cachedPassword));
-
-            if (passwordChanged) {
-                String hashedPassword = BCrypt.hashpw(newPassword, BCrypt.gensalt());
-                currentSocio.setPassword(hashedPassword);
-                PasswordCache.getInstance().setPassword(newPassword);
-            }
-
-            if (binding.imageViewFoto.getDrawable() != null) {
-                Bitmap bitmap = ((android.graphics.drawable.BitmapDrawable) binding.imageViewFoto.getDrawable()).getBitmap();
-                currentSocio.setFoto(bitmapToByteArray(bitmap));
-            } else {
-                currentSocio.setFoto(null);
+            Context appContext = requireContext().getApplicationContext();
+            if (!passwordCambiada()) {
+                actualizarDatosSocio(appContext, cambios, null);
+                return;
             }
 
-            actualizarDatosSocio(currentSocio);
+            // El cifrado BCrypt se hace fuera del hilo principal
+            String newPassword = binding.textContrasenia.getText().toString();
+            CredentialService.getInstance().hash(newPassword, new CredentialService.HashCallback() {
+                @Override
+                public void onResult(String hash) {
+                    cambios.setPassword(hash);
+                    actualizarDatosSocio(appContext, cambios, newPassword);
+                }
 
-            new Handler(Looper.getMainLooper()).postDelayed(() -> {
-                fotoChanged = false;
-                cargarDatosSocio();
-            }, 500);
+                @Override
+                public void onError(Exception exception) {
+                    if (!isAdded()) return;
+                    Toast.makeText(getContext(), "Error al guardar cambios: " + exception.getMessage(),
+                            Toast.LENGTH_SHORT).show();
+                }
+            });
 
         } catch (Exception e) {
             Toast.makeText(getContext(), "Error al guardar cambios: " + e.getMessage(),
@@ -493,124 +414,66 @@ public class ProfileFragment extends Fragment {
     }
 
     /**
-     * Actualiza los datos del socio en la base de datos.
+     * Guarda en la base de datos sólo los campos modificados del socio.
      *
-     * @param socio El objeto Socio con los datos actualizados.
+     * @param appContext  Contexto de la aplicación, válido aunque el fragmento ya no esté visible.
+     * @param cambios     Cambios registrados sobre el socio cargado.
+     * @param newPassword Contraseña nueva en claro, o null si no cambia.
      */
-    private void actualizarDatosSocio(final Socio socio) {
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
+    private void actualizarDatosSocio(final Context appContext, final CambiosSocio cambios, final String newPassword) {
+        // Sin token de ciclo de vida: la escritura debe completarse aunque el usuario salga de la pantalla
+        SocioDao socioDao = new SocioDao();
+        socioDao.actualizarSocio(cambios, new SocioDao.UpdateSocioCallback() {
             @Override
-            public void onSuccess(Connection connection) {
-                new Thread(() -> {
-                    try {
-                        String query = "UPDATE socio SET nombre = ?, apellidos = ?, telefono = ?, " +
-                                "dni = ?, email = ?, fecha_nacimiento = ?";
-
-                        String cachedPassword = PasswordCache.getInstance().getPassword();
-                        boolean passwordChanged = cachedPassword != null &&
-                                !binding.textContrasenia.getText().toString().equals("(Contraseña cifrada)");
-
-                        query += ", foto = ?";
-
-                        if (passwordChanged) {
-                            query += ", contrasenia = ?";
-                        }
-
-                        query += " WHERE numero_socio = ?";
-
-                        PreparedStatement statement = connection.prepareStatement(query);
-
-                        statement.setString(1, socio.getNombre());
-                        statement.setString(2, socio.getApellidos());
-                        statement.setString(3, socio.getTelefono());
-                        statement.setString(4, socio.getDni());
-                        statement.setString(5, socio.getEmail());
-                        statement.setDate(6, new java.sql.Date(socio.getFechaNacimiento().getTime()));
-
-                        int paramIndex = 7;
-                        statement.setBytes(paramIndex++, socio.getFoto());
-
-                        if (passwordChanged) {
-                            statement.setString(paramIndex++, socio.getPassword());
-                        }
-
-                        statement.setString(paramIndex, socio.getNumeroSocio());
-
-                        int rowsAffected = statement.executeUpdate();
-                        statement.close();
-
-                        requireActivity().runOnUiThread(() -> {
-                            if (rowsAffected > 0) {
-                                Toast.makeText(getContext(), "Datos actualizados correctamente",
-                                        Toast.LENGTH_SHORT).show();
-                            } else {
-                                Toast.makeText(getContext(), "No se pudo actualizar los datos",
-                                        Toast.LENGTH_SHORT).show();
-                            }
-                        });
-
-                    } catch (SQLException e) {
-                        Log.e(TAG, "Error al actualizar socio: " + e.getMessage(), e);
-                        requireActivity().runOnUiThread(() -> Toast.makeText(getContext(),
-                                "Error al actualizar: " + e.getMessage(),
-                                Toast.LENGTH_SHORT).show());
+            public void onResult(boolean actualizado) {
+                if (actualizado) {
+                    if (newPassword != null) {
+                        PasswordCache.getInstance().setPassword(newPassword);
+                    }
+                    if (cambios.tieneFoto()) {
+                        fotoNueva = null;
+                        fotoNuevaHash = null;
                     }
-                }).start();
+                    if (cambios.contiene(CambiosSocio.Campo.EMAIL)) {
+                        // La sesión se identifica por el email
+                        appContext.getSharedPreferences("user_prefs", Context.MODE_PRIVATE).edit()
+                                .putString("email", (String) cambios.getCampos().get(CambiosSocio.Campo.EMAIL))
+                                .apply();
+                    }
+                }
+                sesionSocioViewModel.recargar();
+                if (!isAdded()) return;
+                if (actualizado) {
+                    Toast.makeText(getContext(), "Datos actualizados correctamente",
+                            Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(getContext(), "No se pudo actualizar los datos",
+                            Toast.LENGTH_SHORT).show();
+                }
             }
 
             @Override
-            public void onFailure(SQLException exception) {
-                Toast.makeText(getContext(), "Error de conexión: " + exception.getMessage(),
+            public void onConflicto() {
+                sesionSocioViewModel.recargar();
+                if (!isAdded()) return;
+                Toast.makeText(getContext(), "El perfil se ha modificado en otro dispositivo. " +
+                        "Revisa los datos y vuelve a guardar", Toast.LENGTH_LONG).show();
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                if (!isAdded()) return;
+                Toast.makeText(getContext(), "Error al actualizar: " + exception.getMessage(),
                         Toast.LENGTH_SHORT).show();
             }
         });
     }
 
-    /**
-     * Obtiene el email del usuario actual desde las preferencias compartidas.
-     *
-     * @return El email del usuario.
-     */
-    private String getUserEmail() {
-        SharedPreferences sharedPreferences = requireActivity().getSharedPreferences("user_prefs", Context.MODE_PRIVATE);
-        return sharedPreferences.getString("email", "");
-    }
-
-    /**
-     * Guarda un blob de bytes en un archivo para debug.
-     *
-     * @param blob Los bytes a guardar.
-     */
-    private void saveBlobToFile(byte[] blob) {
-        File file = new File(requireContext().getExternalFilesDir(null), "socio_foto_blob");
-        try (FileOutputStream fos = new FileOutputStream(file)) {
-            fos.write(blob);
-            Log.d(TAG, "BLOB saved to file: " + file.getAbsolutePath());
-        } catch (IOException e) {
-            Log.e(TAG, "Failed to save BLOB to file", e);
-        }
-    }
-
     /**
      * Procesa la imagen capturada desde la cámara.
      */
     private void procesarImagenCapturada() {
-        try {
-            Bitmap bitmap = getBitmapFromUri(photoURI);
-            if (bitmap != null) {
-                bitmap = fixImageRotation(photoURI);
-                bitmap = resizeBitmap(bitmap);
-                binding.imageViewFoto.setImageBitmap(bitmap);
-
-                if (currentSocio != null) {
-                    currentSocio.setFoto(bitmapToByteArray(bitmap));
-                }
-            }
-        } catch (IOException e) {
-            Log.e(TAG, "Error al procesar la imagen", e);
-            Toast.makeText(requireContext(), "Error al procesar la imagen",
-                    Toast.LENGTH_SHORT).show();
-        }
+        procesarFoto(photoURI);
     }
 
     /**
@@ -619,82 +482,36 @@ public class ProfileFragment extends Fragment {
      * @param selectedImage URI de la imagen seleccionada.
      */
     private void procesarImagenGaleria(Uri selectedImage) {
-        try {
-            Bitmap bitmap = getBitmapFromUri(selectedImage);
-            if (bitmap != null) {
-                bitmap = fixImageRotation(selectedImage);
-                bitmap = resizeBitmap(bitmap);
-                binding.imageViewFoto.setImageBitmap(bitmap);
-
-                if (currentSocio != null) {
-                    currentSocio.setFoto(bitmapToByteArray(bitmap));
-                }
-            }
-        } catch (IOException e) {
-            Log.e(TAG, "Error al procesar la imagen", e);
-            Toast.makeText(requireContext(), "Error al procesar la imagen",
-                    Toast.LENGTH_SHORT).show();
-        }
+        procesarFoto(selectedImage);
     }
 
     /**
-     * Corrige la rotación de una imagen basada en sus datos EXIF.
+     * Reduce, orienta y codifica la foto en segundo plano con {@link FotoPerfilEncoder};
+     * al terminar la muestra y la deja pendiente de guardar.
      *
-     * @param imageUri URI de la imagen a corregir.
-     * @return Bitmap con la orientación corregida.
-     * @throws IOException Si hay error al procesar la imagen.
+     * @param uri URI de la imagen elegida.
      */
-    private Bitmap fixImageRotation(Uri imageUri) throws IOException {
-        Bitmap bitmap = getBitmapFromUri(imageUri);
-        int orientation = getImageOrientation(imageUri);
-        Log.d(TAG, "Image orientation: " + orientation);
-
-        if (orientation != 0) {
-            Matrix matrix = new Matrix();
-            matrix.postRotate(orientation);
-            Bitmap rotatedBitmap = Bitmap.createBitmap(bitmap, 0, 0,
-                    bitmap.getWidth(), bitmap.getHeight(), matrix, true);
-
-            if (bitmap != rotatedBitmap) {
-                bitmap.recycle();
-            }
-            return rotatedBitmap;
+    private void procesarFoto(Uri uri) {
+        if (uri == null) {
+            return;
         }
-        return bitmap;
-    }
-
-    /**
-     * Obtiene la orientación de una imagen desde sus datos EXIF.
-     *
-     * @param imageUri URI de la imagen.
-     * @return Ángulo de rotación en grados.
-     */
-    private int getImageOrientation(Uri imageUri) {
-        try {
-            InputStream inputStream = requireContext().getContentResolver().openInputStream(imageUri);
-            if (inputStream == null) {
-                return 0;
+        FotoPerfilEncoder.procesar(requireContext().getContentResolver(), uri, new FotoPerfilEncoder.Callback() {
+            @Override
+            public void onResult(Bitmap vistaPrevia, byte[] bytes, String hash) {
+                if (binding == null || currentSocio == null) return;
+                ImageLoader.getInstance(requireContext()).cancelar(binding.imageViewFoto);
+                binding.imageViewFoto.setImageBitmap(vistaPrevia);
+                fotoNueva = bytes;
+                fotoNuevaHash = hash;
             }
 
-            androidx.exifinterface.media.ExifInterface exif =
-                    new androidx.exifinterface.media.ExifInterface(inputStream);
-
-            int orientation = exif.getAttributeInt(
-                    androidx.exifinterface.media.ExifInterface.TAG_ORIENTATION,
-                    androidx.exifinterface.media.ExifInterface.ORIENTATION_UNDEFINED);
-
-            inputStream.close();
-
-            return switch (orientation) {
-                case androidx.exifinterface.media.ExifInterface.ORIENTATION_ROTATE_90 -> 90;
-                case androidx.exifinterface.media.ExifInterface.ORIENTATION_ROTATE_180 -> 180;
-                case androidx.exifinterface.media.ExifInterface.ORIENTATION_ROTATE_270 -> 270;
-                default -> 0;
-            };
-        } catch (Exception e) {
-            Log.e(TAG, "Error getting image orientation", e);
-            return 0;
-        }
+            @Override
+            public void onError(Exception exception) {
+                if (!isAdded()) return;
+                Toast.makeText(requireContext(), "Error al procesar la imagen",
+                        Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     /**
@@ -747,60 +564,6 @@ public class ProfileFragment extends Fragment {
                 });
     }
 
-    /**
-     * Obtiene un bitmap a partir de un URI.
-     *
-     * @param uri URI de la imagen.
-     * @return El bitmap obtenido.
-     * @throws IOException Si hay error al acceder al archivo.
-     */
-    private Bitmap getBitmapFromUri(Uri uri) throws IOException {
-        ParcelFileDescriptor parcelFileDescriptor =
-                requireContext().getContentResolver().openFileDescriptor(uri, "r");
-        assert parcelFileDescriptor != null;
-        FileDescriptor fileDescriptor = parcelFileDescriptor.getFileDescriptor();
-        Bitmap image = BitmapFactory.decodeFileDescriptor(fileDescriptor);
-        parcelFileDescriptor.close();
-        return image;
-    }
-
-    /**
-     * Redimensiona un bitmap manteniendo su relación de aspecto.
-     * Si la imagen es horizontal (ancho > alto), el ancho será 500px.
-     * Si la imagen es vertical (alto > ancho), el alto será 500px.
-     *
-     * @param bitmap El bitmap original a redimensionar
-     * @return Un nuevo bitmap redimensionado
-     */
-    private Bitmap resizeBitmap(Bitmap bitmap) {
-        int width = bitmap.getWidth();
-        int height = bitmap.getHeight();
-
-        float bitmapRatio = (float) width / (float) height;
-        if (bitmapRatio > 1) {
-            width = 500;
-            height = (int) (width / bitmapRatio);
-        } else {
-            height = 500;
-            width = (int) (height * bitmapRatio);
-        }
-
-        return Bitmap.createScaledBitmap(bitmap, width, height, true);
-    }
-
-    /**
-     * Convierte un bitmap en un array de bytes en formato JPEG con 70% de calidad.
-     * Útil para almacenar imágenes en la base de datos.
-     *
-     * @param bitmap El bitmap a convertir
-     * @return Array de bytes que representa la imagen en formato JPEG
-     */
-    private byte[] bitmapToByteArray(Bitmap bitmap) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.JPEG, 70, baos);
-        return baos.toByteArray();
-    }
-
     /**
      * Limpia los recursos cuando se destruye la vista del fragmento.
      * Libera la referencia al binding para evitar fugas de memoria.
@@ -0,0 +1,87 @@
+package com.jlobatonm.socialclub_app.ui.reservas;
+
+import com.jlobatonm.socialclub_app.model.DisponibilidadDia;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Índice en memoria de la disponibilidad precargada por instalación y día.
+ * Recuerda cuándo se cargó cada instalación para saber si hay que refrescarla, y lleva por
+ * instalación una generación que cambia al invalidarla, para descartar las cargas empezadas antes.
+ */
+class IndiceDisponibilidad {
+
+    private final Map<Integer, Map<LocalDate, DisponibilidadDia>> porInstalacion = new HashMap<>();
+    private final Map<Integer, Long> cargadoEn = new HashMap<>();
+    private final Map<Integer, Integer> generaciones = new HashMap<>();
+
+    /**
+     * Obtiene la disponibilidad precargada de un día.
+     *
+     * @param idInstalacion Identificador de la instalación
+     * @param fecha         Día consultado
+     * @return La disponibilidad, o null si ese día no está precargado
+     */
+    DisponibilidadDia get(int idInstalacion, LocalDate fecha) {
+        Map<LocalDate, DisponibilidadDia> dias = porInstalacion.get(idInstalacion);
+        return dias != null ? dias.get(fecha) : null;
+    }
+
+    /**
+     * Obtiene la generación actual de una instalación, que se debe capturar al empezar una carga.
+     *
+     * @param idInstalacion Identificador de la instalación
+     * @return Generación actual
+     */
+    int getGeneracion(int idInstalacion) {
+        Integer generacion = generaciones.get(idInstalacion);
+        return generacion != null ? generacion : 0;
+    }
+
+    /**
+     * Sustituye la disponibilidad precargada de una instalación, salvo que se haya invalidado
+     * desde que empezó la carga.
+     *
+     * @param idInstalacion Identificador de la instalación
+     * @param dias          Disponibilidad por día
+     * @param ahora         Instante de la carga, en milisegundos
+     * @param generacion    Generación de la instalación al empezar la carga
+     * @return true si se ha guardado; false si la carga era anterior a una invalidación
+     */
+    boolean guardar(int idInstalacion, Map<LocalDate, DisponibilidadDia> dias, long ahora, int generacion) {
+        if (generacion != getGeneracion(idInstalacion)) {
+            return false;
+        }
+        porInstalacion.put(idInstalacion, dias);
+        cargadoEn.put(idInstalacion, ahora);
+        return true;
+    }
+
+    /**
+     * Indica si la disponibilidad de una instalación falta o es más antigua que la vigencia indicada.
+     *
+     * @param idInstalacion Identificador de la instalación
+     * @param ahora         Instante actual, en milisegundos
+     * @param vigenciaMs    Tiempo durante el que se considera actual una carga
+     * @return true si conviene volver a cargarla
+     */
+    boolean necesitaRefresco(int idInstalacion, long ahora, long vigenciaMs) {
+        Long instante = cargadoEn.get(idInstalacion);
+        return instante == null || ahora - instante >= vigenciaMs;
+    }
+
+    /**
+     * Descarta la disponibilidad precargada de una instalación, por ejemplo tras reservar en ella,
+     * para no mostrar como libre una franja que ya no lo está. Las cargas de esa instalación
+     * que estuvieran en curso ya no se podrán guardar.
+     *
+     * @param idInstalacion Identificador de la instalación
+     */
+    void invalidar(int idInstalacion) {
+        porInstalacion.remove(idInstalacion);
+        cargadoEn.remove(idInstalacion);
+        generaciones.put(idInstalacion, getGeneracion(idInstalacion) + 1);
+    }
+}
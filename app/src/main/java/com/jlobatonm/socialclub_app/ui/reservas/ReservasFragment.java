@@ -25,24 +25,27 @@ import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.jlobatonm.socialclub_app.R;
-import com.jlobatonm.socialclub_app.database.InstalacionDao;
-import com.jlobatonm.socialclub_app.database.MySQLConnection;
+import com.jlobatonm.socialclub_app.database.CancellationToken;
 import com.jlobatonm.socialclub_app.database.ReservaDao;
+import com.jlobatonm.socialclub_app.database.SocioDao;
 import com.jlobatonm.socialclub_app.databinding.FragmentReservasBinding;
-import com.jlobatonm.socialclub_app.model.Instalacion;
+import com.jlobatonm.socialclub_app.model.DisponibilidadDia;
+import com.jlobatonm.socialclub_app.model.InstalacionResumen;
+import com.jlobatonm.socialclub_app.ui.SesionSocioViewModel;
 import com.jlobatonm.socialclub_app.utils.NotificationHelper;
 import com.jlobatonm.socialclub_app.utils.ReservationAlarmReceiver;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 /**
  * Fragmento para gestionar la reserva de instalaciones del club social.
@@ -55,15 +58,20 @@ import java.util.Locale;
 public class ReservasFragment extends Fragment {
 
     private FragmentReservasBinding binding;
-    private List<Instalacion> instalacionesList = new ArrayList<>();
+    private List<InstalacionResumen> instalacionesList = new ArrayList<>();
     private ArrayAdapter<String> spinnerAdapter;
     private int selectedInstalacionId;
-    private Instalacion selectedInstalacion;
+    private InstalacionResumen selectedInstalacion;
     private Date selectedDate;
     private static final String TAG = "ReservasFragment";
     private ReservasViewModel reservasViewModel;
+    private CancellationToken cancellationToken;
+    private android.app.AlertDialog progressDialog;
+    private int minutoReservaPendiente;
+    private String horaReservaPendiente;
     private static final String PREFS_NAME = "user_prefs";
     private static final String KEY_EMAIL = "email";
+    private static final int MAX_SEMANAS_RECURRENTES = 12;
 
     /**
      * Crea y configura la vista del fragmento de reservas.
@@ -79,6 +87,7 @@ public class ReservasFragment extends Fragment {
 
         binding = FragmentReservasBinding.inflate(inflater, container, false);
         View root = binding.getRoot();
+        cancellationToken = CancellationToken.forLifecycle(getViewLifecycleOwner());
 
         Spinner spinnerInstalacion = binding.spinnerInstalacion;
         spinnerAdapter = new ArrayAdapter<>(requireContext(), R.layout.spinner_item, new ArrayList<>()) {
@@ -137,80 +146,82 @@ public class ReservasFragment extends Fragment {
 
         reservasViewModel.getErrorMessage().observe(getViewLifecycleOwner(), errorMessage -> {
             if (errorMessage != null && !errorMessage.isEmpty()) {
+                cerrarDialogoProgreso();
                 Toast.makeText(requireContext(), errorMessage, Toast.LENGTH_LONG).show();
             }
         });
 
+        reservasViewModel.getDisponibilidad().observe(getViewLifecycleOwner(), disponibilidad -> {
+            if (disponibilidad != null && disponibilidad.getIdInstalacion() == selectedInstalacionId) {
+                mostrarHorarios(disponibilidad);
+            }
+        });
+
         reservasViewModel.getReservaRealizada().observe(getViewLifecycleOwner(), realizada -> {
             if (realizada) {
+                cerrarDialogoProgreso();
                 Toast.makeText(requireContext(), "Reserva realizada con éxito", Toast.LENGTH_SHORT).show();
                 reservasViewModel.resetReservaRealizada();
+                if (horaReservaPendiente != null) {
+                    programarNotificacionesReserva(Collections.singletonList(selectedDate),
+                            minutoReservaPendiente, horaReservaPendiente);
+                    horaReservaPendiente = null;
+                }
                 cargarHorariosDisponibles();
             }
         });
 
-        cargarInstalaciones();
+        reservasViewModel.getResultadoRecurrente().observe(getViewLifecycleOwner(), resultado -> {
+            if (resultado != null) {
+                cerrarDialogoProgreso();
+                reservasViewModel.resetResultadoRecurrente();
+                mostrarResultadoRecurrente(resultado);
+                cargarHorariosDisponibles();
+            }
+        });
+
+        reservasViewModel.getHoraOcupada().observe(getViewLifecycleOwner(), ocupada -> {
+            if (ocupada) {
+                cerrarDialogoProgreso();
+                reservasViewModel.resetHoraOcupada();
+                horaReservaPendiente = null;
+                mostrarAlerta("Hora no disponible", "Esta hora ya ha sido reservada por otro socio. Por favor, seleccione otra hora.");
+                cargarHorariosDisponibles();
+            }
+        });
+
+        reservasViewModel.getInstalaciones().observe(getViewLifecycleOwner(), instalaciones -> {
+            if (instalaciones != null) {
+                mostrarInstalaciones(instalaciones);
+            }
+        });
 
         return root;
     }
 
     /**
-     * Carga la lista de instalaciones desde la base de datos.
-     * Actualiza el spinner con los nombres de las instalaciones disponibles.
+     * Muestra en el spinner las instalaciones cargadas por el {@link ReservasViewModel}.
+     *
+     * @param instalaciones Instalaciones disponibles
      */
-    private void cargarInstalaciones() {
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
-            @Override
-            public void onSuccess(Connection connection) {
-                InstalacionDao instalacionDao = new InstalacionDao();
-                instalacionDao.getAllInstalaciones(connection, new InstalacionDao.GetAllInstalacionesCallback() {
-                    @Override
-                    public void onResult(List<Instalacion> instalaciones) {
-                        if (isAdded()) {
-                            requireActivity().runOnUiThread(() -> {
-                                instalacionesList = instalaciones;
-                                List<String> nombresInstalaciones = new ArrayList<>();
-                                for (Instalacion instalacion : instalaciones) {
-                                    nombresInstalaciones.add(instalacion.getNombre());
-                                }
-                                spinnerAdapter.clear();
-                                spinnerAdapter.addAll(nombresInstalaciones);
-                                spinnerAdapter.notifyDataSetChanged();
-
-                                if (selectedInstalacionId != 0 && selectedDate != null) {
-                                    cargarHorariosDisponibles();
-                                }
-                            });
-                        }
-                    }
-
-                    @Override
-                    public void onError(Exception exception) {
-                        if (isAdded()) {
-                            requireActivity().runOnUiThread(() -> {
-                                Toast.makeText(getContext(), "Error cargando instalaciones: " + exception.getMessage(), Toast.LENGTH_LONG).show();
-                                Log.e(TAG, "Error cargando instalaciones: " + exception.getMessage(), exception);
-                            });
-                        }
-                    }
-                });
-            }
+    private void mostrarInstalaciones(List<InstalacionResumen> instalaciones) {
+        instalacionesList = instalaciones;
+        List<String> nombresInstalaciones = new ArrayList<>();
+        for (InstalacionResumen instalacion : instalaciones) {
+            nombresInstalaciones.add(instalacion.getNombre());
+        }
+        spinnerAdapter.clear();
+        spinnerAdapter.addAll(nombresInstalaciones);
+        spinnerAdapter.notifyDataSetChanged();
 
-            @Override
-            public void onFailure(SQLException exception) {
-                if (isAdded()) {
-                    requireActivity().runOnUiThread(() -> {
-                        Toast.makeText(getContext(), "Error de conexión: " + exception.getMessage(), Toast.LENGTH_LONG).show();
-                        Log.e(TAG, "Error de conexión: " + exception.getMessage(), exception);
-                    });
-                }
-            }
-        });
+        if (selectedInstalacionId != 0 && selectedDate != null) {
+            cargarHorariosDisponibles();
+        }
     }
 
     /**
      * Carga los horarios disponibles para la instalación y fecha seleccionadas.
-     * Consulta la base de datos para obtener las horas ya reservadas.
+     * La disponibilidad se pide al {@link ReservasViewModel} y se muestra al observarla.
      */
     private void cargarHorariosDisponibles() {
         if (selectedInstalacionId == 0 || selectedDate == null) {
@@ -218,69 +229,25 @@ public class ReservasFragment extends Fragment {
             return;
         }
 
-        Log.d(TAG, "Cargando horarios para instalación ID: " + selectedInstalacionId +
-                " y fecha: " + new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(selectedDate));
-
         if (binding != null) {
             GridLayout layoutHorarios = binding.layoutHorarios;
-            requireActivity().runOnUiThread(() -> {
-                layoutHorarios.removeAllViews();
-                TextView loadingText = new TextView(requireContext());
-                loadingText.setText(getString(R.string.loading_schedules));
-                loadingText.setTextColor(Color.WHITE);
-                layoutHorarios.addView(loadingText);
-            });
+            layoutHorarios.removeAllViews();
+            TextView loadingText = new TextView(requireContext());
+            loadingText.setText(getString(R.string.loading_schedules));
+            loadingText.setTextColor(Color.WHITE);
+            layoutHorarios.addView(loadingText);
         }
 
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
-            @Override
-            public void onSuccess(Connection connection) {
-                ReservaDao reservaDao = new ReservaDao();
-                reservaDao.obtenerHorasReservadas(connection, selectedInstalacionId, selectedDate,
-                        new ReservaDao.GetHorasReservadasCallback() {
-                            @Override
-                            public void onResult(List<String> horasReservadas) {
-                                if (isAdded()) {
-                                    requireActivity().runOnUiThread(() -> {
-                                        for (String hora : horasReservadas) {
-                                            Log.d(TAG, "Hora reservada: '" + hora + "'");
-                                        }
-                                        mostrarHorarios(horasReservadas);
-                                    });
-                                }
-                            }
-
-                            @Override
-                            public void onError(Exception exception) {
-                                if (isAdded()) {
-                                    requireActivity().runOnUiThread(() -> {
-                                        Log.e(TAG, "Error obteniendo horas reservadas: " + exception.getMessage(), exception);
-                                        Toast.makeText(getContext(), "Error cargando horarios: " + exception.getMessage(), Toast.LENGTH_LONG).show();
-                                    });
-                                }
-                            }
-                        });
-            }
-
-            @Override
-            public void onFailure(SQLException exception) {
-                if (isAdded()) {
-                    requireActivity().runOnUiThread(() -> {
-                        Toast.makeText(getContext(), "Error de conexión: " + exception.getMessage(), Toast.LENGTH_LONG).show();
-                        Log.e(TAG, "Error de conexión: " + exception.getMessage(), exception);
-                    });
-                }
-            }
-        });
+        reservasViewModel.cargarDisponibilidad(selectedInstalacionId, selectedDate);
     }
 
     /**
-     * Muestra los horarios disponibles en la interfaz de usuario basados en la lista de horas ya reservadas.
-     * Genera botones para cada slot horario calculado según la configuración de la instalación.
+     * Muestra los horarios de la instalación seleccionada a partir de su disponibilidad del día.
+     * Genera un botón por franja, deshabilitando las reservadas y las que ya han pasado.
      *
-     * @param horasReservadas Lista de horas que ya han sido reservadas y no están disponibles
+     * @param disponibilidad Franjas del día y su ocupación
      */
-    private void mostrarHorarios(List<String> horasReservadas) {
+    private void mostrarHorarios(DisponibilidadDia disponibilidad) {
         if (binding == null) return;
 
         GridLayout layoutHorarios = binding.layoutHorarios;
@@ -288,147 +255,67 @@ public class ReservasFragment extends Fragment {
 
         if (selectedInstalacion == null) return;
 
-        Log.d(TAG, "Mostrando horarios para " + selectedInstalacion.getNombre());
-        Log.d(TAG, "Horas reservadas recibidas: " + horasReservadas);
-
-        String horaIni = selectedInstalacion.getHoraIni();
-        String horaFin = selectedInstalacion.getHoraFin();
-        int duracion = selectedInstalacion.getDuracion();
-
-        Log.d(TAG, "Configuración de instalación: " + selectedInstalacion.getNombre()
-                + " - horaIni=" + horaIni
-                + ", horaFin=" + horaFin
-                + ", duracion=" + duracion + " minutos");
-
-        try {
-            int horaIniInt = convertirHoraAMinutos(horaIni);
-            int horaFinInt = convertirHoraAMinutos(horaFin);
-            Log.d(TAG, "Minutos: Inicio=" + horaIniInt + ", Fin=" + horaFinInt + ", Diferencia=" + (horaFinInt - horaIniInt));
-
-            boolean esHoy = esHoyLaFechaSeleccionada();
-            int horaActualMinutos = 0;
-
-            if (esHoy) {
-                Calendar cal = Calendar.getInstance();
-                horaActualMinutos = cal.get(Calendar.HOUR_OF_DAY) * 60 + cal.get(Calendar.MINUTE);
-            }
-
-            if (horaIniInt >= horaFinInt || duracion <= 0) {
-                TextView msgText = new TextView(requireContext());
-                msgText.setText(getString(R.string.no_schedule_configuration));
-                msgText.setTextColor(Color.WHITE);
-                layoutHorarios.addView(msgText);
-                return;
-            }
-
-            List<String> horariosDisponibles = new ArrayList<>();
-
-            if (duracion >= (horaFinInt - horaIniInt)) {
-                horariosDisponibles.add(convertirMinutosAHora(horaIniInt));
-            } else {
-                int numHorarios = (horaFinInt - horaIniInt) / duracion;
+        int totalHorarios = disponibilidad.getNumFranjas();
+        if (totalHorarios == 0) {
+            TextView msgText = new TextView(requireContext());
+            msgText.setText(getString(R.string.no_schedule_configuration));
+            msgText.setTextColor(Color.WHITE);
+            layoutHorarios.addView(msgText);
+            return;
+        }
 
-                for (int i = 0; i < numHorarios; i++) {
-                    int minutos = horaIniInt + (i * duracion);
-                    if (minutos + duracion <= horaFinInt) {
-                        horariosDisponibles.add(convertirMinutosAHora(minutos));
-                    }
-                }
-            }
+        boolean esHoy = esHoyLaFechaSeleccionada();
+        int horaActualMinutos = 0;
 
-            Log.d(TAG, "Total horarios generados: " + horariosDisponibles.size() + " - " + horariosDisponibles);
+        if (esHoy) {
+            Calendar cal = Calendar.getInstance();
+            horaActualMinutos = cal.get(Calendar.HOUR_OF_DAY) * 60 + cal.get(Calendar.MINUTE);
+        }
 
-            int totalHorarios = horariosDisponibles.size();
-            int columnCount = Math.min(3, Math.max(1, totalHorarios));
-            layoutHorarios.setColumnCount(columnCount);
+        int columnCount = Math.min(3, totalHorarios);
+        layoutHorarios.setColumnCount(columnCount);
 
-            int column = 0;
-            int row = 0;
+        int column = 0;
+        int row = 0;
 
-            for (String horaInicio : horariosDisponibles) {
-                Button button = new Button(requireContext());
-                button.setText(horaInicio);
+        for (int i = 0; i < totalHorarios; i++) {
+            String horaInicio = disponibilidad.getEtiqueta(i);
+            int minutoInicio = disponibilidad.getMinutoFranja(i);
 
-                GridLayout.LayoutParams params = new GridLayout.LayoutParams();
-                params.width = 0;
-                params.height = GridLayout.LayoutParams.WRAP_CONTENT;
-                params.setMargins(8, 8, 8, 8);
-                params.columnSpec = GridLayout.spec(column, 1, 1f);
-                params.rowSpec = GridLayout.spec(row);
-                button.setLayoutParams(params);
+            Button button = new Button(requireContext());
+            button.setText(horaInicio);
 
-                boolean estaReservada = horasReservadas.contains(horaInicio);
-                boolean yaPaso = esHoy && convertirHoraAMinutos(horaInicio) < horaActualMinutos;
+            GridLayout.LayoutParams params = new GridLayout.LayoutParams();
+            params.width = 0;
+            params.height = GridLayout.LayoutParams.WRAP_CONTENT;
+            params.setMargins(8, 8, 8, 8);
+            params.columnSpec = GridLayout.spec(column, 1, 1f);
+            params.rowSpec = GridLayout.spec(row);
+            button.setLayoutParams(params);
 
-                if (estaReservada || yaPaso) {
-                    button.setEnabled(false);
-                    button.setBackground(ResourcesCompat.getDrawable(getResources(), R.drawable.rounded_button_disabled, null));
-                    button.setTextColor(Color.DKGRAY);
-                } else {
-                    button.setBackground(ResourcesCompat.getDrawable(getResources(), R.drawable.rounded_button, null));
-                    button.setTextColor(Color.WHITE);
-                    button.setOnClickListener(v -> seleccionarHorario(horaInicio));
-                }
+            boolean estaReservada = disponibilidad.estaOcupada(i);
+            boolean yaPaso = esHoy && minutoInicio < horaActualMinutos;
 
-                layoutHorarios.addView(button);
-
-                column++;
-                if (column >= columnCount) {
-                    column = 0;
-                    row++;
-                }
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error al mostrar horarios: " + e.getMessage(), e);
-            TextView errorText = new TextView(requireContext());
-            errorText.setText(getString(R.string.error_show_schedules, e.getMessage()));
-            errorText.setTextColor(Color.WHITE);
-            layoutHorarios.addView(errorText);
-        }
-    }
-
-    /**
-     * Convierte una hora en formato HH:MM a minutos desde el inicio del día.
-     *
-     * @param hora Hora en formato HH:MM
-     * @return Total de minutos desde el inicio del día
-     */
-    private int convertirHoraAMinutos(String hora) {
-        try {
-            if (hora == null || hora.isEmpty()) {
-                Log.e(TAG, "La hora está vacía o es null");
-                return 0;
+            if (estaReservada || yaPaso) {
+                button.setEnabled(false);
+                button.setBackground(ResourcesCompat.getDrawable(getResources(), R.drawable.rounded_button_disabled, null));
+                button.setTextColor(Color.DKGRAY);
+            } else {
+                button.setBackground(ResourcesCompat.getDrawable(getResources(), R.drawable.rounded_button, null));
+                button.setTextColor(Color.WHITE);
+                button.setOnClickListener(v -> seleccionarHorario(minutoInicio, horaInicio));
             }
 
-            Log.d(TAG, "Convirtiendo hora a minutos: " + hora);
+            layoutHorarios.addView(button);
 
-            String[] partes = hora.split(":");
-            if (partes.length < 2) {
-                Log.e(TAG, "Formato de hora inválido: " + hora);
-                return 0;
+            column++;
+            if (column >= columnCount) {
+                column = 0;
+                row++;
             }
-
-            int horas = Integer.parseInt(partes[0]);
-            int minutos = Integer.parseInt(partes[1]);
-            return horas * 60 + minutos;
-        } catch (NumberFormatException e) {
-            Log.e(TAG, "Error al convertir hora a minutos: " + e.getMessage());
-            return 0;
         }
     }
 
-    /**
-     * Convierte minutos desde el inicio del día a formato de hora HH:MM.
-     *
-     * @param minutos Total de minutos desde el inicio del día
-     * @return Hora en formato HH:MM
-     */
-    private String convertirMinutosAHora(int minutos) {
-        int horas = minutos / 60;
-        int mins = minutos % 60;
-        return String.format(Locale.getDefault(), "%02d:%02d", horas, mins);
-    }
-
     /**
      * Verifica si la fecha seleccionada corresponde al día actual.
      *
@@ -445,72 +332,85 @@ public class ReservasFragment extends Fragment {
     }
 
     /**
-     * Verifica la disponibilidad en tiempo real del horario seleccionado
-     * y muestra un diálogo de confirmación para realizar la reserva.
+     * Bloquea temporalmente el horario seleccionado para el socio y, si lo consigue,
+     * muestra un diálogo de confirmación para realizar la reserva.
+     * El bloqueo es una única escritura en la base de datos: si otro socio tiene ya la franja
+     * se avisa al usuario sin volver a consultar la disponibilidad.
      *
-     * @param hora Hora seleccionada en formato HH:MM
+     * @param minuto Minuto de inicio de la franja seleccionada
+     * @param hora   Hora seleccionada en formato HH:MM
      */
-    private void seleccionarHorario(String hora) {
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
-            @Override
-            public void onSuccess(Connection connection) {
-                ReservaDao reservaDao = new ReservaDao();
-                reservaDao.obtenerHorasReservadas(connection, selectedInstalacionId, selectedDate,
-                        new ReservaDao.GetHorasReservadasCallback() {
-                            @Override
-                            public void onResult(List<String> horasReservadas) {
-                                if (isAdded()) {
-                                    requireActivity().runOnUiThread(() -> {
-                                        if (horasReservadas.contains(hora)) {
-                                            mostrarAlerta("Hora no disponible",
-                                                    "Esta hora ya ha sido reservada. Por favor seleccione otra hora.");
-                                            cargarHorariosDisponibles();
-                                        } else {
-                                            android.app.AlertDialog.Builder builder = new android.app.AlertDialog.Builder(requireContext());
-                                            builder.setTitle("Confirmar Reserva");
-                                            builder.setMessage("¿Desea reservar la instalación " + selectedInstalacion.getNombre() + " el " + new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault()).format(selectedDate) + " a las " + hora + "?");
-
-                                            builder.setPositiveButton("Confirmar", (dialog, which) -> {
-                                                String email = obtenerEmailUsuario();
-                                                if (email != null && !email.isEmpty()) {
-                                                    buscarNumeroSocioPorEmail(email, numeroSocio -> {
-                                                        if (numeroSocio != null) {
-                                                            realizarReserva(numeroSocio, hora);
-                                                        } else {
-                                                            mostrarAlerta("Error", "No se encontró información de socio para el usuario actual.");
-                                                        }
-                                                    });
-                                                } else {
-                                                    mostrarAlerta("Error", "No se pudo identificar al usuario. Por favor inicie sesión nuevamente.");
-                                                }
-                                            });
-
-                                            builder.setNegativeButton("Cancelar", (dialog, which) -> dialog.dismiss());
-
-                                            builder.create().show();
-                                        }
-                                    });
-                                }
-                            }
-
-                            @Override
-                            public void onError(Exception exception) {
-                                if (isAdded()) {
-                                    requireActivity().runOnUiThread(() -> mostrarAlerta("Error", "No se pudo verificar la disponibilidad: " + exception.getMessage()));
-                                }
-                            }
-                        });
+    private void seleccionarHorario(int minuto, String hora) {
+        String email = obtenerEmailUsuario();
+        if (email == null || email.isEmpty()) {
+            mostrarAlerta("Error", "No se pudo identificar al usuario. Por favor inicie sesión nuevamente.");
+            return;
+        }
+
+        int idInstalacion = selectedInstalacionId;
+        Date fecha = selectedDate;
+        buscarNumeroSocioPorEmail(email, numeroSocio -> {
+            if (numeroSocio == null) {
+                mostrarAlerta("Error", "No se encontró información de socio para el usuario actual.");
+                return;
             }
 
-            @Override
-            public void onFailure(SQLException exception) {
-                if (isAdded()) {
-                    requireActivity().runOnUiThread(() -> mostrarAlerta("Error de conexión", exception.getMessage()));
+            ReservaDao reservaDao = new ReservaDao(cancellationToken);
+            reservaDao.bloquearFranja(numeroSocio, idInstalacion, fecha, hora, new ReservaDao.BloquearFranjaCallback() {
+                @Override
+                public void onBloqueada() {
+                    if (isAdded()) {
+                        mostrarConfirmacionReserva(reservaDao, numeroSocio, idInstalacion, fecha, minuto, hora);
+                    } else {
+                        reservaDao.liberarFranja(numeroSocio, idInstalacion, fecha, hora);
+                    }
                 }
-            }
+
+                @Override
+                public void onHoraOcupada() {
+                    if (isAdded()) {
+                        mostrarAlerta("Hora no disponible", "Esta hora ya ha sido reservada. Por favor seleccione otra hora.");
+                        cargarHorariosDisponibles();
+                    }
+                }
+
+                @Override
+                public void onError(Exception exception) {
+                    Log.e(TAG, "Error al bloquear la franja", exception);
+                    if (isAdded()) {
+                        mostrarAlerta("Error", "No se pudo comprobar la disponibilidad: " + exception.getMessage());
+                    }
+                }
+            });
         });
     }
 
+    /**
+     * Muestra el diálogo de confirmación de una franja ya bloqueada para el socio.
+     * Si el usuario cancela, el bloqueo se libera para que otros socios puedan reservarla.
+     *
+     * @param reservaDao    DAO con el que se bloqueó la franja
+     * @param numeroSocio   Número del socio que tiene el bloqueo
+     * @param idInstalacion Identificador de la instalación
+     * @param fecha         Fecha de la franja
+     * @param minuto        Minuto de inicio de la franja
+     * @param hora          Hora de la franja en formato HH:MM
+     */
+    private void mostrarConfirmacionReserva(ReservaDao reservaDao, String numeroSocio, int idInstalacion,
+                                            Date fecha, int minuto, String hora) {
+        android.app.AlertDialog.Builder builder = new android.app.AlertDialog.Builder(requireContext());
+        builder.setTitle("Confirmar Reserva");
+        builder.setMessage("¿Desea reservar la instalación " + selectedInstalacion.getNombre() + " el " + new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault()).format(fecha) + " a las " + hora + "?");
+
+        builder.setPositiveButton("Confirmar", (dialog, which) -> realizarReserva(numeroSocio, minuto, hora));
+        builder.setNeutralButton("Repetir semanalmente", (dialog, which) ->
+                mostrarDialogoSemanas(reservaDao, numeroSocio, idInstalacion, fecha, minuto, hora));
+        builder.setNegativeButton("Cancelar", (dialog, which) -> reservaDao.liberarFranja(numeroSocio, idInstalacion, fecha, hora));
+        builder.setOnCancelListener(dialog -> reservaDao.liberarFranja(numeroSocio, idInstalacion, fecha, hora));
+
+        builder.create().show();
+    }
+
     /**
      * Obtiene el email del usuario actualmente logueado desde SharedPreferences.
      *
@@ -529,170 +429,207 @@ public class ReservasFragment extends Fragment {
     }
 
     /**
-     * Busca el número de socio asociado a un email en la base de datos.
+     * Obtiene el número de socio del usuario. Se usa el socio de la sesión si ya está cargado
+     * y sólo si no lo está se consulta la base de datos.
      *
      * @param email    Email del socio a buscar
      * @param callback Callback para recibir el resultado de la búsqueda
      */
     private void buscarNumeroSocioPorEmail(String email, BuscarSocioCallback callback) {
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
+        String numeroSocio = new ViewModelProvider(requireActivity()).get(SesionSocioViewModel.class).getNumeroSocio();
+        if (numeroSocio != null) {
+            callback.onResult(numeroSocio);
+            return;
+        }
+
+        SocioDao socioDao = new SocioDao(cancellationToken);
+        socioDao.getNumeroSocioByEmail(email, new SocioDao.GetNumeroSocioCallback() {
             @Override
-            public void onSuccess(Connection connection) {
-                new Thread(() -> {
-                    try {
-                        String query = "SELECT numero_socio FROM socio WHERE email = ?";
-                        PreparedStatement statement = connection.prepareStatement(query);
-                        statement.setString(1, email);
-                        ResultSet resultSet = statement.executeQuery();
-
-                        String numeroSocio = null;
-                        if (resultSet.next()) {
-                            numeroSocio = resultSet.getString("numero_socio");
-                        }
-                        resultSet.close();
-                        statement.close();
-
-                        String finalNumeroSocio = numeroSocio;
-                        android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                        mainHandler.post(() -> callback.onResult(finalNumeroSocio));
-
-                    } catch (SQLException e) {
-                        Log.e(TAG, "Error buscando número de socio: " + e.getMessage(), e);
-                        android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                        mainHandler.post(() -> callback.onResult(null));
-                    }
-                }).start();
+            public void onResult(String numeroSocio) {
+                callback.onResult(numeroSocio);
             }
 
             @Override
-            public void onFailure(SQLException exception) {
-                Log.e(TAG, "Error de conexión: " + exception.getMessage(), exception);
-                android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                mainHandler.post(() -> callback.onResult(null));
+            public void onError(Exception exception) {
+                callback.onResult(null);
             }
         });
     }
 
     /**
-     * Realiza una reserva en la base de datos después de verificar nuevamente la disponibilidad.
-     * También programa una notificación de recordatorio para la reserva.
+     * Realiza una reserva en la base de datos en una sola operación. Cuando se confirma,
+     * se programa una notificación de recordatorio para la reserva.
      *
      * @param numeroSocio Número del socio que realiza la reserva
+     * @param minuto      Minuto de inicio de la franja seleccionada
      * @param hora        Hora seleccionada para la reserva
      */
-    private void realizarReserva(String numeroSocio, String hora) {
+    private void realizarReserva(String numeroSocio, int minuto, String hora) {
         Log.d(TAG, "Realizando reserva con número de socio: " + numeroSocio);
 
+        mostrarDialogoProgreso();
+
+        minutoReservaPendiente = minuto;
+        horaReservaPendiente = hora;
+        reservasViewModel.realizarReserva(numeroSocio, selectedInstalacionId, selectedDate, hora);
+    }
+
+    /**
+     * Pide al usuario durante cuántas semanas quiere repetir la reserva y, al aceptar,
+     * reserva la franja en todas esas semanas en una única operación.
+     *
+     * @param reservaDao    DAO con el que se bloqueó la franja
+     * @param numeroSocio   Número del socio que realiza la reserva
+     * @param idInstalacion Identificador de la instalación
+     * @param fecha         Fecha de la primera reserva
+     * @param minuto        Minuto de inicio de la franja
+     * @param hora          Hora de la franja en formato HH:MM
+     */
+    private void mostrarDialogoSemanas(ReservaDao reservaDao, String numeroSocio, int idInstalacion,
+                                       Date fecha, int minuto, String hora) {
+        android.widget.NumberPicker picker = new android.widget.NumberPicker(requireContext());
+        picker.setMinValue(2);
+        picker.setMaxValue(MAX_SEMANAS_RECURRENTES);
+        picker.setValue(4);
+
+        android.app.AlertDialog.Builder builder = new android.app.AlertDialog.Builder(requireContext());
+        builder.setTitle("Número de semanas");
+        builder.setView(picker);
+        builder.setPositiveButton("Reservar", (dialog, which) -> {
+            mostrarDialogoProgreso();
+            minutoReservaPendiente = minuto;
+            horaReservaPendiente = hora;
+            reservasViewModel.realizarReservasRecurrentes(numeroSocio, idInstalacion, fecha, hora, picker.getValue());
+        });
+        builder.setNegativeButton("Cancelar", (dialog, which) -> reservaDao.liberarFranja(numeroSocio, idInstalacion, fecha, hora));
+        builder.setOnCancelListener(dialog -> reservaDao.liberarFranja(numeroSocio, idInstalacion, fecha, hora));
+
+        builder.create().show();
+    }
+
+    /**
+     * Muestra un diálogo de progreso mientras se guarda la reserva.
+     */
+    private void mostrarDialogoProgreso() {
         android.app.AlertDialog.Builder builder = new android.app.AlertDialog.Builder(requireContext());
         builder.setTitle("Procesando");
-        builder.setMessage("Verificando disponibilidad y realizando la reserva...");
+        builder.setMessage("Realizando la reserva...");
         builder.setCancelable(false);
 
         android.widget.ProgressBar progressBar = new android.widget.ProgressBar(requireContext());
         progressBar.setIndeterminate(true);
         builder.setView(progressBar);
 
-        android.app.AlertDialog progressDialog = builder.create();
+        progressDialog = builder.create();
         progressDialog.show();
+    }
 
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
-            @Override
-            public void onSuccess(Connection connection) {
-                ReservaDao reservaDao = new ReservaDao();
-                reservaDao.obtenerHorasReservadas(connection, selectedInstalacionId, selectedDate,
-                        new ReservaDao.GetHorasReservadasCallback() {
-                            @Override
-                            public void onResult(List<String> horasReservadas) {
-                                if (isAdded()) {
-                                    if (horasReservadas.contains(hora)) {
-                                        progressDialog.dismiss();
-                                        mostrarAlerta("Hora no disponible", "Esta hora ya ha sido reservada por otro socio. Por favor, seleccione otra hora.");
-                                        cargarHorariosDisponibles();
-                                    } else {
-                                        reservasViewModel.realizarReserva(numeroSocio, selectedInstalacionId, selectedDate, hora);
-                                        programarNotificacionReserva(hora);
-                                        progressDialog.dismiss();
-                                    }
-                                }
-                            }
-
-                            @Override
-                            public void onError(Exception exception) {
-                                if (isAdded()) {
-                                    progressDialog.dismiss();
-                                    mostrarAlerta("Error", "Error al verificar disponibilidad: " + exception.getMessage());
-                                }
-                            }
-                        });
-            }
+    /**
+     * Programa los recordatorios de las fechas reservadas de una reserva recurrente
+     * y muestra un resumen con las fechas que no se pudieron reservar.
+     *
+     * @param resultado Resultado de la reserva recurrente
+     */
+    private void mostrarResultadoRecurrente(ReservasViewModel.ResultadoRecurrente resultado) {
+        List<Date> reservadas = new ArrayList<>();
+        for (LocalDate fecha : resultado.getReservadas()) {
+            reservadas.add(Date.from(fecha.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        }
+        if (horaReservaPendiente != null) {
+            programarNotificacionesReserva(reservadas, minutoReservaPendiente, horaReservaPendiente);
+            horaReservaPendiente = null;
+        }
 
-            @Override
-            public void onFailure(SQLException exception) {
-                progressDialog.dismiss();
-                mostrarAlerta("Error de conexión", exception.getMessage());
+        StringBuilder mensaje = new StringBuilder("Se han realizado " + reservadas.size() + " reservas.");
+        if (!resultado.getOcupadas().isEmpty()) {
+            DateTimeFormatter formato = DateTimeFormatter.ofPattern("dd/MM/yyyy", Locale.getDefault());
+            mensaje.append("\n\nNo se pudieron reservar estas fechas porque ya estaban ocupadas:");
+            for (LocalDate fecha : resultado.getOcupadas()) {
+                mensaje.append("\n• ").append(formato.format(fecha));
             }
-        });
+        }
+        mostrarAlerta("Reserva semanal", mensaje.toString());
     }
 
     /**
-     * Programa una notificación para recordar al usuario su reserva una hora antes del horario seleccionado.
+     * Cierra el diálogo de progreso de la reserva si está abierto.
+     */
+    private void cerrarDialogoProgreso() {
+        if (progressDialog != null) {
+            progressDialog.dismiss();
+            progressDialog = null;
+        }
+    }
+
+    /**
+     * Programa una notificación para recordar al usuario cada una de sus reservas una hora antes
+     * del horario seleccionado.
      *
-     * @param hora Hora de la reserva en formato HH:MM
+     * @param fechas Fechas de las reservas
+     * @param minuto Minuto de inicio de la reserva desde la medianoche
+     * @param hora   Hora de la reserva en formato HH:MM
      */
-    private void programarNotificacionReserva(String hora) {
+    private void programarNotificacionesReserva(List<Date> fechas, int minuto, String hora) {
         try {
             NotificationHelper.createNotificationChannel(requireContext());
 
-            Calendar fechaReserva = Calendar.getInstance();
-            fechaReserva.setTime(selectedDate);
-
-            String[] partes = hora.split(":");
-            int horas = Integer.parseInt(partes[0]);
-            int minutos = Integer.parseInt(partes[1]);
+            android.app.AlarmManager alarmManager =
+                    (android.app.AlarmManager) requireContext().getSystemService(Context.ALARM_SERVICE);
+            if (alarmManager == null) {
+                return;
+            }
 
-            fechaReserva.set(Calendar.HOUR_OF_DAY, horas);
-            fechaReserva.set(Calendar.MINUTE, minutos);
-            fechaReserva.set(Calendar.SECOND, 0);
+            boolean exacta = alarmManager.canScheduleExactAlarms();
+            boolean programada = false;
+            Calendar ahora = Calendar.getInstance();
+            for (Date fecha : fechas) {
+                Calendar fechaReserva = Calendar.getInstance();
+                fechaReserva.setTime(fecha);
 
-            fechaReserva.add(Calendar.HOUR_OF_DAY, -1);
+                fechaReserva.set(Calendar.HOUR_OF_DAY, minuto / 60);
+                fechaReserva.set(Calendar.MINUTE, minuto % 60);
+                fechaReserva.set(Calendar.SECOND, 0);
 
-            Calendar ahora = Calendar.getInstance();
-            if (fechaReserva.before(ahora)) {
-                Log.d(TAG, "La hora de notificación ya ha pasado, no se programará");
-                return;
-            }
+                fechaReserva.add(Calendar.HOUR_OF_DAY, -1);
 
-            int notificationId = (int) (System.currentTimeMillis() % Integer.MAX_VALUE);
+                if (fechaReserva.before(ahora)) {
+                    Log.d(TAG, "La hora de notificación ya ha pasado, no se programará");
+                    continue;
+                }
 
-            Intent intent = ReservationAlarmReceiver.createIntent(
-                    requireContext(),
-                    notificationId,
-                    selectedInstalacionId,
-                    hora,
-                    new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(selectedDate));
+                String fechaTexto = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(fecha);
+                int notificationId = Objects.hash(selectedInstalacionId, fechaTexto, hora);
 
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                    requireContext(),
-                    notificationId,
-                    intent,
-                    PendingIntent.FLAG_IMMUTABLE);
+                Intent intent = ReservationAlarmReceiver.createIntent(
+                        requireContext(),
+                        notificationId,
+                        selectedInstalacionId,
+                        hora,
+                        fechaTexto);
 
-            android.app.AlarmManager alarmManager =
-                    (android.app.AlarmManager) requireContext().getSystemService(Context.ALARM_SERVICE);
+                PendingIntent pendingIntent = PendingIntent.getBroadcast(
+                        requireContext(),
+                        notificationId,
+                        intent,
+                        PendingIntent.FLAG_IMMUTABLE);
 
-            if (alarmManager != null) {
-                if (alarmManager.canScheduleExactAlarms()) {
+                if (exacta) {
                     programarAlarmaExacta(alarmManager, fechaReserva, pendingIntent);
                 } else {
-                    mostrarDialogoPermisoAlarma();
                     alarmManager.set(
                             android.app.AlarmManager.RTC_WAKEUP,
                             fechaReserva.getTimeInMillis(),
                             pendingIntent);
                 }
+                programada = true;
 
                 Log.d(TAG, "Notificación programada para: " + fechaReserva.getTime());
+            }
 
+            if (programada) {
+                if (!exacta) {
+                    mostrarDialogoPermisoAlarma();
+                }
                 Toast.makeText(requireContext(),
                         "Se te notificará una hora antes de tu reserva",
                         Toast.LENGTH_SHORT).show();
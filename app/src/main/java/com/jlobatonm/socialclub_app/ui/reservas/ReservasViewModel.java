@@ -1,40 +1,63 @@
 package com.jlobatonm.socialclub_app.ui.reservas;
 
+import android.app.Application;
+import android.content.Context;
 import android.util.Log;
 
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
 
-import com.jlobatonm.socialclub_app.database.HorarioDao;
-import com.jlobatonm.socialclub_app.database.InstalacionDao;
-import com.jlobatonm.socialclub_app.database.MySQLConnection;
+import com.jlobatonm.socialclub_app.database.CancellationToken;
 import com.jlobatonm.socialclub_app.database.ReservaDao;
-import com.jlobatonm.socialclub_app.model.Instalacion;
+import com.jlobatonm.socialclub_app.model.DisponibilidadDia;
+import com.jlobatonm.socialclub_app.model.InstalacionResumen;
+import com.jlobatonm.socialclub_app.repository.ClubRepository;
 
-import java.sql.Connection;
-import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * ViewModel para la gestión de reservas de instalaciones.
  * Proporciona datos y funcionalidades para la vista de reservas.
  */
-public class ReservasViewModel extends ViewModel {
+public class ReservasViewModel extends AndroidViewModel {
 
     private static final String TAG = "ReservasViewModel";
+    private static final int DIAS_PRECARGA = 14;
+    private static final long VIGENCIA_PRECARGA_MS = 60_000;
+    private static final String PREFS_NAME = "user_prefs";
+    private static final String KEY_NUMERO_SOCIO = "numero_socio";
 
-    private final MutableLiveData<List<Instalacion>> instalaciones = new MutableLiveData<>();
-    private final MutableLiveData<List<String>> horasReservadas = new MutableLiveData<>();
+    private final MutableLiveData<List<InstalacionResumen>> instalaciones = new MutableLiveData<>();
+    private final MutableLiveData<DisponibilidadDia> disponibilidad = new MutableLiveData<>();
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
     private final MutableLiveData<Boolean> reservaRealizada = new MutableLiveData<>(false);
+    private final MutableLiveData<Boolean> horaOcupada = new MutableLiveData<>(false);
+    private final MutableLiveData<ResultadoRecurrente> resultadoRecurrente = new MutableLiveData<>();
+    private final CancellationToken cancellationToken = new CancellationToken();
+    private final ClubRepository repository;
+    private final IndiceDisponibilidad indiceDisponibilidad = new IndiceDisponibilidad();
+    private final Set<Integer> precargasEnCurso = new HashSet<>();
+    private int instalacionSeleccionada;
+    private LocalDate diaSeleccionado;
 
     /**
      * Constructor que inicializa el ViewModel y carga la lista de instalaciones.
+     *
+     * @param application Aplicación a la que pertenece el ViewModel
      */
-    public ReservasViewModel() {
+    public ReservasViewModel(@NonNull Application application) {
+        super(application);
+        repository = ClubRepository.getInstance(application);
         cargarInstalaciones();
     }
 
@@ -57,85 +80,198 @@ public class ReservasViewModel extends ViewModel {
     }
 
     /**
-     * Carga la lista de instalaciones disponibles desde la base de datos.
-     * Actualiza el LiveData de instalaciones y el estado de carga.
+     * Indica si la última reserva no se pudo guardar porque otro socio reservó antes la misma franja.
+     *
+     * @return LiveData que indica si la franja estaba ocupada
+     */
+    public LiveData<Boolean> getHoraOcupada() {
+        return horaOcupada;
+    }
+
+    /**
+     * Obtiene el resultado de la última reserva recurrente, o null si ya se ha mostrado.
+     *
+     * @return LiveData con las fechas reservadas y las que estaban ocupadas
+     */
+    public LiveData<ResultadoRecurrente> getResultadoRecurrente() {
+        return resultadoRecurrente;
+    }
+
+    /**
+     * Obtiene la lista de instalaciones disponibles.
+     *
+     * @return LiveData con las instalaciones
+     */
+    public LiveData<List<InstalacionResumen>> getInstalaciones() {
+        return instalaciones;
+    }
+
+    /**
+     * Carga la lista de instalaciones disponibles, primero la guardada en el dispositivo
+     * y, si está caducada, la del servidor. Actualiza el LiveData de instalaciones y el estado de carga.
      */
     public void cargarInstalaciones() {
         isLoading.setValue(true);
         errorMessage.setValue(null);
 
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
+        repository.getResumenInstalaciones(cancellationToken, new ClubRepository.Callback<>() {
             @Override
-            public void onSuccess(Connection connection) {
-                InstalacionDao instalacionDao = new InstalacionDao();
-                instalacionDao.getAllInstalaciones(connection, new InstalacionDao.GetAllInstalacionesCallback() {
-                    @Override
-                    public void onResult(List<Instalacion> resultado) {
-                        instalaciones.postValue(resultado);
-                        isLoading.postValue(false);
-                    }
-
-                    @Override
-                    public void onError(Exception exception) {
-                        Log.e(TAG, "Error al cargar instalaciones", exception);
-                        errorMessage.postValue("Error al cargar instalaciones: " + exception.getMessage());
-                        isLoading.postValue(false);
-                    }
-                });
+            public void onResult(List<InstalacionResumen> resultado, boolean desdeCache) {
+                instalaciones.postValue(resultado);
+                isLoading.postValue(false);
             }
 
             @Override
-            public void onFailure(SQLException exception) {
-                Log.e(TAG, "Error de conexión a la base de datos", exception);
-                errorMessage.postValue("Error de conexión: " + exception.getMessage());
+            public void onError(Exception exception) {
+                Log.e(TAG, "Error al cargar instalaciones", exception);
+                errorMessage.postValue("Error al cargar instalaciones: " + exception.getMessage());
                 isLoading.postValue(false);
             }
         });
     }
 
     /**
-     * Carga los horarios que ya están reservados para una instalación en una fecha específica.
+     * Obtiene la disponibilidad de la instalación y fecha seleccionadas.
+     *
+     * @return LiveData con las franjas del día y su ocupación
+     */
+    public LiveData<DisponibilidadDia> getDisponibilidad() {
+        return disponibilidad;
+    }
+
+    /**
+     * Carga la disponibilidad de una instalación en una fecha específica.
+     * <p>
+     * Los próximos {@link #DIAS_PRECARGA} días de la instalación se precargan con una sola consulta,
+     * de modo que cambiar de fecha dentro de ese rango se resuelve en memoria. Si la precarga tiene
+     * más de {@link #VIGENCIA_PRECARGA_MS}, se muestra igualmente y se refresca en segundo plano.
+     * Las fechas fuera del rango se consultan de una en una.
+     * </p>
+     * Si mientras tanto se pide otra instalación o fecha, el resultado anterior se descarta.
      *
      * @param idInstalacion ID de la instalación seleccionada
-     * @param fecha         Fecha para la cual se consultan las reservas
+     * @param fecha         Fecha para la cual se consulta la disponibilidad
      */
-    public void cargarHorariosReservados(int idInstalacion, Date fecha) {
+    public void cargarDisponibilidad(int idInstalacion, Date fecha) {
         if (idInstalacion == 0 || fecha == null) {
             Log.e(TAG, "No se pueden cargar horarios: instalación o fecha no válidas");
             errorMessage.postValue("Instalación o fecha no válidas");
             return;
         }
 
-        isLoading.postValue(true);
+        LocalDate dia = fecha.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        instalacionSeleccionada = idInstalacion;
+        diaSeleccionado = dia;
         errorMessage.postValue(null);
 
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
+        DisponibilidadDia precargada = indiceDisponibilidad.get(idInstalacion, dia);
+        if (precargada != null) {
+            disponibilidad.setValue(precargada);
+            if (indiceDisponibilidad.necesitaRefresco(idInstalacion, System.currentTimeMillis(), VIGENCIA_PRECARGA_MS)) {
+                precargarDisponibilidad(idInstalacion);
+            }
+            return;
+        }
+
+        isLoading.postValue(true);
+
+        LocalDate hoy = LocalDate.now();
+        if (!dia.isBefore(hoy) && dia.isBefore(hoy.plusDays(DIAS_PRECARGA))) {
+            precargarDisponibilidad(idInstalacion);
+            return;
+        }
+
+        ReservaDao reservaDao = new ReservaDao(cancellationToken);
+        reservaDao.getDisponibilidadDia(idInstalacion, fecha, getNumeroSocio(), new ReservaDao.GetDisponibilidadCallback() {
+            @Override
+            public void onResult(DisponibilidadDia resultado) {
+                if (!esSeleccion(idInstalacion, dia)) {
+                    return;
+                }
+                disponibilidad.setValue(resultado);
+                isLoading.postValue(false);
+            }
+
             @Override
-            public void onSuccess(Connection connection) {
-                HorarioDao horarioDao = new HorarioDao();
-                horarioDao.getHorasReservadas(connection, idInstalacion, fecha, new HorarioDao.GetHorasReservadasCallback() {
+            public void onError(Exception exception) {
+                if (!esSeleccion(idInstalacion, dia)) {
+                    return;
+                }
+                Log.e(TAG, "Error al cargar horarios reservados", exception);
+                errorMessage.postValue("Error al cargar horarios: " + exception.getMessage());
+                isLoading.postValue(false);
+            }
+        });
+    }
+
+    /**
+     * Precarga la disponibilidad de los próximos {@link #DIAS_PRECARGA} días de una instalación
+     * y, si sigue seleccionada, publica la del día seleccionado.
+     *
+     * @param idInstalacion ID de la instalación
+     */
+    private void precargarDisponibilidad(int idInstalacion) {
+        if (!precargasEnCurso.add(idInstalacion)) {
+            return;
+        }
+        int generacion = indiceDisponibilidad.getGeneracion(idInstalacion);
+
+        ReservaDao reservaDao = new ReservaDao(cancellationToken);
+        reservaDao.getDisponibilidadRango(idInstalacion, LocalDate.now(), DIAS_PRECARGA, getNumeroSocio(),
+                new ReservaDao.GetDisponibilidadRangoCallback() {
                     @Override
-                    public void onResult(List<String> resultado) {
-                        horasReservadas.postValue(resultado);
-                        isLoading.postValue(false);
+                    public void onResult(Map<LocalDate, DisponibilidadDia> disponibilidades) {
+                        // Si se reservó mientras tanto, esta consulta puede ser anterior a la reserva
+                        if (!indiceDisponibilidad.guardar(idInstalacion, disponibilidades,
+                                System.currentTimeMillis(), generacion)) {
+                            return;
+                        }
+                        precargasEnCurso.remove(idInstalacion);
+                        if (instalacionSeleccionada == idInstalacion) {
+                            DisponibilidadDia seleccionada = disponibilidades.get(diaSeleccionado);
+                            if (seleccionada != null) {
+                                disponibilidad.setValue(seleccionada);
+                                isLoading.postValue(false);
+                            }
+                        }
                     }
 
                     @Override
                     public void onError(Exception exception) {
-                        Log.e(TAG, "Error al cargar horarios reservados", exception);
-                        errorMessage.postValue("Error al cargar horarios: " + exception.getMessage());
-                        isLoading.postValue(false);
+                        if (generacion != indiceDisponibilidad.getGeneracion(idInstalacion)) {
+                            return;
+                        }
+                        precargasEnCurso.remove(idInstalacion);
+                        Log.e(TAG, "Error al precargar horarios", exception);
+                        if (instalacionSeleccionada == idInstalacion
+                                && indiceDisponibilidad.get(idInstalacion, diaSeleccionado) == null) {
+                            errorMessage.postValue("Error al cargar horarios: " + exception.getMessage());
+                            isLoading.postValue(false);
+                        }
                     }
                 });
-            }
+    }
 
-            @Override
-            public void onFailure(SQLException exception) {
-                Log.e(TAG, "Error de conexión a la base de datos", exception);
-                errorMessage.postValue("Error de conexión: " + exception.getMessage());
-                isLoading.postValue(false);
-            }
-        });
+    /**
+     * Número del socio de la sesión, guardado al iniciar sesión, para que sus propios bloqueos
+     * no aparezcan como franjas ocupadas.
+     */
+    private String getNumeroSocio() {
+        return getApplication().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                .getString(KEY_NUMERO_SOCIO, "");
+    }
+
+    /**
+     * Descarta la disponibilidad precargada de una instalación y la precarga en curso, de modo que
+     * la siguiente consulta vuelva al servidor.
+     */
+    private void invalidarDisponibilidad(int idInstalacion) {
+        indiceDisponibilidad.invalidar(idInstalacion);
+        precargasEnCurso.remove(idInstalacion);
+    }
+
+    private boolean esSeleccion(int idInstalacion, LocalDate dia) {
+        return instalacionSeleccionada == idInstalacion && dia.equals(diaSeleccionado);
     }
 
     /**
@@ -156,41 +292,95 @@ public class ReservasViewModel extends ViewModel {
         isLoading.setValue(true);
         errorMessage.setValue(null);
         reservaRealizada.setValue(false);
+        horaOcupada.setValue(false);
 
-        MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
+        ReservaDao reservaDao = new ReservaDao();
+        reservaDao.guardarReserva(numeroSocio, idInstalacion, fecha, hora, new ReservaDao.SaveReservaCallback() {
             @Override
-            public void onSuccess(Connection connection) {
-                ReservaDao reservaDao = new ReservaDao();
-                reservaDao.guardarReserva(connection, numeroSocio, idInstalacion, fecha, hora, new ReservaDao.SaveReservaCallback() {
-                    @Override
-                    public void onSuccess() {
-                        Log.d(TAG, "Reserva realizada correctamente para socio: " + numeroSocio +
-                                " en instalación: " + idInstalacion +
-                                " fecha: " + fecha +
-                                " hora: " + hora);
+            public void onSuccess() {
+                Log.d(TAG, "Reserva realizada correctamente para socio: " + numeroSocio +
+                        " en instalación: " + idInstalacion +
+                        " fecha: " + fecha +
+                        " hora: " + hora);
 
-                        reservaRealizada.postValue(true);
-                        isLoading.postValue(false);
+                repository.invalidar(ClubRepository.Recurso.RESERVAS);
+                invalidarDisponibilidad(idInstalacion);
+                reservaRealizada.postValue(true);
+                isLoading.postValue(false);
+            }
+
+            @Override
+            public void onHoraOcupada() {
+                invalidarDisponibilidad(idInstalacion);
+                horaOcupada.postValue(true);
+                isLoading.postValue(false);
+            }
 
-                        cargarHorariosReservados(idInstalacion, fecha);
+            @Override
+            public void onError(Exception exception) {
+                Log.e(TAG, "Error al realizar la reserva", exception);
+                errorMessage.postValue("Error al realizar la reserva: " + exception.getMessage());
+                isLoading.postValue(false);
+            }
+        });
+    }
+
+    /**
+     * Reserva la misma franja de una instalación durante varias semanas seguidas a partir de una fecha.
+     * Todas las fechas se guardan en una única operación y las que ya estaban ocupadas se informan
+     * en {@link #getResultadoRecurrente()}.
+     *
+     * @param numeroSocio   Número de socio que realiza la reserva
+     * @param idInstalacion ID de la instalación a reservar
+     * @param fecha         Fecha de la primera reserva
+     * @param hora          Hora de las reservas
+     * @param semanas       Número de semanas a reservar, incluida la de la primera fecha
+     */
+    public void realizarReservasRecurrentes(String numeroSocio, int idInstalacion, Date fecha, String hora, int semanas) {
+        if (numeroSocio == null || numeroSocio.isEmpty() || idInstalacion <= 0 || fecha == null
+                || hora == null || hora.isEmpty() || semanas <= 0) {
+            errorMessage.setValue("Datos de reserva incompletos o inválidos");
+            return;
+        }
+
+        isLoading.setValue(true);
+        errorMessage.setValue(null);
+
+        LocalDate primera = fecha.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        List<LocalDate> fechas = new ArrayList<>(semanas);
+        for (int semana = 0; semana < semanas; semana++) {
+            fechas.add(primera.plusWeeks(semana));
+        }
+
+        ReservaDao reservaDao = new ReservaDao();
+        reservaDao.guardarReservasRecurrentes(numeroSocio, idInstalacion, fechas, hora,
+                new ReservaDao.GuardarReservasRecurrentesCallback() {
+                    @Override
+                    public void onResult(List<LocalDate> reservadas, List<LocalDate> ocupadas) {
+                        Log.d(TAG, "Reservas recurrentes para socio " + numeroSocio + ": "
+                                + reservadas.size() + " reservadas, " + ocupadas.size() + " ocupadas");
+                        if (!reservadas.isEmpty()) {
+                            repository.invalidar(ClubRepository.Recurso.RESERVAS);
+                        }
+                        invalidarDisponibilidad(idInstalacion);
+                        resultadoRecurrente.postValue(new ResultadoRecurrente(reservadas, ocupadas));
+                        isLoading.postValue(false);
                     }
 
                     @Override
                     public void onError(Exception exception) {
-                        Log.e(TAG, "Error al realizar la reserva", exception);
-                        errorMessage.postValue("Error al realizar la reserva: " + exception.getMessage());
+                        Log.e(TAG, "Error al realizar las reservas recurrentes", exception);
+                        errorMessage.postValue("Error al realizar las reservas: " + exception.getMessage());
                         isLoading.postValue(false);
                     }
                 });
-            }
+    }
 
-            @Override
-            public void onFailure(SQLException exception) {
-                Log.e(TAG, "Error de conexión a la base de datos", exception);
-                errorMessage.postValue("Error de conexión: " + exception.getMessage());
-                isLoading.postValue(false);
-            }
-        });
+    /**
+     * Reinicia el resultado de la reserva recurrente después de mostrarlo.
+     */
+    public void resetResultadoRecurrente() {
+        resultadoRecurrente.setValue(null);
     }
 
     /**
@@ -200,4 +390,41 @@ public class ReservasViewModel extends ViewModel {
     public void resetReservaRealizada() {
         reservaRealizada.setValue(false);
     }
-}
\ No newline at end of file
+
+    /**
+     * Reinicia el aviso de franja ocupada después de mostrarlo.
+     */
+    public void resetHoraOcupada() {
+        horaOcupada.setValue(false);
+    }
+
+    /**
+     * Cancela las consultas pendientes al destruirse el ViewModel.
+     */
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        cancellationToken.cancel();
+    }
+
+    /**
+     * Resultado de una reserva recurrente: fechas reservadas y fechas que ya estaban ocupadas.
+     */
+    public static class ResultadoRecurrente {
+        private final List<LocalDate> reservadas;
+        private final List<LocalDate> ocupadas;
+
+        ResultadoRecurrente(List<LocalDate> reservadas, List<LocalDate> ocupadas) {
+            this.reservadas = reservadas;
+            this.ocupadas = ocupadas;
+        }
+
+        public List<LocalDate> getReservadas() {
+            return reservadas;
+        }
+
+        public List<LocalDate> getOcupadas() {
+            return ocupadas;
+        }
+    }
+}
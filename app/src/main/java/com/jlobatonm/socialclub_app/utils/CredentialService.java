@@ -0,0 +1,247 @@
+package com.jlobatonm.socialclub_app.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Servicio singleton para cifrar y verificar contraseñas con BCrypt fuera del hilo principal
+ * y de los hilos de base de datos.
+ * <p>
+ * BCrypt es deliberadamente costoso: en dispositivos modestos un cifrado puede tardar cientos
+ * de milisegundos. Todas las operaciones se ejecutan en un único hilo de cálculo con una cola
+ * acotada, y los resultados se entregan en el hilo principal.
+ * </p>
+ * <p>
+ * El coste de los cifrados nuevos se calibra en el propio dispositivo la primera vez que se
+ * necesita: se mide un cifrado con {@link #COSTE_MINIMO} y se sube el coste (cada punto dobla
+ * el tiempo) mientras la estimación no supere {@link #PRESUPUESTO_MS}, sin pasar de
+ * {@link #COSTE_MAXIMO}. La latencia de cada verificación se registra en el log y se acumula
+ * en {@link Estadisticas}.
+ * </p>
+ */
+public class CredentialService {
+
+    private static final String TAG = "CredentialService";
+
+    /** Coste mínimo aceptado para los cifrados nuevos, aunque el dispositivo sea lento. */
+    public static final int COSTE_MINIMO = 10;
+    /** Coste máximo de los cifrados nuevos. */
+    public static final int COSTE_MAXIMO = 13;
+    /** Tiempo objetivo, en milisegundos, de un cifrado o una verificación. */
+    public static final long PRESUPUESTO_MS = 250;
+
+    private static final int MAX_PENDIENTES = 8;
+
+    private static CredentialService instance;
+
+    /**
+     * Interfaz de callback para recibir una contraseña cifrada.
+     */
+    public interface HashCallback {
+        /**
+         * @param hash Contraseña cifrada con BCrypt
+         */
+        void onResult(String hash);
+
+        /**
+         * @param exception Excepción que contiene los detalles del error
+         */
+        void onError(Exception exception);
+    }
+
+    /**
+     * Interfaz de callback para recibir el resultado de una verificación.
+     */
+    public interface VerificarCallback {
+        /**
+         * @param valida true si la contraseña coincide con el cifrado
+         */
+        void onResult(boolean valida);
+    }
+
+    /**
+     * Latencias acumuladas de las verificaciones desde que arrancó la aplicación.
+     */
+    public static final class Estadisticas {
+        private final int verificaciones;
+        private final long totalMs;
+        private final long maximoMs;
+        private final long ultimoMs;
+
+        Estadisticas(int verificaciones, long totalMs, long maximoMs, long ultimoMs) {
+            this.verificaciones = verificaciones;
+            this.totalMs = totalMs;
+            this.maximoMs = maximoMs;
+            this.ultimoMs = ultimoMs;
+        }
+
+        /**
+         * @return Número de verificaciones realizadas
+         */
+        public int getVerificaciones() {
+            return verificaciones;
+        }
+
+        /**
+         * @return Latencia media en milisegundos, o 0 si no hay verificaciones
+         */
+        public long getMediaMs() {
+            return verificaciones == 0 ? 0 : totalMs / verificaciones;
+        }
+
+        /**
+         * @return Latencia máxima en milisegundos
+         */
+        public long getMaximoMs() {
+            return maximoMs;
+        }
+
+        /**
+         * @return Latencia de la última verificación en milisegundos
+         */
+        public long getUltimoMs() {
+            return ultimoMs;
+        }
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor;
+    private int coste;
+    private int verificaciones;
+    private long totalVerificacionMs;
+    private long maximoVerificacionMs;
+    private long ultimaVerificacionMs;
+
+    /**
+     * Constructor privado para prevenir la instanciación directa.
+     * Este constructor es parte del patrón Singleton.
+     */
+    private CredentialService() {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDIENTES), runnable -> {
+            Thread thread = new Thread(runnable, "credenciales");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Obtiene la instancia única de CredentialService.
+     *
+     * @return La instancia única de CredentialService
+     */
+    public static synchronized CredentialService getInstance() {
+        if (instance == null) {
+            instance = new CredentialService();
+        }
+        return instance;
+    }
+
+    /**
+     * Cifra una contraseña con el coste calibrado para este dispositivo.
+     * Cualquier fallo, también dentro del cifrado, se entrega en {@link HashCallback#onError}.
+     *
+     * @param password Contraseña en texto plano
+     * @param callback Callback que recibe el cifrado en el hilo principal
+     */
+    public void hash(String password, HashCallback callback) {
+        ejecutar(() -> {
+            try {
+                int costeCifrado = obtenerCoste();
+                long inicio = SystemClock.elapsedRealtime();
+                String hash = BCrypt.hashpw(password, BCrypt.gensalt(costeCifrado));
+                Log.d(TAG, "Cifrado con coste " + costeCifrado + " en " + (SystemClock.elapsedRealtime() - inicio) + " ms");
+                mainHandler.post(() -> callback.onResult(hash));
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error al cifrar la contraseña: " + e.getMessage(), e);
+                mainHandler.post(() -> callback.onError(e));
+            }
+        }, callback::onError);
+    }
+
+    /**
+     * Comprueba si una contraseña en texto plano coincide con su cifrado BCrypt.
+     * Un cifrado con formato no válido, o una cola llena, se entregan como no coincidente.
+     *
+     * @param password Contraseña en texto plano
+     * @param hash     Contraseña cifrada guardada
+     * @param callback Callback que recibe el resultado en el hilo principal
+     */
+    public void verificar(String password, String hash, VerificarCallback callback) {
+        if (password == null || hash == null) {
+            mainHandler.post(() -> callback.onResult(false));
+            return;
+        }
+        ejecutar(() -> {
+            long inicio = SystemClock.elapsedRealtime();
+            boolean valida;
+            try {
+                valida = BCrypt.checkpw(password, hash);
+            } catch (IllegalArgumentException e) {
+                Log.e(TAG, "Cifrado de contraseña no válido: " + e.getMessage());
+                valida = false;
+            }
+            registrarVerificacion(SystemClock.elapsedRealtime() - inicio);
+            final boolean resultado = valida;
+            mainHandler.post(() -> callback.onResult(resultado));
+        }, e -> callback.onResult(false));
+    }
+
+    /**
+     * Obtiene las latencias acumuladas de verificación.
+     *
+     * @return Copia de las estadísticas actuales
+     */
+    public synchronized Estadisticas getEstadisticas() {
+        return new Estadisticas(verificaciones, totalVerificacionMs, maximoVerificacionMs, ultimaVerificacionMs);
+    }
+
+    private void ejecutar(Runnable tarea, Consumer<Exception> onError) {
+        try {
+            executor.execute(tarea);
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Demasiadas operaciones de credenciales pendientes");
+            mainHandler.post(() -> onError.accept(e));
+        }
+    }
+
+    private synchronized void registrarVerificacion(long ms) {
+        verificaciones++;
+        totalVerificacionMs += ms;
+        maximoVerificacionMs = Math.max(maximoVerificacionMs, ms);
+        ultimaVerificacionMs = ms;
+        Log.i(TAG, "Verificación en " + ms + " ms (media " + (totalVerificacionMs / verificaciones)
+                + " ms, máx " + maximoVerificacionMs + " ms, n=" + verificaciones + ")");
+    }
+
+    /**
+     * Devuelve el coste calibrado, midiéndolo la primera vez. Sólo se llama desde el hilo de cálculo.
+     */
+    private int obtenerCoste() {
+        if (coste == 0) {
+            long inicio = SystemClock.elapsedRealtime();
+            BCrypt.hashpw("calibracion", BCrypt.gensalt(COSTE_MINIMO));
+            long estimadoMs = Math.max(1, SystemClock.elapsedRealtime() - inicio);
+
+            int elegido = COSTE_MINIMO;
+            while (elegido < COSTE_MAXIMO && estimadoMs * 2 <= PRESUPUESTO_MS) {
+                elegido++;
+                estimadoMs *= 2;
+            }
+            coste = elegido;
+            Log.i(TAG, "Coste BCrypt calibrado: " + coste + " (~" + estimadoMs + " ms)");
+        }
+        return coste;
+    }
+}
@@ -0,0 +1,168 @@
+package com.jlobatonm.socialclub_app.utils;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.ImageDecoder;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.Size;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prepara la foto de perfil elegida por el socio (cámara o galería) para guardarla como BLOB.
+ * <p>
+ * Todo el trabajo se hace en un hilo de segundo plano:
+ * <ol>
+ *     <li>Se leen sólo las dimensiones de la imagen y se elige una reducción en potencia de dos,
+ *     de modo que nunca se decodifica la foto de la cámara a tamaño completo.</li>
+ *     <li>{@link ImageDecoder} aplica la orientación EXIF al decodificar, sin un segundo bitmap
+ *     para rotarla.</li>
+ *     <li>La imagen se ajusta a {@link #LADO_MAXIMO} píxeles y se codifica en JPEG buscando la mayor
+ *     calidad que no supere {@link #MAX_BYTES}.</li>
+ * </ol>
+ * Se mantiene JPEG, y no WebP, porque la foto la leen también otros sistemas del club.
+ * Junto con los bytes se entrega su hash MD5, el mismo que calcula MySQL con {@code MD5(foto)},
+ * para saber si la foto ha cambiado sin compararla ni decodificarla.
+ * </p>
+ */
+public final class FotoPerfilEncoder {
+
+    private static final String TAG = "FotoPerfilEncoder";
+
+    /** Lado mayor, en píxeles, de la foto guardada. */
+    public static final int LADO_MAXIMO = 500;
+    /** Tamaño máximo, en bytes, de la foto codificada. */
+    public static final int MAX_BYTES = 60 * 1024;
+
+    private static final int CALIDAD_MINIMA = 40;
+    private static final int CALIDAD_MAXIMA = 90;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "foto-perfil");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Interfaz de callback para recibir la foto procesada en el hilo principal.
+     */
+    public interface Callback {
+        /**
+         * Se invoca cuando la foto se ha procesado.
+         *
+         * @param vistaPrevia Imagen ya orientada y reducida, para mostrarla
+         * @param bytes       Foto codificada en JPEG, lista para guardar
+         * @param hash        Hash MD5 de los bytes, en hexadecimal
+         */
+        void onResult(Bitmap vistaPrevia, byte[] bytes, String hash);
+
+        /**
+         * Se invoca cuando no se ha podido leer o decodificar la imagen.
+         *
+         * @param exception Excepción que contiene los detalles del error
+         */
+        void onError(Exception exception);
+    }
+
+    private FotoPerfilEncoder() {
+    }
+
+    /**
+     * Procesa en segundo plano la imagen de un URI y entrega el resultado en el hilo principal.
+     *
+     * @param contentResolver ContentResolver con el que se abre el URI
+     * @param uri             URI de la imagen elegida
+     * @param callback        Callback que recibe la foto procesada o el error
+     */
+    public static void procesar(ContentResolver contentResolver, Uri uri, Callback callback) {
+        executor.execute(() -> {
+            try {
+                Bitmap bitmap = decodificar(contentResolver, uri);
+                byte[] bytes = codificar(bitmap);
+                String hash = md5(bytes);
+                Log.d(TAG, "Foto " + bitmap.getWidth() + "x" + bitmap.getHeight() + ": " + bytes.length + " bytes");
+                mainHandler.post(() -> callback.onResult(bitmap, bytes, hash));
+            } catch (IOException | GeneralSecurityException | RuntimeException e) {
+                Log.e(TAG, "Error al procesar la foto", e);
+                mainHandler.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Decodifica la imagen reducida y ya orientada, con su lado mayor ajustado a {@link #LADO_MAXIMO}.
+     */
+    private static Bitmap decodificar(ContentResolver contentResolver, Uri uri) throws IOException {
+        ImageDecoder.Source source = ImageDecoder.createSource(contentResolver, uri);
+        Bitmap bitmap = ImageDecoder.decodeBitmap(source, (decoder, info, src) -> {
+            Size size = info.getSize();
+            int sampleSize = 1;
+            while (Math.max(size.getWidth(), size.getHeight()) / (sampleSize * 2) >= LADO_MAXIMO) {
+                sampleSize *= 2;
+            }
+            decoder.setTargetSampleSize(sampleSize);
+            // Software para poder comprimirla después
+            decoder.setAllocator(ImageDecoder.ALLOCATOR_SOFTWARE);
+        });
+
+        int ancho = bitmap.getWidth();
+        int alto = bitmap.getHeight();
+        int ladoMayor = Math.max(ancho, alto);
+        if (ladoMayor <= LADO_MAXIMO) {
+            return bitmap;
+        }
+        float escala = (float) LADO_MAXIMO / ladoMayor;
+        Bitmap ajustado = Bitmap.createScaledBitmap(bitmap,
+                Math.max(1, Math.round(ancho * escala)), Math.max(1, Math.round(alto * escala)), true);
+        if (ajustado != bitmap) {
+            bitmap.recycle();
+        }
+        return ajustado;
+    }
+
+    /**
+     * Codifica en JPEG con la mayor calidad cuyo tamaño no supera {@link #MAX_BYTES}, mediante
+     * búsqueda binaria. Si ni la calidad mínima cabe, se usa la calidad mínima.
+     */
+    private static byte[] codificar(Bitmap bitmap) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(MAX_BYTES);
+        byte[] mejor = null;
+        int minima = CALIDAD_MINIMA;
+        int maxima = CALIDAD_MAXIMA;
+        while (minima <= maxima) {
+            int calidad = (minima + maxima) >>> 1;
+            out.reset();
+            bitmap.compress(Bitmap.CompressFormat.JPEG, calidad, out);
+            if (out.size() <= MAX_BYTES) {
+                mejor = out.toByteArray();
+                minima = calidad + 1;
+            } else {
+                maxima = calidad - 1;
+            }
+        }
+        if (mejor == null) {
+            out.reset();
+            bitmap.compress(Bitmap.CompressFormat.JPEG, CALIDAD_MINIMA, out);
+            mejor = out.toByteArray();
+        }
+        return mejor;
+    }
+
+    private static String md5(byte[] bytes) throws GeneralSecurityException {
+        byte[] hash = MessageDigest.getInstance("MD5").digest(bytes);
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,383 @@
+package com.jlobatonm.socialclub_app.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import com.jlobatonm.socialclub_app.R;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cargador compartido de las imágenes guardadas como BLOB (fotos de socio, imágenes de eventos).
+ * <p>
+ * Las imágenes se decodifican en hilos de segundo plano, reducidas con {@code inSampleSize}
+ * al tamaño del {@link ImageView} de destino, y se guardan en una caché en memoria acotada
+ * en bytes cuya clave es la clave de la imagen más el tamaño de destino. Los bytes originales
+ * descargados se guardan además en disco, en {@code cacheDir/imagenes}, para no volver a
+ * descargarlos en siguientes arranques.
+ * </p>
+ * <p>
+ * Las claves deben incluir el identificador de la entidad y un hash del contenido
+ * (por ejemplo {@code evento:12:<md5>}) para que una imagen sustituida no se sirva desde la caché.
+ * Cada petición queda asociada a su {@link ImageView}; si la vista se reutiliza para otra imagen
+ * o se llama a {@link #cancelar}, el resultado de la petición anterior se descarta.
+ * </p>
+ */
+public class ImageLoader {
+
+    private static final String TAG = "ImageLoader";
+
+    private static final int THREADS = 2;
+    private static final int MAX_MEMORIA_BYTES = (int) Math.min(32L * 1024 * 1024, Runtime.getRuntime().maxMemory() / 8);
+    private static final long MAX_DISCO_BYTES = 20L * 1024 * 1024;
+    private static final String DIRECTORIO_DISCO = "imagenes";
+
+    private static ImageLoader instance;
+
+    /**
+     * Origen asíncrono de los bytes de una imagen, por ejemplo una consulta a la base de datos.
+     * Sólo se usa si la imagen no está en la caché de memoria ni en la de disco.
+     */
+    public interface Fuente {
+        /**
+         * Obtiene los bytes de la imagen y los entrega a través del callback.
+         *
+         * @param callback Callback que recibe los bytes o el error
+         */
+        void obtener(FuenteCallback callback);
+    }
+
+    /**
+     * Callback con el que una {@link Fuente} entrega los bytes de la imagen.
+     */
+    public interface FuenteCallback {
+        /**
+         * Se invoca con los bytes de la imagen, o null si la entidad no tiene imagen.
+         *
+         * @param bytes Bytes de la imagen
+         */
+        void onBytes(byte[] bytes);
+
+        /**
+         * Se invoca cuando no se han podido obtener los bytes.
+         *
+         * @param exception Excepción que contiene los detalles del error
+         */
+        void onError(Exception exception);
+    }
+
+    /**
+     * Callback opcional que se invoca en el hilo principal cuando la imagen se ha mostrado.
+     */
+    public interface OnImagenCargada {
+        /**
+         * @param bitmap Imagen mostrada en la vista
+         */
+        void onCargada(Bitmap bitmap);
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor;
+    private final LruCache<String, Bitmap> memoria;
+    private final File directorioDisco;
+    private final DisplayMetrics displayMetrics;
+
+    private ImageLoader(Context context) {
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "img-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+        memoria = new LruCache<>(MAX_MEMORIA_BYTES) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+        };
+        directorioDisco = new File(context.getApplicationContext().getCacheDir(), DIRECTORIO_DISCO);
+        displayMetrics = context.getApplicationContext().getResources().getDisplayMetrics();
+    }
+
+    /**
+     * Obtiene la instancia única de ImageLoader.
+     *
+     * @param context Contexto de la aplicación
+     * @return La instancia única de ImageLoader
+     */
+    public static synchronized ImageLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new ImageLoader(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Calcula una clave de caché a partir de un hash del contenido ya conocido, por ejemplo
+     * el que devuelve la base de datos, sin recorrer los bytes de la imagen.
+     *
+     * @param tipo Tipo de entidad, por ejemplo "socio"
+     * @param id   Identificador de la entidad
+     * @param hash Hash del contenido
+     * @return Clave con el tipo, el identificador y el hash
+     */
+    public static String clave(String tipo, Object id, String hash) {
+        return tipo + ":" + id + ":" + hash;
+    }
+
+    /**
+     * Muestra en una vista una imagen cuyos bytes ya se tienen en memoria.
+     * No se usa la caché de disco, sólo la de memoria.
+     *
+     * @param destino Vista donde se muestra la imagen
+     * @param clave   Clave de la imagen, ver {@link #clave}
+     * @param bytes   Bytes de la imagen
+     */
+    public void cargar(ImageView destino, String clave, byte[] bytes) {
+        cargar(destino, clave, false, callback -> callback.onBytes(bytes), null);
+    }
+
+    /**
+     * Muestra en una vista una imagen, buscándola primero en memoria, después en disco y,
+     * si no está, pidiéndola a la fuente. Debe llamarse desde el hilo principal.
+     *
+     * @param destino   Vista donde se muestra la imagen
+     * @param clave     Clave de la imagen, con identificador y hash del contenido
+     * @param fuente    Origen de los bytes si la imagen no está en caché
+     * @param onCargada Callback opcional que se invoca cuando la imagen se ha mostrado
+     */
+    public void cargar(ImageView destino, String clave, Fuente fuente, OnImagenCargada onCargada) {
+        cargar(destino, clave, true, fuente, onCargada);
+    }
+
+    private void cargar(ImageView destino, String clave, boolean usarDisco, Fuente fuente, OnImagenCargada onCargada) {
+        cancelar(destino);
+
+        int ancho = medidaObjetivo(destino.getWidth(), destino.getLayoutParams() != null ? destino.getLayoutParams().width : 0,
+                displayMetrics.widthPixels);
+        int alto = medidaObjetivo(destino.getHeight(), destino.getLayoutParams() != null ? destino.getLayoutParams().height : 0,
+                displayMetrics.heightPixels);
+        String claveMemoria = clave + "@" + ancho + "x" + alto;
+
+        Bitmap enMemoria = memoria.get(claveMemoria);
+        if (enMemoria != null) {
+            destino.setImageBitmap(enMemoria);
+            if (onCargada != null) {
+                onCargada.onCargada(enMemoria);
+            }
+            return;
+        }
+
+        Peticion peticion = new Peticion(destino, clave, claveMemoria, ancho, alto, onCargada);
+        destino.setTag(R.id.image_loader_peticion, peticion);
+
+        executor.execute(() -> {
+            if (peticion.cancelada) return;
+            byte[] enDisco = usarDisco ? leerDisco(clave) : null;
+            if (enDisco != null) {
+                decodificarYEntregar(peticion, enDisco);
+                return;
+            }
+            mainHandler.post(() -> {
+                if (peticion.cancelada) return;
+                fuente.obtener(new FuenteCallback() {
+                    @Override
+                    public void onBytes(byte[] bytes) {
+                        if (bytes == null || bytes.length == 0 || peticion.cancelada) return;
+                        executor.execute(() -> {
+                            if (usarDisco) {
+                                guardarDisco(clave, bytes);
+                            }
+                            if (!peticion.cancelada) {
+                                decodificarYEntregar(peticion, bytes);
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onError(Exception exception) {
+                        Log.e(TAG, "Error al obtener la imagen " + clave, exception);
+                    }
+                });
+            });
+        });
+    }
+
+    /**
+     * Cancela la petición pendiente de una vista, por ejemplo al reciclar una fila de una lista.
+     *
+     * @param destino Vista cuya petición se cancela
+     */
+    public void cancelar(ImageView destino) {
+        Object tag = destino.getTag(R.id.image_loader_peticion);
+        if (tag instanceof Peticion) {
+            ((Peticion) tag).cancelada = true;
+            destino.setTag(R.id.image_loader_peticion, null);
+        }
+    }
+
+    /**
+     * Vacía las cachés de memoria y de disco, por ejemplo al cerrar sesión.
+     */
+    public void limpiar() {
+        memoria.evictAll();
+        executor.execute(() -> {
+            File[] ficheros = directorioDisco.listFiles();
+            if (ficheros != null) {
+                for (File fichero : ficheros) {
+                    if (!fichero.delete()) {
+                        Log.w(TAG, "No se pudo borrar " + fichero.getName());
+                    }
+                }
+            }
+        });
+    }
+
+    private void decodificarYEntregar(Peticion peticion, byte[] bytes) {
+        Bitmap bitmap = decodificar(bytes, peticion.ancho, peticion.alto);
+        if (bitmap == null) {
+            Log.d(TAG, "No se pudo decodificar la imagen " + peticion.clave);
+            return;
+        }
+        memoria.put(peticion.claveMemoria, bitmap);
+        mainHandler.post(() -> {
+            ImageView destino = peticion.destino;
+            if (peticion.cancelada || destino.getTag(R.id.image_loader_peticion) != peticion) {
+                return;
+            }
+            destino.setTag(R.id.image_loader_peticion, null);
+            destino.setImageBitmap(bitmap);
+            if (peticion.onCargada != null) {
+                peticion.onCargada.onCargada(bitmap);
+            }
+        });
+    }
+
+    /**
+     * Decodifica una imagen reduciéndola a la mayor potencia de dos que no la deje por debajo
+     * del tamaño de destino.
+     */
+    private static Bitmap decodificar(byte[] bytes, int ancho, int alto) {
+        BitmapFactory.Options opciones = new BitmapFactory.Options();
+        opciones.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(bytes, 0, bytes.length, opciones);
+        if (opciones.outWidth <= 0 || opciones.outHeight <= 0) {
+            return null;
+        }
+
+        int inSampleSize = 1;
+        while (opciones.outWidth / (inSampleSize * 2) >= ancho && opciones.outHeight / (inSampleSize * 2) >= alto) {
+            inSampleSize *= 2;
+        }
+
+        opciones.inJustDecodeBounds = false;
+        opciones.inSampleSize = inSampleSize;
+        return BitmapFactory.decodeByteArray(bytes, 0, bytes.length, opciones);
+    }
+
+    private static int medidaObjetivo(int medida, int medidaLayout, int medidaPantalla) {
+        if (medida > 0) return medida;
+        if (medidaLayout > 0) return medidaLayout;
+        return medidaPantalla;
+    }
+
+    private File ficheroDisco(String clave) {
+        return new File(directorioDisco, clave.replaceAll("[^A-Za-z0-9._-]", "_"));
+    }
+
+    private byte[] leerDisco(String clave) {
+        File fichero = ficheroDisco(clave);
+        if (!fichero.isFile()) {
+            return null;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(fichero.toPath());
+            fichero.setLastModified(System.currentTimeMillis());
+            return bytes;
+        } catch (IOException e) {
+            Log.w(TAG, "Error leyendo imagen de disco: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void guardarDisco(String clave, byte[] bytes) {
+        if (!directorioDisco.isDirectory() && !directorioDisco.mkdirs()) {
+            return;
+        }
+        File fichero = ficheroDisco(clave);
+        File temporal = new File(directorioDisco, fichero.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temporal)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            Log.w(TAG, "Error guardando imagen en disco: " + e.getMessage());
+            temporal.delete();
+            return;
+        }
+        if (!temporal.renameTo(fichero)) {
+            temporal.delete();
+            return;
+        }
+        recortarDisco();
+    }
+
+    /**
+     * Borra las imágenes usadas hace más tiempo hasta que el directorio no supere {@link #MAX_DISCO_BYTES}.
+     */
+    private void recortarDisco() {
+        File[] ficheros = directorioDisco.listFiles();
+        if (ficheros == null) return;
+
+        long total = 0;
+        for (File fichero : ficheros) {
+            total += fichero.length();
+        }
+        if (total <= MAX_DISCO_BYTES) return;
+
+        Arrays.sort(ficheros, Comparator.comparingLong(File::lastModified));
+        for (File fichero : ficheros) {
+            if (total <= MAX_DISCO_BYTES) break;
+            long tamanio = fichero.length();
+            if (fichero.delete()) {
+                total -= tamanio;
+            }
+        }
+    }
+
+    /**
+     * Petición de carga de una imagen en una vista concreta.
+     */
+    private static final class Peticion {
+        final ImageView destino;
+        final String clave;
+        final String claveMemoria;
+        final int ancho;
+        final int alto;
+        final OnImagenCargada onCargada;
+        volatile boolean cancelada;
+
+        Peticion(ImageView destino, String clave, String claveMemoria, int ancho, int alto, OnImagenCargada onCargada) {
+            this.destino = destino;
+            this.clave = clave;
+            this.claveMemoria = claveMemoria;
+            this.ancho = ancho;
+            this.alto = alto;
+            this.onCargada = onCargada;
+        }
+    }
+}
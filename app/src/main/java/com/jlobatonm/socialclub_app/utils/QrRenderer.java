@@ -0,0 +1,258 @@
+package com.jlobatonm.socialclub_app.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.jlobatonm.socialclub_app.R;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generador compartido del código QR del carnet de socio.
+ * <p>
+ * El QR se genera en un hilo de segundo plano rellenando un único {@code int[]} por filas
+ * y volcándolo al bitmap con una sola llamada a {@link Bitmap#setPixels}, en formato
+ * {@link Bitmap.Config#RGB_565} (la mitad de memoria que ARGB_8888, suficiente para blanco y negro).
+ * </p>
+ * <p>
+ * El resultado se guarda por contenido (el número de socio o el token del carnet firmado)
+ * en memoria y como PNG en {@code filesDir/qr},
+ * fuera del directorio de caché para que el sistema no lo borre: así el carnet se muestra
+ * al instante, incluso sin conexión. {@link #precargar} permite generarlo al iniciar sesión,
+ * antes de que se abra la pantalla principal.
+ * </p>
+ */
+public class QrRenderer {
+
+    private static final String TAG = "QrRenderer";
+
+    private static final int TAMANIO = 300;
+    private static final int BLANCO = 0xFFFFFFFF;
+    private static final int NEGRO = 0xFF000000;
+    private static final int MAX_MEMORIA_BYTES = 1024 * 1024;
+    private static final String DIRECTORIO_DISCO = "qr";
+    private static final int MAX_FICHEROS_DISCO = 4;
+
+    private static QrRenderer instance;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor;
+    private final LruCache<String, Bitmap> memoria;
+    private final File directorioDisco;
+
+    private QrRenderer(Context context) {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "qr");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+        memoria = new LruCache<>(MAX_MEMORIA_BYTES) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+        };
+        directorioDisco = new File(context.getApplicationContext().getFilesDir(), DIRECTORIO_DISCO);
+    }
+
+    /**
+     * Obtiene la instancia única de QrRenderer.
+     *
+     * @param context Contexto de la aplicación
+     * @return La instancia única de QrRenderer
+     */
+    public static synchronized QrRenderer getInstance(Context context) {
+        if (instance == null) {
+            instance = new QrRenderer(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Muestra en una vista el QR de un contenido. Si ya está en memoria se muestra
+     * de inmediato; si no, se lee de disco o se genera en segundo plano.
+     * Debe llamarse desde el hilo principal.
+     *
+     * @param destino   Vista donde se muestra el QR
+     * @param contenido Texto a codificar: el token del carnet o el número de socio
+     */
+    public void mostrar(ImageView destino, String contenido) {
+        if (contenido == null || contenido.isEmpty()) {
+            return;
+        }
+
+        Bitmap enMemoria = memoria.get(contenido);
+        if (enMemoria != null) {
+            destino.setTag(R.id.qr_renderer_numero, null);
+            destino.setImageBitmap(enMemoria);
+            return;
+        }
+
+        destino.setTag(R.id.qr_renderer_numero, contenido);
+        executor.execute(() -> {
+            Bitmap bitmap = obtener(contenido);
+            if (bitmap == null) return;
+            mainHandler.post(() -> {
+                if (contenido.equals(destino.getTag(R.id.qr_renderer_numero))) {
+                    destino.setTag(R.id.qr_renderer_numero, null);
+                    destino.setImageBitmap(bitmap);
+                }
+            });
+        });
+    }
+
+    /**
+     * Genera en segundo plano el QR de un contenido, si no está ya generado,
+     * para que la primera vez que se muestre no haya que esperar.
+     *
+     * @param contenido Texto a codificar: el token del carnet o el número de socio
+     */
+    public void precargar(String contenido) {
+        if (contenido == null || contenido.isEmpty() || memoria.get(contenido) != null) {
+            return;
+        }
+        executor.execute(() -> obtener(contenido));
+    }
+
+    /**
+     * Vacía las cachés de memoria y de disco, por ejemplo al cerrar sesión.
+     */
+    public void limpiar() {
+        memoria.evictAll();
+        executor.execute(() -> {
+            File[] ficheros = directorioDisco.listFiles();
+            if (ficheros != null) {
+                for (File fichero : ficheros) {
+                    if (!fichero.delete()) {
+                        Log.w(TAG, "No se pudo borrar " + fichero.getName());
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Busca el QR en memoria, después en disco y, si no está, lo genera y lo guarda en ambas.
+     * Se ejecuta siempre en el hilo del generador, por lo que un mismo QR no se genera dos veces.
+     */
+    private Bitmap obtener(String contenido) {
+        Bitmap bitmap = memoria.get(contenido);
+        if (bitmap != null) {
+            return bitmap;
+        }
+
+        File fichero = ficheroDisco(contenido);
+        if (fichero.isFile()) {
+            BitmapFactory.Options opciones = new BitmapFactory.Options();
+            opciones.inPreferredConfig = Bitmap.Config.RGB_565;
+            bitmap = BitmapFactory.decodeFile(fichero.getPath(), opciones);
+            fichero.setLastModified(System.currentTimeMillis());
+        }
+
+        if (bitmap == null) {
+            try {
+                bitmap = renderizar(contenido);
+            } catch (WriterException e) {
+                Log.e(TAG, "Error al generar el código QR", e);
+                return null;
+            }
+            guardarDisco(fichero, bitmap);
+        }
+
+        memoria.put(contenido, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * Codifica el contenido como QR y lo vuelca a un bitmap con una sola llamada a setPixels.
+     */
+    private static Bitmap renderizar(String contenido) throws WriterException {
+        BitMatrix matriz = new MultiFormatWriter().encode(contenido, BarcodeFormat.QR_CODE, TAMANIO, TAMANIO);
+        int ancho = matriz.getWidth();
+        int alto = matriz.getHeight();
+        int[] pixeles = new int[ancho * alto];
+
+        for (int y = 0; y < alto; y++) {
+            int fila = y * ancho;
+            for (int x = 0; x < ancho; x++) {
+                pixeles[fila + x] = matriz.get(x, y) ? NEGRO : BLANCO;
+            }
+        }
+
+        Bitmap bitmap = Bitmap.createBitmap(ancho, alto, Bitmap.Config.RGB_565);
+        bitmap.setPixels(pixeles, 0, ancho, 0, 0, ancho, alto);
+        return bitmap;
+    }
+
+    /**
+     * El nombre del fichero es un hash del contenido, porque el token del carnet es largo
+     * y no es apto como nombre de fichero.
+     */
+    private File ficheroDisco(String contenido) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(contenido.getBytes(StandardCharsets.UTF_8));
+            StringBuilder nombre = new StringBuilder(hash.length * 2 + 12);
+            for (byte b : hash) {
+                nombre.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return new File(directorioDisco, nombre.append('-').append(TAMANIO).append(".png").toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void guardarDisco(File fichero, Bitmap bitmap) {
+        if (!directorioDisco.isDirectory() && !directorioDisco.mkdirs()) {
+            return;
+        }
+        File temporal = new File(directorioDisco, fichero.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temporal)) {
+            bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        } catch (IOException e) {
+            Log.w(TAG, "Error guardando el código QR en disco: " + e.getMessage());
+            temporal.delete();
+            return;
+        }
+        if (!temporal.renameTo(fichero)) {
+            temporal.delete();
+            return;
+        }
+        recortarDisco();
+    }
+
+    /**
+     * Deja en disco sólo los {@link #MAX_FICHEROS_DISCO} QR usados más recientemente,
+     * para que los carnets renovados no se acumulen.
+     */
+    private void recortarDisco() {
+        File[] ficheros = directorioDisco.listFiles();
+        if (ficheros == null || ficheros.length <= MAX_FICHEROS_DISCO) return;
+
+        Arrays.sort(ficheros, Comparator.comparingLong(File::lastModified).reversed());
+        for (int i = MAX_FICHEROS_DISCO; i < ficheros.length; i++) {
+            if (!ficheros[i].delete()) {
+                Log.w(TAG, "No se pudo borrar " + ficheros[i].getName());
+            }
+        }
+    }
+}
@@ -10,12 +10,10 @@ package com.jlobatonm.socialclub_app.utils;
     import androidx.annotation.RequiresPermission;
     import androidx.core.app.NotificationManagerCompat;
 
-    import com.jlobatonm.socialclub_app.model.Instalacion;
+    import com.jlobatonm.socialclub_app.model.InstalacionResumen;
+    import com.jlobatonm.socialclub_app.database.CancellationToken;
+    import com.jlobatonm.socialclub_app.database.DatabaseExecutor;
     import com.jlobatonm.socialclub_app.database.InstalacionDao;
-    import com.jlobatonm.socialclub_app.database.MySQLConnection;
-
-    import java.sql.Connection;
-    import java.sql.SQLException;
 
     /**
      * Receptor de emisiones que maneja recordatorios de reservas de instalaciones.
@@ -69,44 +67,34 @@ package com.jlobatonm.socialclub_app.utils;
 
             Log.d(TAG, "Recibida alarma para recordatorio de reserva: ID=" + notificationId);
 
-            MySQLConnection.getConnectionAsync(new MySQLConnection.ConnectionCallback() {
+            InstalacionDao instalacionDao = new InstalacionDao(new CancellationToken(), DatabaseExecutor.Priority.BACKGROUND);
+            // Obtener el nombre de la instalación para la notificación
+            instalacionDao.getResumenInstalacionById(instalacionId, new InstalacionDao.GetResumenInstalacionCallback() {
+                @RequiresPermission(Manifest.permission.POST_NOTIFICATIONS)
                 @Override
-                public void onSuccess(Connection connection) {
-                    InstalacionDao instalacionDao = new InstalacionDao();
-                    // Obtener el nombre de la instalación para la notificación
-                    instalacionDao.getInstalacionById(connection, instalacionId, new InstalacionDao.GetInstalacionCallback() {
-                        @RequiresPermission(Manifest.permission.POST_NOTIFICATIONS)
-                        @Override
-                        public void onResult(Instalacion instalacion) {
-                            if (instalacion != null) {
-                                String title = "Recordatorio de Reserva";
-                                String message = "Tienes una reserva para " + instalacion.getNombre() +
-                                        " hoy a las " + hora;
-
-                                // Crear y mostrar notificación
-                                Notification notification = NotificationHelper.buildNotification(
-                                        context, title, message, notificationId);
+                public void onResult(InstalacionResumen instalacion) {
+                    if (instalacion != null) {
+                        String title = "Recordatorio de Reserva";
+                        String message = "Tienes una reserva para " + instalacion.getNombre() +
+                                " hoy a las " + hora;
 
-                                NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
-                                try {
-                                    notificationManager.notify(notificationId, notification);
-                                    Log.d(TAG, "Notificación mostrada: " + message);
-                                } catch (Exception e) {
-                                    Log.e(TAG, "Error al mostrar notificación: " + e.getMessage());
-                                }
-                            }
-                        }
+                        // Crear y mostrar notificación
+                        Notification notification = NotificationHelper.buildNotification(
+                                context, title, message, notificationId);
 
-                        @Override
-                        public void onError(Exception exception) {
-                            Log.e(TAG, "Error al obtener información de la instalación: " + exception.getMessage());
+                        NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
+                        try {
+                            notificationManager.notify(notificationId, notification);
+                            Log.d(TAG, "Notificación mostrada: " + message);
+                        } catch (Exception e) {
+                            Log.e(TAG, "Error al mostrar notificación: " + e.getMessage());
                         }
-                    });
+                    }
                 }
 
                 @Override
-                public void onFailure(SQLException exception) {
-                    Log.e(TAG, "Error de conexión al programar notificación: " + exception.getMessage());
+                public void onError(Exception exception) {
+                    Log.e(TAG, "Error al obtener información de la instalación: " + exception.getMessage());
                 }
             });
         }
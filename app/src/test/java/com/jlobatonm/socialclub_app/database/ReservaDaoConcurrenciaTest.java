@@ -0,0 +1,214 @@
+package com.jlobatonm.socialclub_app.database;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Prueba de concurrencia de {@link ReservaDao#guardarReserva} contra una base de datos H2 en memoria
+ * en modo MySQL, con el esquema de las migraciones de {@code database/migraciones}.
+ * Muchos socios intentan reservar a la vez la misma franja y sólo uno debe conseguirlo.
+ */
+public class ReservaDaoConcurrenciaTest {
+
+    private static final String URL = "jdbc:h2:mem:clubsocial;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final int SOCIOS = 32;
+    private static final int ID_INSTALACION = 1;
+    private static final String HORA = "10:00";
+    private static final java.sql.Date FECHA = java.sql.Date.valueOf("2030-06-15");
+
+    private ConnectionPool pool;
+
+    /**
+     * DAO que entrega los resultados en el hilo de base de datos, porque en las pruebas
+     * no hay hilo principal.
+     */
+    private static final class ReservaDaoSinHiloPrincipal extends ReservaDao {
+        @Override
+        protected void postToMain(Runnable delivery) {
+            delivery.run();
+        }
+    }
+
+    /**
+     * Resultados recogidos de los callbacks de todos los socios.
+     */
+    private static final class Resultados implements ReservaDao.SaveReservaCallback {
+        final AtomicInteger exitos = new AtomicInteger();
+        final AtomicInteger ocupadas = new AtomicInteger();
+        final List<Exception> errores = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch terminadas;
+
+        Resultados(int esperadas) {
+            terminadas = new CountDownLatch(esperadas);
+        }
+
+        @Override
+        public void onSuccess() {
+            exitos.incrementAndGet();
+            terminadas.countDown();
+        }
+
+        @Override
+        public void onHoraOcupada() {
+            ocupadas.incrementAndGet();
+            terminadas.countDown();
+        }
+
+        @Override
+        public void onError(Exception exception) {
+            errores.add(exception);
+            terminadas.countDown();
+        }
+    }
+
+    @Before
+    public void crearEsquema() throws Exception {
+        pool = new ConnectionPool(URL, "sa", "", 0, MySQLConnection.MAX_POOL_SIZE);
+        MySQLConnection.setPool(pool);
+        try (Connection connection = pool.borrow(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("CREATE TABLE reserva (" +
+                    "id_reserva INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "fecha DATE NOT NULL, " +
+                    "hora TIME NOT NULL, " +
+                    "id_instalacion INT NOT NULL, " +
+                    "numero_socio VARCHAR(20) NOT NULL, " +
+                    "id_empleado INT NULL)");
+            ejecutarMigracion(statement, "001_reserva_franja_unica.sql");
+            ejecutarMigracion(statement, "002_reserva_bloqueo.sql");
+        }
+    }
+
+    @After
+    public void cerrarPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void soloUnSocioReservaLaMismaFranjaALaVez() throws Exception {
+        Resultados resultados = reservarALaVez(SOCIOS);
+
+        assertEquals("Errores inesperados: " + resultados.errores, 0, resultados.errores.size());
+        assertEquals(1, resultados.exitos.get());
+        assertEquals(SOCIOS - 1, resultados.ocupadas.get());
+        assertEquals(1, contarReservas());
+    }
+
+    @Test
+    public void unaFranjaBloqueadaPorOtroSocioNoSeReserva() throws Exception {
+        try (Connection connection = pool.borrow();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO reserva_bloqueo (id_instalacion, fecha, hora, numero_socio, expira) VALUES (?, ?, ?, ?, ?)")) {
+            statement.setInt(1, ID_INSTALACION);
+            statement.setDate(2, FECHA);
+            statement.setString(3, HORA);
+            statement.setString(4, "BLOQUEO");
+            statement.setTimestamp(5, new Timestamp(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2)));
+            statement.executeUpdate();
+        }
+
+        Resultados resultados = reservarALaVez(SOCIOS);
+
+        assertEquals("Errores inesperados: " + resultados.errores, 0, resultados.errores.size());
+        assertEquals(0, resultados.exitos.get());
+        assertEquals(SOCIOS, resultados.ocupadas.get());
+        assertEquals(0, contarReservas());
+    }
+
+    /**
+     * Lanza una reserva de la misma franja por cada socio, todas a la vez desde hilos distintos,
+     * y espera a que terminen.
+     */
+    private static Resultados reservarALaVez(int socios) throws InterruptedException {
+        Resultados resultados = new Resultados(socios);
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(socios);
+        try {
+            for (int i = 0; i < socios; i++) {
+                String numeroSocio = "S" + i;
+                hilos.execute(() -> {
+                    try {
+                        salida.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    new ReservaDaoSinHiloPrincipal().guardarReserva(numeroSocio, ID_INSTALACION,
+                            new Date(FECHA.getTime()), HORA, resultados);
+                });
+            }
+            salida.countDown();
+            assertTrue("Las reservas no han terminado a tiempo", resultados.terminadas.await(30, TimeUnit.SECONDS));
+        } finally {
+            hilos.shutdownNow();
+        }
+        return resultados;
+    }
+
+    private int contarReservas() throws SQLException {
+        try (Connection connection = pool.borrow();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT COUNT(*) FROM reserva WHERE id_instalacion = ? AND fecha = ? AND hora = ?")) {
+            statement.setInt(1, ID_INSTALACION);
+            statement.setDate(2, FECHA);
+            statement.setString(3, HORA);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Ejecuta las sentencias de un fichero de {@code database/migraciones}, buscándolo desde el
+     * directorio de trabajo hacia arriba para no depender de dónde se lancen las pruebas.
+     */
+    private static void ejecutarMigracion(Statement statement, String nombre) throws IOException, SQLException {
+        File fichero = null;
+        for (File dir = new File("").getAbsoluteFile(); dir != null && fichero == null; dir = dir.getParentFile()) {
+            File candidato = new File(dir, "database/migraciones/" + nombre);
+            if (candidato.isFile()) {
+                fichero = candidato;
+            }
+        }
+        if (fichero == null) {
+            throw new IOException("No se encuentra la migración " + nombre);
+        }
+
+        StringBuilder sql = new StringBuilder();
+        for (String linea : Files.readAllLines(fichero.toPath(), StandardCharsets.UTF_8)) {
+            if (!linea.trim().startsWith("--")) {
+                sql.append(linea).append('\n');
+            }
+        }
+        for (String sentencia : sql.toString().split(";")) {
+            if (!sentencia.trim().isEmpty()) {
+                statement.execute(sentencia);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.jlobatonm.socialclub_app.services;
+
+/**
+ * Reloj de pruebas cuya hora sólo cambia cuando la prueba la avanza.
+ */
+class FakeClock implements Clock {
+
+    private long ahora;
+
+    FakeClock(long ahora) {
+        this.ahora = ahora;
+    }
+
+    /**
+     * Avanza la hora del reloj.
+     *
+     * @param ms Milisegundos a avanzar.
+     */
+    void avanzar(long ms) {
+        ahora += ms;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return ahora;
+    }
+}
@@ -0,0 +1,144 @@
+package com.jlobatonm.socialclub_app.services;
+
+import android.content.SharedPreferences;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Preferencias en memoria para las pruebas, donde no hay {@code Context} de Android.
+ * Los cambios se aplican al llamar a {@code apply()} o {@code commit()}.
+ */
+class FakeSharedPreferences implements SharedPreferences {
+
+    private final Map<String, Object> valores = new HashMap<>();
+
+    @Override
+    public Map<String, ?> getAll() {
+        return new HashMap<>(valores);
+    }
+
+    @Override
+    public String getString(String key, String defValue) {
+        return (String) valores.getOrDefault(key, defValue);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<String> getStringSet(String key, Set<String> defValues) {
+        return (Set<String>) valores.getOrDefault(key, defValues);
+    }
+
+    @Override
+    public int getInt(String key, int defValue) {
+        return (Integer) valores.getOrDefault(key, defValue);
+    }
+
+    @Override
+    public long getLong(String key, long defValue) {
+        return (Long) valores.getOrDefault(key, defValue);
+    }
+
+    @Override
+    public float getFloat(String key, float defValue) {
+        return (Float) valores.getOrDefault(key, defValue);
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defValue) {
+        return (Boolean) valores.getOrDefault(key, defValue);
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return valores.containsKey(key);
+    }
+
+    @Override
+    public Editor edit() {
+        return new FakeEditor();
+    }
+
+    @Override
+    public void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+    }
+
+    @Override
+    public void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+    }
+
+    private final class FakeEditor implements Editor {
+
+        private final Map<String, Object> cambios = new HashMap<>();
+        private boolean vaciar;
+
+        @Override
+        public Editor putString(String key, String value) {
+            cambios.put(key, value);
+            return this;
+        }
+
+        @Override
+        public Editor putStringSet(String key, Set<String> values) {
+            cambios.put(key, values);
+            return this;
+        }
+
+        @Override
+        public Editor putInt(String key, int value) {
+            cambios.put(key, value);
+            return this;
+        }
+
+        @Override
+        public Editor putLong(String key, long value) {
+            cambios.put(key, value);
+            return this;
+        }
+
+        @Override
+        public Editor putFloat(String key, float value) {
+            cambios.put(key, value);
+            return this;
+        }
+
+        @Override
+        public Editor putBoolean(String key, boolean value) {
+            cambios.put(key, value);
+            return this;
+        }
+
+        @Override
+        public Editor remove(String key) {
+            cambios.put(key, null);
+            return this;
+        }
+
+        @Override
+        public Editor clear() {
+            vaciar = true;
+            return this;
+        }
+
+        @Override
+        public boolean commit() {
+            apply();
+            return true;
+        }
+
+        @Override
+        public void apply() {
+            if (vaciar) {
+                valores.clear();
+            }
+            for (Map.Entry<String, Object> cambio : cambios.entrySet()) {
+                if (cambio.getValue() == null) {
+                    valores.remove(cambio.getKey());
+                } else {
+                    valores.put(cambio.getKey(), cambio.getValue());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.jlobatonm.socialclub_app.services;
+
+import android.content.Context;
+
+import com.jlobatonm.socialclub_app.database.CancellationToken;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas de {@link SyncCoordinator} con un reloj simulado y tareas controladas por la prueba.
+ */
+public class SyncCoordinatorTest {
+
+    private static final long MINIMO = TimeUnit.MINUTES.toMillis(15);
+    private static final long MAXIMO = TimeUnit.HOURS.toMillis(6);
+
+    private FakeClock clock;
+    private SchedulerGrabador scheduler;
+    private TareaControlada eventos;
+    private TareaControlada reservas;
+    private SyncCoordinator coordinator;
+
+    /**
+     * Planificador que sólo apunta los retrasos que se le piden.
+     */
+    private static final class SchedulerGrabador implements SyncScheduler {
+        final List<Long> retrasos = new ArrayList<>();
+        boolean cancelado;
+
+        @Override
+        public void programar(long retrasoMs, SyncConstraints restricciones) {
+            retrasos.add(retrasoMs);
+            cancelado = false;
+        }
+
+        @Override
+        public boolean estaProgramado() {
+            return !retrasos.isEmpty() && !cancelado;
+        }
+
+        @Override
+        public void cancelar() {
+            cancelado = true;
+        }
+    }
+
+    /**
+     * Tarea que no termina hasta que la prueba llama a {@link #terminar(boolean)}.
+     */
+    private static final class TareaControlada implements SyncTask {
+        final String nombre;
+        final List<Resultado> pendientes = new ArrayList<>();
+        int ejecuciones;
+
+        TareaControlada(String nombre) {
+            this.nombre = nombre;
+        }
+
+        @Override
+        public String getNombre() {
+            return nombre;
+        }
+
+        @Override
+        public void sincronizar(Context context, CancellationToken token, Resultado resultado) {
+            ejecuciones++;
+            pendientes.add(resultado);
+        }
+
+        void terminar(boolean cambios) {
+            pendientes.remove(0).onTerminado(cambios);
+        }
+    }
+
+    @Before
+    public void crearCoordinador() {
+        clock = new FakeClock(TimeUnit.DAYS.toMillis(1));
+        scheduler = new SchedulerGrabador();
+        eventos = new TareaControlada("eventos");
+        reservas = new TareaControlada("reservas");
+        coordinator = new SyncCoordinator(null, new FakeSharedPreferences(), scheduler,
+                new SyncPolicy(MINIMO, MAXIMO, 0, new Random(1)), clock, SyncConstraints.POR_DEFECTO);
+        coordinator.registrar(eventos);
+        coordinator.registrar(reservas);
+    }
+
+    @Test
+    public void lasPeticionesDuranteUnaSincronizacionSeAgrupanEnUnSoloDespertar() {
+        int[] avisos = {0};
+        coordinator.sincronizar(() -> avisos[0]++);
+        coordinator.sincronizar(() -> avisos[0]++);
+        coordinator.sincronizar(() -> avisos[0]++);
+
+        assertEquals(1, eventos.ejecuciones);
+        assertEquals(1, reservas.ejecuciones);
+
+        eventos.terminar(false);
+        assertEquals("No se avisa hasta que terminan todas las tareas", 0, avisos[0]);
+        reservas.terminar(false);
+
+        assertEquals(3, avisos[0]);
+        assertEquals(1, scheduler.retrasos.size());
+    }
+
+    @Test
+    public void unaPeticionJustoDespuesDeSincronizarNoConsultaElServidor() {
+        coordinator.sincronizar(() -> { });
+        eventos.terminar(false);
+        reservas.terminar(false);
+        clock.avanzar(MINIMO / 2 - 1);
+
+        boolean[] avisado = {false};
+        coordinator.sincronizar(() -> avisado[0] = true);
+
+        assertTrue(avisado[0]);
+        assertEquals(1, eventos.ejecuciones);
+        assertEquals(1, reservas.ejecuciones);
+
+        clock.avanzar(1);
+        coordinator.sincronizar(() -> { });
+        assertEquals(2, eventos.ejecuciones);
+    }
+
+    @Test
+    public void elRetrasoCreceSinCambiosYVuelveAlMinimoConCambios() {
+        for (int i = 0; i < 6; i++) {
+            ejecutar(false);
+        }
+        ejecutar(true);
+
+        assertEquals(List.of(
+                TimeUnit.MINUTES.toMillis(30),
+                TimeUnit.MINUTES.toMillis(60),
+                TimeUnit.MINUTES.toMillis(120),
+                TimeUnit.MINUTES.toMillis(240),
+                MAXIMO,
+                MAXIMO,
+                MINIMO), scheduler.retrasos);
+    }
+
+    @Test
+    public void unErrorCuentaComoEjecucionSinCambios() {
+        coordinator.sincronizar(() -> { });
+        eventos.pendientes.remove(0).onError(new Exception("sin red"));
+        reservas.terminar(false);
+
+        assertEquals(List.of(TimeUnit.MINUTES.toMillis(30)), scheduler.retrasos);
+    }
+
+    @Test
+    public void detenerDescartaElResultadoDeLaEjecucionCancelada() {
+        boolean[] avisado = {false};
+        coordinator.sincronizar(() -> avisado[0] = true);
+
+        assertTrue(coordinator.detener());
+        eventos.terminar(true);
+        reservas.terminar(true);
+
+        assertFalse(avisado[0]);
+        assertTrue(scheduler.retrasos.isEmpty());
+        assertFalse(coordinator.detener());
+    }
+
+    @Test
+    public void cancelarAnulaLaSincronizacionProgramadaYOlvidaElEstado() {
+        for (int i = 0; i < 3; i++) {
+            ejecutar(false);
+        }
+        boolean[] avisado = {false};
+        coordinator.sincronizar(() -> avisado[0] = true);
+
+        coordinator.cancelar();
+        eventos.terminar(true);
+        reservas.terminar(true);
+
+        assertFalse(avisado[0]);
+        assertFalse(scheduler.estaProgramado());
+
+        scheduler.retrasos.clear();
+        ejecutar(false);
+        assertEquals(List.of(TimeUnit.MINUTES.toMillis(30)), scheduler.retrasos);
+    }
+
+    /**
+     * Lanza una sincronización completa, con las dos tareas terminando igual, y deja pasar
+     * tiempo suficiente para que la siguiente no se agrupe con ella.
+     */
+    private void ejecutar(boolean cambios) {
+        coordinator.sincronizar(() -> { });
+        eventos.terminar(cambios);
+        reservas.terminar(false);
+        clock.avanzar(MINIMO);
+    }
+}
@@ -0,0 +1,76 @@
+package com.jlobatonm.socialclub_app.services;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas de {@link SyncPolicy}: crecimiento del retraso, vuelta al mínimo y límites del jitter.
+ */
+public class SyncPolicyTest {
+
+    private static final long MINIMO = TimeUnit.MINUTES.toMillis(15);
+    private static final long MAXIMO = TimeUnit.HOURS.toMillis(6);
+
+    @Test
+    public void elRetrasoSeDuplicaDesdeQuinceMinutosHastaSeisHoras() {
+        SyncPolicy policy = new SyncPolicy(MINIMO, MAXIMO, 0, new Random(1));
+
+        assertEquals(TimeUnit.MINUTES.toMillis(15), policy.siguienteRetraso(0));
+        assertEquals(TimeUnit.MINUTES.toMillis(30), policy.siguienteRetraso(1));
+        assertEquals(TimeUnit.MINUTES.toMillis(60), policy.siguienteRetraso(2));
+        assertEquals(TimeUnit.MINUTES.toMillis(120), policy.siguienteRetraso(3));
+        assertEquals(TimeUnit.MINUTES.toMillis(240), policy.siguienteRetraso(4));
+        assertEquals(MAXIMO, policy.siguienteRetraso(5));
+        assertEquals(MAXIMO, policy.siguienteRetraso(6));
+        assertEquals(MAXIMO, policy.siguienteRetraso(1000));
+    }
+
+    @Test
+    public void unaEjecucionConCambiosVuelveAlIntervaloMinimo() {
+        SyncPolicy policy = new SyncPolicy(MINIMO, MAXIMO, 0, new Random(1));
+
+        assertEquals(MAXIMO, policy.siguienteRetraso(10));
+        assertEquals(MINIMO, policy.siguienteRetraso(0));
+    }
+
+    @Test
+    public void elJitterQuedaDentroDeLosLimites() {
+        double jitter = 0.2;
+        SyncPolicy policy = new SyncPolicy(MINIMO, MAXIMO, jitter, new Random(42));
+
+        for (int sinCambios = 0; sinCambios <= 6; sinCambios++) {
+            long base = Math.min(MINIMO << sinCambios, MAXIMO);
+            long menor = Long.MAX_VALUE;
+            long mayor = Long.MIN_VALUE;
+            for (int i = 0; i < 1000; i++) {
+                long retraso = policy.siguienteRetraso(sinCambios);
+                assertTrue("Retraso por debajo del jitter: " + retraso, retraso >= Math.round(base * (1 - jitter)));
+                assertTrue("Retraso por encima del jitter: " + retraso, retraso <= Math.round(base * (1 + jitter)));
+                menor = Math.min(menor, retraso);
+                mayor = Math.max(mayor, retraso);
+            }
+            // El jitter reparte los retrasos, no deja siempre el mismo valor
+            assertTrue(menor < base && mayor > base);
+        }
+    }
+
+    @Test
+    public void unaEjecucionEsRecienteDuranteMedioIntervaloMinimo() {
+        SyncPolicy policy = new SyncPolicy(MINIMO, MAXIMO, 0, new Random(1));
+        FakeClock clock = new FakeClock(TimeUnit.DAYS.toMillis(1));
+        long ultima = clock.currentTimeMillis();
+
+        assertFalse(policy.esReciente(clock, 0));
+        assertTrue(policy.esReciente(clock, ultima));
+        clock.avanzar(MINIMO / 2 - 1);
+        assertTrue(policy.esReciente(clock, ultima));
+        clock.avanzar(1);
+        assertFalse(policy.esReciente(clock, ultima));
+    }
+}
@@ -0,0 +1,49 @@
+package com.jlobatonm.socialclub_app.ui.reservas;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pruebas de {@link IndiceDisponibilidad}: una precarga empezada antes de invalidar no se guarda.
+ */
+public class IndiceDisponibilidadTest {
+
+    private static final int INSTALACION = 1;
+    private static final int OTRA_INSTALACION = 2;
+    private static final long VIGENCIA_MS = 60_000;
+
+    @Test
+    public void unaPrecargaEmpezadaAntesDeInvalidarSeDescarta() {
+        IndiceDisponibilidad indice = new IndiceDisponibilidad();
+        int generacion = indice.getGeneracion(INSTALACION);
+
+        indice.invalidar(INSTALACION);
+
+        assertFalse(indice.guardar(INSTALACION, new HashMap<>(), 1_000, generacion));
+        assertTrue(indice.necesitaRefresco(INSTALACION, 1_000, VIGENCIA_MS));
+    }
+
+    @Test
+    public void unaPrecargaEmpezadaDespuesDeInvalidarSeGuarda() {
+        IndiceDisponibilidad indice = new IndiceDisponibilidad();
+        indice.invalidar(INSTALACION);
+        int generacion = indice.getGeneracion(INSTALACION);
+
+        assertTrue(indice.guardar(INSTALACION, new HashMap<>(), 1_000, generacion));
+        assertFalse(indice.necesitaRefresco(INSTALACION, 1_000, VIGENCIA_MS));
+    }
+
+    @Test
+    public void invalidarUnaInstalacionNoAfectaALasDemas() {
+        IndiceDisponibilidad indice = new IndiceDisponibilidad();
+        int generacion = indice.getGeneracion(OTRA_INSTALACION);
+
+        indice.invalidar(INSTALACION);
+
+        assertTrue(indice.guardar(OTRA_INSTALACION, new HashMap<>(), 1_000, generacion));
+    }
+}
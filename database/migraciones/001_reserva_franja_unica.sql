@@ -0,0 +1,10 @@
+-- Garantiza que una franja (instalación, fecha, hora) sólo pueda reservarse una vez.
+-- La aplicación inserta directamente y trata el error 1062 (ER_DUP_ENTRY) como "hora ocupada".
+
+-- Antes de aplicar la migración, comprobar que no existen reservas duplicadas:
+-- SELECT id_instalacion, fecha, hora, COUNT(*)
+--   FROM reserva
+--  GROUP BY id_instalacion, fecha, hora
+-- HAVING COUNT(*) > 1;
+
+ALTER TABLE reserva ADD UNIQUE KEY uk_reserva_franja (id_instalacion, fecha, hora);
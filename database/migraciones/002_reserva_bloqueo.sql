@@ -0,0 +1,12 @@
+-- Bloqueos temporales de franjas mientras un socio confirma la reserva.
+-- La clave primaria impide que dos socios bloqueen la misma franja a la vez; los bloqueos
+-- caducados se descartan al bloquear de nuevo la franja, por lo que no hace falta un proceso de limpieza.
+
+CREATE TABLE reserva_bloqueo (
+    id_instalacion INT         NOT NULL,
+    fecha          DATE        NOT NULL,
+    hora           TIME        NOT NULL,
+    numero_socio   VARCHAR(20) NOT NULL,
+    expira         DATETIME    NOT NULL,
+    PRIMARY KEY (id_instalacion, fecha, hora)
+);
@@ -0,0 +1,5 @@
+-- Índice para las reservas de un socio: las próximas (fecha/hora desde ahora) y el historial
+-- paginado por clave (fecha, hora, id_reserva) se resuelven como un rango sobre este índice,
+-- sin recorrer ni ordenar todas las reservas del socio.
+
+ALTER TABLE reserva ADD INDEX idx_reserva_socio_fecha (numero_socio, fecha, hora, id_reserva);
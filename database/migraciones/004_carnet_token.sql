@@ -0,0 +1,13 @@
+-- Carnet digital firmado para el acceso sin conexión.
+-- El sistema de control de acceso del club, que es el único que guarda la clave privada ECDSA P-256,
+-- emite para cada socio un token con su número, su titularidad y un periodo de validez, y lo renueva
+-- antes de que caduque. La app sólo lo descarga, lo guarda en el dispositivo y lo muestra como QR;
+-- los lectores lo verifican con la clave pública, sin consultar MySQL en cada entrada.
+-- Formato del token: ver com.jlobatonm.socialclub_app.model.CarnetToken.
+
+CREATE TABLE carnet_token (
+    numero_socio VARCHAR(20)  NOT NULL,
+    token        VARCHAR(255) NOT NULL,
+    valido_hasta DATETIME     NOT NULL,
+    PRIMARY KEY (numero_socio)
+);
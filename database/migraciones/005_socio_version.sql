@@ -0,0 +1,5 @@
+-- Versión del perfil del socio para el bloqueo optimista: cada actualización desde la app
+-- incrementa la versión y sólo se aplica si coincide con la que se leyó, de modo que dos
+-- ediciones simultáneas (por ejemplo, desde dos dispositivos) no se pisan en silencio.
+
+ALTER TABLE socio ADD COLUMN version INT NOT NULL DEFAULT 0;